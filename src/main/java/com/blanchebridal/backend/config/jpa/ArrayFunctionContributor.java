@@ -0,0 +1,29 @@
+package com.blanchebridal.backend.config.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers case-insensitive PostgreSQL array containment as an HQL /
+ * Criteria function.
+ *
+ * Rendered with the {@code @>} operator over upper_text_array (V20) so the
+ * GIN expression index on products.sizes can serve it; Hibernate's built-in
+ * array_contains does not guarantee an index-friendly rendering.
+ *
+ * Registered through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class ArrayFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(
+                "text_array_has_ignore_case",
+                "(upper_text_array(?1) @> array[upper(cast(?2 as text))])",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,79 @@
+package com.blanchebridal.backend.config.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Registers the PostgreSQL full-text operators as HQL / Criteria functions.
+ *
+ * products.search_vector is generated by Postgres and not mapped on Product,
+ * so both functions take any column of the product row (its id) as their
+ * first argument and render search_vector of that same table alias.
+ * The match is rendered with the {@code @@} operator (not ts_match_vq) so the
+ * GIN index on products.search_vector can serve it. The text search config
+ * must stay in sync with the generated column in V17.
+ *
+ * Registered through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().register("fts_match", new SearchVectorFunction(
+                "fts_match", "(%s @@ to_tsquery('english', ", "))",
+                types.resolve(StandardBasicTypes.BOOLEAN)));
+
+        functionContributions.getFunctionRegistry().register("fts_rank", new SearchVectorFunction(
+                "fts_rank", "ts_rank(%s, to_tsquery('english', ", "))",
+                types.resolve(StandardBasicTypes.DOUBLE)));
+    }
+
+    // fn(productColumn, tsQuery) — prefix with %s for the search_vector column
+    private static final class SearchVectorFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String prefix;
+        private final String suffix;
+
+        private SearchVectorFunction(String name, String prefix, String suffix, BasicType<?> returnType) {
+            super(name,
+                    StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(returnType),
+                    StandardFunctionArgumentTypeResolvers.NULL);
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender,
+                           List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType,
+                           SqlAstTranslator<?> walker) {
+            if (!(arguments.get(0) instanceof ColumnReference column)) {
+                throw new IllegalArgumentException(getName() + " expects a column of products as its first argument");
+            }
+            String vector = column.getQualifier() == null
+                    ? "search_vector"
+                    : column.getQualifier() + ".search_vector";
+
+            sqlAppender.appendSql(prefix.formatted(vector));
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(suffix);
+        }
+    }
+}
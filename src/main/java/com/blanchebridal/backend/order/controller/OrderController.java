@@ -2,10 +2,12 @@ package com.blanchebridal.backend.order.controller;
 
 import com.blanchebridal.backend.auth.security.JwtUtil;
 import com.blanchebridal.backend.exception.UnauthorizedException;
+import com.blanchebridal.backend.order.dto.req.BulkOrderStatusRequest;
 import com.blanchebridal.backend.order.dto.req.CreateOrderRequest;
 import com.blanchebridal.backend.order.dto.req.UpdateOrderStatusRequest;
 import com.blanchebridal.backend.order.entity.OrderStatus;
 import com.blanchebridal.backend.order.service.OrderService;
+import com.blanchebridal.backend.shared.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +31,7 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
     private final JwtUtil jwtUtil;
 
     @GetMapping
@@ -54,6 +57,19 @@ public class OrderController {
         ));
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN', 'EMPLOYEE')")
+    public ResponseEntity<Map<String, Object>> searchOrders(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int size) {
+
+        log.info("[Order] Search → q: {}", q);
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", orderService.searchOrders(q, size)
+        ));
+    }
+
     @GetMapping("/my")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Map<String, Object>> getMyOrders(
@@ -94,13 +110,16 @@ public class OrderController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Map<String, Object>> createOrder(
             @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateOrderRequest request) {
 
         UUID userId = extractUserId(authHeader);
         log.info("[Order] Create request — user: {}, items: {}",
                 userId, request.getItems() != null ? request.getItems().size() : 0);
+        // A checkout retried with the same key gets the first order back
         return ResponseEntity.ok(Map.of("success", true,
-                "data", orderService.createOrder(request, userId)));
+                "data", idempotencyService.execute("order:create", userId, idempotencyKey, request,
+                        () -> orderService.createOrder(request, userId))));
     }
 
     @PutMapping("/{id}/status")
@@ -115,6 +134,33 @@ public class OrderController {
                 "data", orderService.updateOrderStatus(id, request.getStatus())));
     }
 
+    @PutMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<Map<String, Object>> updateOrderStatuses(
+            @Valid @RequestBody BulkOrderStatusRequest request) {
+
+        log.info("[Order] Bulk status update request — {} order(s), new status: {}",
+                request.getOrderIds().size(), request.getStatus());
+        return ResponseEntity.ok(Map.of("success", true,
+                "data", orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus())));
+    }
+
+    // Paid orders waiting on staff — oversold products and payments to refund
+    @GetMapping("/follow-ups")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN', 'EMPLOYEE')")
+    public ResponseEntity<Map<String, Object>> getOpenFollowUps() {
+        return ResponseEntity.ok(Map.of("success", true,
+                "data", orderService.getOpenFollowUps()));
+    }
+
+    @PutMapping("/follow-ups/{id}/resolve")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<Map<String, Object>> resolveFollowUp(@PathVariable UUID id) {
+        log.info("[Order] Resolve follow-up request — follow-up: {}", id);
+        orderService.resolveFollowUp(id);
+        return ResponseEntity.ok(Map.of("success", true));
+    }
+
     @PostMapping("/{id}/cancel")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Map<String, Object>> cancelOrder(
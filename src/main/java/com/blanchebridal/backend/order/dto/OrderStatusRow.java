@@ -0,0 +1,8 @@
+package com.blanchebridal.backend.order.dto;
+
+import com.blanchebridal.backend.order.entity.OrderStatus;
+
+import java.util.UUID;
+
+// Just enough of an order to validate a status change against its version
+public record OrderStatusRow(UUID id, OrderStatus status, Long version) {}
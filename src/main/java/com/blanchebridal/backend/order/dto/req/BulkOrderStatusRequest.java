@@ -0,0 +1,21 @@
+package com.blanchebridal.backend.order.dto.req;
+
+import com.blanchebridal.backend.order.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkOrderStatusRequest {
+
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 200, message = "At most 200 orders can be updated at once")
+    private List<@NotNull UUID> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
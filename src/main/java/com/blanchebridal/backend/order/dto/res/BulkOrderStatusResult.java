@@ -0,0 +1,20 @@
+package com.blanchebridal.backend.order.dto.res;
+
+import com.blanchebridal.backend.order.entity.OrderStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk status change. updated orders moved to the target
+ * status; unchanged ones were already there; rejected ones were left as is,
+ * each with the reason.
+ */
+public record BulkOrderStatusResult(
+        OrderStatus status,
+        List<UUID> updated,
+        List<UUID> unchanged,
+        List<Rejection> rejected
+) {
+    public record Rejection(UUID orderId, String reason) {}
+}
@@ -0,0 +1,24 @@
+package com.blanchebridal.backend.order.dto.res;
+
+import com.blanchebridal.backend.order.entity.OrderFollowUpReason;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An open follow-up on a paid order. OVERSOLD carries the product and the
+ * quantity that could not be deducted; PAID_AFTER_CANCEL the payment and
+ * the amount to refund.
+ */
+public record OrderFollowUpResponse(
+        UUID id,
+        UUID orderId,
+        OrderFollowUpReason reason,
+        UUID productId,
+        String productName,
+        Integer quantity,
+        UUID paymentId,
+        BigDecimal amount,
+        LocalDateTime createdAt
+) {}
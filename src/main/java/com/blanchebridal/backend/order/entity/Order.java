@@ -3,6 +3,7 @@ package com.blanchebridal.backend.order.entity;
 import com.blanchebridal.backend.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
@@ -49,11 +50,17 @@ public class Order {
     @Column(name = "order_mode", length = 10)
     private String orderMode;
 
+    // Initialised for a whole listing page at once instead of one query per order
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<OrderItem> items;
 
+    // Guards status changes against concurrent edits (V26)
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
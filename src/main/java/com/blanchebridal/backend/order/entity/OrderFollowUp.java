@@ -0,0 +1,64 @@
+package com.blanchebridal.backend.order.entity;
+
+import com.blanchebridal.backend.product.entity.Product;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A paid order that could not be fulfilled as paid and needs staff action.
+ * OVERSOLD rows name the product and quantity short; PAID_AFTER_CANCEL rows
+ * name the payment and amount to refund. Open until staff mark it resolved.
+ */
+@Entity
+@Table(name = "order_follow_ups")
+@Data @Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFollowUp {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Order order;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderFollowUpReason reason;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Product product;
+
+    // Snapshot, like OrderItem — survives product rename / delete
+    @Column(name = "product_name", length = 255)
+    private String productName;
+
+    // Quantity ordered but not deducted
+    private Integer quantity;
+
+    // Plain id — the payment module already depends on orders, not the reverse
+    @Column(name = "payment_id")
+    private UUID paymentId;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+}
@@ -0,0 +1,8 @@
+package com.blanchebridal.backend.order.entity;
+
+public enum OrderFollowUpReason {
+    // A product of a paid order whose stock could not be deducted
+    OVERSOLD,
+    // A payment that completed after its order was already cancelled
+    PAID_AFTER_CANCEL
+}
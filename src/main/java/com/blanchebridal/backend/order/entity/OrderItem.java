@@ -14,8 +14,10 @@ import java.util.UUID;
 @AllArgsConstructor
 public class OrderItem {
 
+    // Assigned in the application rather than by the database, so Hibernate
+    // can batch the item inserts of an order into one statement
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,10 +1,31 @@
 package com.blanchebridal.backend.order.entity;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     CONFIRMED,
     PROCESSING,
     READY,
     COMPLETED,
-    CANCELLED
-}
\ No newline at end of file
+    CANCELLED;
+
+    // Allowed moves for staff status changes. COMPLETED and CANCELLED are final.
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING,    EnumSet.of(CONFIRMED, CANCELLED));
+        TRANSITIONS.put(CONFIRMED,  EnumSet.of(PROCESSING, READY, CANCELLED));
+        TRANSITIONS.put(PROCESSING, EnumSet.of(READY, CANCELLED));
+        TRANSITIONS.put(READY,      EnumSet.of(COMPLETED, CANCELLED));
+        TRANSITIONS.put(COMPLETED,  EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED,  EnumSet.noneOf(OrderStatus.class));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+}
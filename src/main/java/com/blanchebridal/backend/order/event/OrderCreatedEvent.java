@@ -0,0 +1,10 @@
+package com.blanchebridal.backend.order.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a PENDING order is created. Listeners run after the
+ * publishing transaction commits.
+ */
+public record OrderCreatedEvent(UUID orderId, LocalDateTime createdAt) {}
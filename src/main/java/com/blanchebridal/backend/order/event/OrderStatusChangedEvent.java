@@ -0,0 +1,12 @@
+package com.blanchebridal.backend.order.event;
+
+import com.blanchebridal.backend.order.entity.OrderStatus;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when staff move one or more orders to a new status. Listeners
+ * run after the publishing transaction commits.
+ */
+public record OrderStatusChangedEvent(Set<UUID> orderIds, OrderStatus status) {}
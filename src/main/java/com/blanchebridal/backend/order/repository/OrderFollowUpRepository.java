@@ -0,0 +1,13 @@
+package com.blanchebridal.backend.order.repository;
+
+import com.blanchebridal.backend.order.entity.OrderFollowUp;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderFollowUpRepository extends JpaRepository<OrderFollowUp, UUID> {
+
+    // Open follow-ups, oldest first (partial index idx_order_follow_ups_open)
+    List<OrderFollowUp> findByResolvedAtIsNullOrderByCreatedAtAsc();
+}
@@ -1,18 +1,51 @@
 package com.blanchebridal.backend.order.repository;
 
+import com.blanchebridal.backend.order.dto.OrderStatusRow;
 import com.blanchebridal.backend.order.entity.Order;
 import com.blanchebridal.backend.order.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderRepositoryCustom {
 
+    // Listings join the customer into the page query. Items are a collection,
+    // so they are not fetch-joined (that would page in memory) — @BatchSize on
+    // Order.items loads them for the whole page in one IN query instead.
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Order> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
     Page<Order> findByUser_Id(UUID userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
-    List<Order> findByStatusAndCreatedAtBefore(OrderStatus status, LocalDateTime cutoff);
-}
\ No newline at end of file
+
+    // Single order detail — customer and items in one statement
+    @EntityGraph(attributePaths = {"user", "items"})
+    Optional<Order> findWithDetailsById(UUID id);
+
+    @EntityGraph(attributePaths = {"user", "items"})
+    List<Order> findWithDetailsByIdIn(Collection<UUID> ids);
+
+    // SELECT ... FOR UPDATE — the payment webhook holds this for its whole
+    // transaction, so the expiry sweeps cannot cancel the order underneath it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT new com.blanchebridal.backend.order.dto.OrderStatusRow(o.id, o.status, o.version) " +
+           "FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusRow> findStatusRows(@Param("ids") Collection<UUID> ids);
+}
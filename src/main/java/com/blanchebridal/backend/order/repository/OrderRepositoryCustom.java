@@ -0,0 +1,19 @@
+package com.blanchebridal.backend.order.repository;
+
+import com.blanchebridal.backend.order.entity.OrderStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface OrderRepositoryCustom {
+
+    // Moves every order (id → expected version) to the target status in one
+    // statement; returns the ids whose version still matched
+    List<UUID> updateStatuses(Map<UUID, Long> expectedVersions, OrderStatus target);
+
+    // Newest-first ids of orders whose customer name, email or phone, order
+    // phone or delivery address contains the text, or whose id starts with
+    // the hex prefix. Either criterion may be null, not both.
+    List<UUID> searchIds(String text, String idPrefix, int limit);
+}
@@ -0,0 +1,107 @@
+package com.blanchebridal.backend.order.repository;
+
+import com.blanchebridal.backend.order.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk status change as a single UPDATE over unnest(ids, versions). A row
+ * whose version moved since it was read is skipped rather than overwritten,
+ * and is missing from the returned ids.
+ *
+ * Order search is a UNION of index-backed branches: trigram LIKE over the
+ * order and customer columns (V29) and a primary-key range for the id prefix.
+ */
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String UPDATE_STATUSES_SQL = """
+            UPDATE orders o
+            SET status     = ?,
+                version    = o.version + 1,
+                updated_at = NOW()
+            FROM unnest(?::uuid[], ?::bigint[]) AS w(id, version)
+            WHERE o.id = w.id
+              AND o.version = w.version
+            RETURNING o.id
+            """;
+
+    // Expressions must stay identical to the V29 index definitions
+    private static final String ORDER_TEXT_BRANCH = """
+            SELECT id FROM orders
+             WHERE lower(coalesce(customer_phone, '') || ' ' || coalesce(delivery_address, '')) LIKE ?
+            """;
+
+    private static final String CUSTOMER_TEXT_BRANCH = """
+            SELECT o.id FROM orders o
+              JOIN users u ON u.id = o.user_id
+             WHERE lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '') || ' '
+                         || u.email || ' ' || coalesce(u.phone, '')) LIKE ?
+            """;
+
+    private static final String ID_PREFIX_BRANCH = """
+            SELECT id FROM orders WHERE id BETWEEN ?::uuid AND ?::uuid
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<UUID> updateStatuses(Map<UUID, Long> expectedVersions, OrderStatus target) {
+        if (expectedVersions.isEmpty()) return List.of();
+
+        UUID[] ids = expectedVersions.keySet().toArray(new UUID[0]);
+        Long[] versions = expectedVersions.values().toArray(new Long[0]);
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPDATE_STATUSES_SQL);
+            ps.setString(1, target.name());
+            ps.setArray(2, con.createArrayOf("uuid", ids));
+            ps.setArray(3, con.createArrayOf("bigint", versions));
+            return ps;
+        }, (rs, i) -> rs.getObject(1, UUID.class));
+    }
+
+    @Override
+    public List<UUID> searchIds(String text, String idPrefix, int limit) {
+        List<String> branches = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (text != null) {
+            String pattern = "%" + escapeLike(text) + "%";
+            branches.add(ORDER_TEXT_BRANCH);
+            branches.add(CUSTOMER_TEXT_BRANCH);
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (idPrefix != null) {
+            branches.add(ID_PREFIX_BRANCH);
+            args.add(toUuid(idPrefix, '0'));
+            args.add(toUuid(idPrefix, 'f'));
+        }
+        if (branches.isEmpty()) return List.of();
+        args.add(limit);
+
+        String sql = "SELECT o.id FROM orders o WHERE o.id IN (" + String.join(" UNION ", branches) + ") "
+                + "ORDER BY o.created_at DESC, o.id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, i) -> rs.getObject(1, UUID.class), args.toArray());
+    }
+
+    // "ab12" → "ab120000-0000-0000-0000-000000000000" (or ...ffff) — the
+    // lowest / highest uuid with that prefix, so the match is a key range
+    private static String toUuid(String hexPrefix, char pad) {
+        String hex = (hexPrefix + String.valueOf(pad).repeat(32)).substring(0, 32);
+        return hex.substring(0, 8) + "-" + hex.substring(8, 12) + "-" + hex.substring(12, 16)
+                + "-" + hex.substring(16, 20) + "-" + hex.substring(20);
+    }
+
+    // LIKE's default escape character is backslash
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,159 @@
+package com.blanchebridal.backend.order.scheduler;
+
+import com.blanchebridal.backend.order.event.OrderCreatedEvent;
+import com.blanchebridal.backend.product.service.StockReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels each unpaid order at its own deadline — 30 minutes after creation —
+ * instead of waiting for the next OrderScheduler poll.
+ *
+ * Orders are registered when their creating transaction commits and parked
+ * in a DelayQueue, which a single worker thread drains as entries come due.
+ * Nothing touches the database until an order is actually due. The queue
+ * is rebuilt from the PENDING orders on startup; OrderScheduler still runs
+ * as a slow safety net for anything this instance missed.
+ *
+ * An order that was paid or cancelled in the meantime is simply skipped —
+ * the UPDATE only matches rows that are still PENDING.
+ */
+@Slf4j
+@Component
+public class OrderExpiryScheduler {
+
+    private static final String PENDING_SQL =
+            "SELECT id, created_at FROM orders WHERE status = 'PENDING'";
+
+    // No SKIP LOCKED: an order a payment webhook holds FOR UPDATE is waited
+    // on, and once the webhook commits it is no longer PENDING and is skipped
+    private static final String CANCEL_SQL = """
+            UPDATE orders
+            SET status = 'CANCELLED', version = version + 1, updated_at = NOW()
+            WHERE id = ANY(?) AND status = 'PENDING'
+            RETURNING id
+            """;
+
+    private record Expiry(UUID orderId, long deadlineMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineMillis, ((Expiry) other).deadlineMillis);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationService stockReservationService;
+    private final DelayQueue<Expiry> queue = new DelayQueue<>();
+
+    private volatile Thread worker;
+
+    public OrderExpiryScheduler(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                StockReservationService stockReservationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockReservationService = stockReservationService;
+    }
+
+    /** Schedules the order to be cancelled once its PENDING window has passed. */
+    public void register(UUID orderId, LocalDateTime createdAt) {
+        LocalDateTime deadline = (createdAt != null ? createdAt : LocalDateTime.now())
+                .plus(OrderScheduler.PENDING_TIMEOUT);
+        queue.add(new Expiry(orderId, deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    /** Orders currently waiting for their deadline. */
+    public int scheduledCount() {
+        return queue.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        register(event.orderId(), event.createdAt());
+    }
+
+    // Started before the rebuild so orders created meanwhile are never lost;
+    // an order registered twice is only cancelled once
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (worker != null) return;
+        worker = Thread.ofPlatform().name("order-expiry").daemon().start(this::runWorker);
+
+        jdbcTemplate.query(PENDING_SQL, rs -> {
+            register(rs.getObject("id", UUID.class), rs.getTimestamp("created_at").toLocalDateTime());
+        });
+        log.info("[OrderExpiry] Tracking {} PENDING order(s)", queue.size());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker == null) return;
+        worker.interrupt();
+        worker = null;
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────
+
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Expiry> due = new ArrayList<>();
+            try {
+                due.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Everything else already past its deadline goes in the same statement
+            queue.drainTo(due);
+
+            try {
+                expire(due.stream().map(Expiry::orderId).distinct().toList());
+            } catch (RuntimeException e) {
+                // Left for the OrderScheduler safety net
+                log.warn("[OrderExpiry] Failed to expire {} order(s): {}", due.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void expire(List<UUID> orderIds) {
+        UUID[] ids = orderIds.toArray(new UUID[0]);
+        List<UUID> cancelled = transactionTemplate.execute(status -> {
+            List<UUID> rows = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(CANCEL_SQL);
+                ps.setArray(1, con.createArrayOf("uuid", ids));
+                return ps;
+            }, (rs, i) -> rs.getObject(1, UUID.class));
+            if (!rows.isEmpty()) stockReservationService.release(rows);
+            return rows;
+        });
+
+        for (UUID id : cancelled) {
+            log.info("[OrderExpiry] Auto-cancelled unpaid order {} at its deadline", id);
+        }
+    }
+}
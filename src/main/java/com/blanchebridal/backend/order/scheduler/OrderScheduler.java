@@ -1,20 +1,24 @@
 package com.blanchebridal.backend.order.scheduler;
 
-import com.blanchebridal.backend.order.entity.Order;
-import com.blanchebridal.backend.order.entity.OrderStatus;
-import com.blanchebridal.backend.order.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import com.blanchebridal.backend.product.service.StockReservationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 /**
- * Runs every 5 minutes and cancels any PENDING orders that have not been
- * paid within 30 minutes of creation.
+ * Safety net behind OrderExpiryScheduler: runs every 30 minutes and cancels
+ * any PENDING orders that have not been paid within 30 minutes of creation
+ * but were missed at their deadline (e.g. created on another instance, or
+ * the database was unreachable when they came due).
  *
  * This covers the case where a customer:
  *   - Clicks "Place Order & Pay" but closes the browser before PayHere loads
@@ -23,37 +27,87 @@ import java.util.List;
  *
  * Because stock is only deducted in PaymentServiceImpl.handleWebhook() on a
  * confirmed payment, cancelling a PENDING order here never needs to restore
- * stock — there is nothing to restore.
+ * stock — it only releases the reservation taken at order creation. Holds
+ * that outlived their expiry for any other reason are swept on the same run.
+ *
+ * Orders are cancelled with a bulk UPDATE in chunks, each in its own short
+ * transaction, so a backlog after a gateway outage never turns into one long
+ * transaction holding thousands of row locks.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OrderScheduler {
 
-    private final OrderRepository orderRepository;
+    // How long an unpaid order holds its stock — shared with OrderExpiryScheduler
+    static final Duration PENDING_TIMEOUT = Duration.ofMinutes(30);
+
+    static final int CHUNK_SIZE = 500;
+
+    // Served by the partial index on (created_at) WHERE status = 'PENDING' (V25).
+    // SKIP LOCKED passes over orders a payment webhook has locked (it takes
+    // FOR UPDATE on the order before confirming); they are retried next run.
+    private static final String CANCEL_CHUNK_SQL = """
+            UPDATE orders o
+            SET status = 'CANCELLED', version = o.version + 1, updated_at = NOW()
+            FROM (
+                SELECT id FROM orders
+                WHERE status = 'PENDING' AND created_at < ?
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ) stale
+            WHERE o.id = stale.id
+              AND o.status = 'PENDING'
+            RETURNING o.id, o.created_at
+            """;
+
+    private record Cancelled(UUID id, LocalDateTime createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationService stockReservationService;
 
-    private static final int PENDING_TIMEOUT_MINUTES = 30;
+    public OrderScheduler(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          StockReservationService stockReservationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockReservationService = stockReservationService;
+    }
 
-    @Scheduled(fixedRate = 300_000) // every 5 minutes
-    @Transactional
+    @Scheduled(fixedRate = 1_800_000, initialDelay = 300_000) // every 30 minutes
     public void cancelStaleOrders() {
-        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(PENDING_TIMEOUT_MINUTES);
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(PENDING_TIMEOUT));
+
+        int total = 0;
+        List<Cancelled> chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> cancelChunk(cutoff));
+            for (Cancelled order : chunk) {
+                log.info("[OrderScheduler] Auto-cancelled stale PENDING order {} (created at {})",
+                        order.id(), order.createdAt());
+            }
+            total += chunk.size();
+        } while (chunk.size() == CHUNK_SIZE);
 
-        List<Order> staleOrders = orderRepository
-                .findByStatusAndCreatedAtBefore(OrderStatus.PENDING, cutoff);
+        transactionTemplate.executeWithoutResult(status -> stockReservationService.releaseExpired());
 
-        if (staleOrders.isEmpty()) {
+        if (total == 0) {
             log.debug("[OrderScheduler] No stale PENDING orders found.");
             return;
         }
+        log.info("[OrderScheduler] Auto-cancelled {} stale order(s).", total);
+    }
 
-        for (Order order : staleOrders) {
-            order.setStatus(OrderStatus.CANCELLED);
-            orderRepository.save(order);
-            log.info("[OrderScheduler] Auto-cancelled stale PENDING order {} (created at {})",
-                    order.getId(), order.getCreatedAt());
-        }
+    // One chunk: cancel, then release the reservations of exactly those orders
+    private List<Cancelled> cancelChunk(Timestamp cutoff) {
+        List<Cancelled> cancelled = jdbcTemplate.query(CANCEL_CHUNK_SQL, (rs, i) -> new Cancelled(
+                rs.getObject("id", UUID.class),
+                rs.getTimestamp("created_at").toLocalDateTime()), cutoff, CHUNK_SIZE);
 
-        log.info("[OrderScheduler] Auto-cancelled {} stale order(s).", staleOrders.size());
+        if (!cancelled.isEmpty()) {
+            stockReservationService.release(cancelled.stream().map(Cancelled::id).toList());
+        }
+        return cancelled;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.blanchebridal.backend.order.service;
+
+import com.blanchebridal.backend.order.event.OrderStatusChangedEvent;
+
+public interface OrderNotificationService {
+
+    /**
+     * Emails customers about a committed bulk status change. Runs on the
+     * async executor, so the request that changed the statuses never waits on SMTP.
+     */
+    void onStatusChanged(OrderStatusChangedEvent event);
+}
@@ -1,11 +1,14 @@
 package com.blanchebridal.backend.order.service;
 
 import com.blanchebridal.backend.order.dto.req.CreateOrderRequest;
+import com.blanchebridal.backend.order.dto.res.BulkOrderStatusResult;
+import com.blanchebridal.backend.order.dto.res.OrderFollowUpResponse;
 import com.blanchebridal.backend.order.dto.res.OrderResponse;
 import com.blanchebridal.backend.order.entity.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface OrderService {
@@ -13,7 +16,11 @@ public interface OrderService {
     OrderResponse createOrder(CreateOrderRequest req, UUID userId);
     Page<OrderResponse> getAllOrders(OrderStatus status, Pageable pageable);
     Page<OrderResponse> getMyOrders(UUID userId, Pageable pageable);
+    List<OrderResponse> searchOrders(String query, int limit);
     OrderResponse getOrderById(UUID id, UUID requestingUserId, String role);
     OrderResponse updateOrderStatus(UUID id, OrderStatus newStatus);
+    BulkOrderStatusResult updateOrderStatuses(List<UUID> ids, OrderStatus newStatus);
     void cancelOrder(UUID id, UUID userId);
+    List<OrderFollowUpResponse> getOpenFollowUps();
+    void resolveFollowUp(UUID id);
 }
\ No newline at end of file
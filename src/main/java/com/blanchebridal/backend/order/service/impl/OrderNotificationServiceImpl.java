@@ -0,0 +1,67 @@
+package com.blanchebridal.backend.order.service.impl;
+
+import com.blanchebridal.backend.order.entity.Order;
+import com.blanchebridal.backend.order.entity.OrderStatus;
+import com.blanchebridal.backend.order.event.OrderStatusChangedEvent;
+import com.blanchebridal.backend.order.repository.OrderRepository;
+import com.blanchebridal.backend.order.service.OrderNotificationService;
+import com.blanchebridal.backend.shared.email.EmailService;
+import com.blanchebridal.backend.user.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderNotificationServiceImpl implements OrderNotificationService {
+
+    private final OrderRepository orderRepository;
+    private final EmailService emailService;
+
+    @Async
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (event.status() != OrderStatus.CONFIRMED || event.orderIds().isEmpty()) return;
+
+        // Customers and items for every order in one query
+        List<Order> orders = orderRepository.findWithDetailsByIdIn(event.orderIds());
+        int sent = 0;
+        for (Order order : orders) {
+            // One failed address must not stop the rest of the batch
+            try {
+                if (sendConfirmation(order)) sent++;
+            } catch (Exception e) {
+                log.warn("Failed to send order confirmation email for order {}: {}",
+                        order.getId(), e.getMessage());
+            }
+        }
+        log.info("[Order] Sent {} confirmation email(s) for {} order(s)", sent, orders.size());
+    }
+
+    private boolean sendConfirmation(Order order) {
+        User customer = order.getUser();
+        if (customer == null) return false;
+
+        List<String> itemSummaries = order.getItems().stream()
+                .map(item -> item.getProductName()
+                        + " × " + item.getQuantity()
+                        + " — LKR " + item.getUnitPrice())
+                .toList();
+
+        emailService.sendOrderConfirmationEmail(
+                customer.getEmail(),
+                customer.getFirstName() + " " + customer.getLastName(),
+                order.getId().toString().substring(0, 8).toUpperCase(),
+                order.getTotalAmount(),
+                itemSummaries
+        );
+        return true;
+    }
+}
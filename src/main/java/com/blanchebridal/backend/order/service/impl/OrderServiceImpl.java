@@ -1,32 +1,49 @@
 package com.blanchebridal.backend.order.service.impl;
 
-import com.blanchebridal.backend.shared.email.EmailService;
 import com.blanchebridal.backend.exception.ResourceNotFoundException;
 import com.blanchebridal.backend.exception.UnauthorizedException;
 import com.blanchebridal.backend.order.dto.req.CreateOrderRequest;
+import com.blanchebridal.backend.order.dto.OrderStatusRow;
 import com.blanchebridal.backend.order.dto.req.OrderItemRequest;
+import com.blanchebridal.backend.order.dto.res.BulkOrderStatusResult;
 import com.blanchebridal.backend.order.dto.res.OrderItemResponse;
+import com.blanchebridal.backend.order.dto.res.OrderFollowUpResponse;
 import com.blanchebridal.backend.order.dto.res.OrderResponse;
 import com.blanchebridal.backend.order.entity.Order;
 import com.blanchebridal.backend.order.entity.OrderItem;
+import com.blanchebridal.backend.order.entity.OrderFollowUp;
 import com.blanchebridal.backend.order.entity.OrderStatus;
+import com.blanchebridal.backend.order.event.OrderCreatedEvent;
+import com.blanchebridal.backend.order.event.OrderStatusChangedEvent;
+import com.blanchebridal.backend.order.repository.OrderFollowUpRepository;
 import com.blanchebridal.backend.order.repository.OrderRepository;
 import com.blanchebridal.backend.order.service.OrderService;
 import com.blanchebridal.backend.product.entity.Product;
 import com.blanchebridal.backend.product.repository.ProductRepository;
+import com.blanchebridal.backend.product.service.StockReservationService;
 import com.blanchebridal.backend.user.entity.User;
 import com.blanchebridal.backend.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,10 +51,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    // Trigrams need three characters before the index can narrow anything
+    private static final int MIN_SEARCH_LENGTH = 3;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final Pattern ID_PREFIX = Pattern.compile("[0-9a-f]{4,32}");
+
     private final OrderRepository orderRepository;
+    private final OrderFollowUpRepository orderFollowUpRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final StockReservationService stockReservationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -45,20 +69,33 @@ public class OrderServiceImpl implements OrderService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        // Every requested product and its images in one round trip
+        Set<UUID> productIds = req.getItems().stream()
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<UUID, Product> products = productRepository.findWithImagesByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
         List<OrderItem> items = new ArrayList<>();
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (OrderItemRequest itemReq : req.getItems()) {
-            Product product = productRepository.findById(itemReq.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Product not found: " + itemReq.getProductId()));
+            Product product = products.get(itemReq.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found: " + itemReq.getProductId());
+            }
 
             if (Boolean.FALSE.equals(product.getIsAvailable())) {
                 throw new IllegalStateException(
                         "Product is not available: " + product.getName());
             }
 
-            if (product.getStock() < itemReq.getQuantity()) {
+            // Summed per product, so two lines for the same dress are checked
+            // together, and net of what other unpaid orders hold — fails fast
+            // before the order row is written; reserve() below is the final word
+            int quantity = quantities.merge(product.getId(), itemReq.getQuantity(), Integer::sum);
+            if (stockReservationService.availableStock(product.getId(), product.getStock()) < quantity) {
                 throw new IllegalStateException(
                         "Insufficient stock for: " + product.getName());
             }
@@ -105,6 +142,19 @@ public class OrderServiceImpl implements OrderService {
         items.forEach(item -> item.setOrder(order));
 
         Order saved = orderRepository.save(order);
+
+        // Hold the stock for the unpaid window — re-checked under the
+        // reservation locks, so two checkouts racing past the check above
+        // cannot both take the last unit
+        Map<UUID, Integer> stockLevels = new LinkedHashMap<>();
+        quantities.keySet().forEach(id -> stockLevels.put(id, products.get(id).getStock()));
+        Set<UUID> shortfall = stockReservationService.reserve(saved.getId(), quantities, stockLevels);
+        if (!shortfall.isEmpty()) {
+            throw new IllegalStateException(
+                    "Insufficient stock for: " + products.get(shortfall.iterator().next()).getName());
+        }
+
+        eventPublisher.publishEvent(new OrderCreatedEvent(saved.getId(), saved.getCreatedAt()));
         log.info("[Order] Created order {} for user {} — total LKR {}",
                 saved.getId(), userId, saved.getTotalAmount());
         return toResponse(saved);
@@ -125,10 +175,39 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findByUser_Id(userId, pageable).map(this::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderResponse> searchOrders(String query, int limit) {
+        String q = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (q.startsWith("#")) q = q.substring(1).strip();
+
+        // "#AB12CD34" from the confirmation email, or any longer slice of the uuid
+        String hex = q.replace("-", "");
+        String idPrefix = ID_PREFIX.matcher(hex).matches() ? hex : null;
+        String text = q.length() >= MIN_SEARCH_LENGTH ? q : null;
+        if (idPrefix == null && text == null) {
+            throw new IllegalStateException(
+                    "Search needs at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+
+        int capped = Math.clamp(limit, 1, MAX_SEARCH_RESULTS);
+        List<UUID> ids = orderRepository.searchIds(text, idPrefix, capped);
+        if (ids.isEmpty()) return List.of();
+
+        // Ids arrive newest first; details are loaded in one query and put back in that order
+        Map<UUID, Order> byId = orderRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toResponse)
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(UUID id, UUID requestingUserId, String role) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
 
         boolean isCustomer = role != null &&
@@ -149,37 +228,72 @@ public class OrderServiceImpl implements OrderService {
     public OrderResponse updateOrderStatus(UUID id, OrderStatus newStatus) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
+
+        if (order.getStatus() == newStatus) {
+            return toResponse(order);
+        }
+        if (!order.getStatus().canTransitionTo(newStatus)) {
+            throw new IllegalStateException(
+                    "Cannot move order from " + order.getStatus() + " to " + newStatus);
+        }
+
         order.setStatus(newStatus);
         Order saved = orderRepository.save(order);
         log.info("[Order] Status updated — {} for order {}", newStatus, id);
 
-        if (newStatus == OrderStatus.CONFIRMED) {
-            try {
-                User customer = saved.getUser();
-                if (customer != null) {
-                    List<String> itemSummaries = saved.getItems().stream()
-                            .map(item -> item.getProductName()
-                                    + " × " + item.getQuantity()
-                                    + " — LKR " + item.getUnitPrice())
-                            .collect(Collectors.toList());
-
-                    emailService.sendOrderConfirmationEmail(
-                            customer.getEmail(),
-                            customer.getFirstName() + " " + customer.getLastName(),
-                            saved.getId().toString().substring(0, 8).toUpperCase(),
-                            saved.getTotalAmount(),
-                            itemSummaries
-                    );
-                }
-            } catch (Exception e) {
-                log.warn("Failed to send order confirmation email for order {}: {}",
-                        saved.getId(), e.getMessage());
-            }
+        if (newStatus == OrderStatus.CANCELLED) {
+            stockReservationService.release(id);
         }
 
+        // Confirmation email goes out after commit, off this thread — the same
+        // listener as the bulk path
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(Set.of(id), newStatus));
+
         return toResponse(saved);
     }
 
+    @Override
+    @Transactional
+    public BulkOrderStatusResult updateOrderStatuses(List<UUID> ids, OrderStatus newStatus) {
+        Map<UUID, OrderStatusRow> rows = orderRepository.findStatusRows(ids).stream()
+                .collect(Collectors.toMap(OrderStatusRow::id, Function.identity()));
+
+        // Validated in memory against the transition table; only valid moves are written
+        Map<UUID, Long> expectedVersions = new LinkedHashMap<>();
+        List<UUID> unchanged = new ArrayList<>();
+        List<BulkOrderStatusResult.Rejection> rejected = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            OrderStatusRow row = rows.get(id);
+            if (row == null) {
+                rejected.add(new BulkOrderStatusResult.Rejection(id, "Order not found"));
+            } else if (row.status() == newStatus) {
+                unchanged.add(id);
+            } else if (!row.status().canTransitionTo(newStatus)) {
+                rejected.add(new BulkOrderStatusResult.Rejection(id,
+                        "Cannot move order from " + row.status() + " to " + newStatus));
+            } else {
+                expectedVersions.put(id, row.version());
+            }
+        }
+
+        Set<UUID> updated = new LinkedHashSet<>(orderRepository.updateStatuses(expectedVersions, newStatus));
+        expectedVersions.keySet().stream()
+                .filter(id -> !updated.contains(id))
+                .forEach(id -> rejected.add(new BulkOrderStatusResult.Rejection(id,
+                        "Order was modified concurrently — reload and retry")));
+
+        if (!updated.isEmpty()) {
+            if (newStatus == OrderStatus.CANCELLED) {
+                stockReservationService.release(updated);
+            }
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(Set.copyOf(updated), newStatus));
+        }
+
+        log.info("[Order] Bulk status update to {} — {} updated, {} unchanged, {} rejected",
+                newStatus, updated.size(), unchanged.size(), rejected.size());
+        return new BulkOrderStatusResult(newStatus, List.copyOf(updated), unchanged, rejected);
+    }
+
     @Override
     @Transactional
     public void cancelOrder(UUID id, UUID userId) {
@@ -198,9 +312,44 @@ public class OrderServiceImpl implements OrderService {
 
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        stockReservationService.release(id);
         log.info("[Order] Cancelled order {} by user {}", id, userId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderFollowUpResponse> getOpenFollowUps() {
+        return orderFollowUpRepository.findByResolvedAtIsNullOrderByCreatedAtAsc().stream()
+                .map(f -> new OrderFollowUpResponse(
+                        f.getId(),
+                        f.getOrder().getId(),
+                        f.getReason(),
+                        f.getProduct() != null ? f.getProduct().getId() : null,
+                        f.getProductName(),
+                        f.getQuantity(),
+                        f.getPaymentId(),
+                        f.getAmount(),
+                        f.getCreatedAt()))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void resolveFollowUp(UUID id) {
+        OrderFollowUp followUp = orderFollowUpRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Follow-up not found: " + id));
+
+        if (followUp.getResolvedAt() != null) {
+            log.info("[Order] Follow-up {} already resolved. Ignoring.", id);
+            return;
+        }
+
+        followUp.setResolvedAt(LocalDateTime.now());
+        orderFollowUpRepository.save(followUp);
+        log.info("[Order] Resolved {} follow-up {} on order {}",
+                followUp.getReason(), id, followUp.getOrder().getId());
+    }
+
     private OrderResponse toResponse(Order order) {
         List<OrderItemResponse> itemResponses = order.getItems() == null
                 ? List.of()
@@ -4,6 +4,7 @@ import com.blanchebridal.backend.auth.security.JwtUtil;
 import com.blanchebridal.backend.exception.UnauthorizedException;
 import com.blanchebridal.backend.payment.dto.req.InitiatePaymentRequest;
 import com.blanchebridal.backend.payment.service.PaymentService;
+import com.blanchebridal.backend.shared.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
     private final JwtUtil jwtUtil;
 
     // CUSTOMER — generate PayHere hash + return all form fields
@@ -28,6 +30,7 @@ public class PaymentController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Map<String, Object>> initiatePayment(
             @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody InitiatePaymentRequest request) {
 
         UUID userId = extractUserId(authHeader);
@@ -35,7 +38,8 @@ public class PaymentController {
                 request.getOrderId(), userId);
         return ResponseEntity.ok(Map.of(
                 "success", true,
-                "data", paymentService.initiatePayment(request.getOrderId(), userId)
+                "data", idempotencyService.execute("payment:initiate", userId, idempotencyKey, request,
+                        () -> paymentService.initiatePayment(request.getOrderId(), userId))
         ));
     }
 
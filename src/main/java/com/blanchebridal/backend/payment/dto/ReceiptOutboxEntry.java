@@ -0,0 +1,6 @@
+package com.blanchebridal.backend.payment.dto;
+
+import java.util.UUID;
+
+// A claimed outbox row; attempts includes the one about to run
+public record ReceiptOutboxEntry(UUID orderId, int attempts) {}
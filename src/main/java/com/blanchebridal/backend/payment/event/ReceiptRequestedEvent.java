@@ -0,0 +1,6 @@
+package com.blanchebridal.backend.payment.event;
+
+import java.util.UUID;
+
+// Published with the outbox row — wakes the receipt worker once the payment commits
+public record ReceiptRequestedEvent(UUID orderId) {}
@@ -2,11 +2,25 @@ package com.blanchebridal.backend.payment.repository;
 
 import com.blanchebridal.backend.payment.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     Optional<Payment> findByOrder_Id(UUID orderId);
     Optional<Payment> findByPayhereOrderId(String payhereOrderId);
+
+    // Compare-and-set to COMPLETED — returns 0 when a concurrent delivery of
+    // the same webhook already completed it
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = com.blanchebridal.backend.payment.entity.PaymentStatus.COMPLETED, " +
+           "p.payherePaymentId = :payherePaymentId, p.paidAt = :paidAt " +
+           "WHERE p.id = :id AND p.status <> com.blanchebridal.backend.payment.entity.PaymentStatus.COMPLETED")
+    int markCompleted(@Param("id") UUID id,
+                      @Param("payherePaymentId") String payherePaymentId,
+                      @Param("paidAt") LocalDateTime paidAt);
 }
\ No newline at end of file
@@ -5,7 +5,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +24,16 @@ public interface ReceiptRepository extends JpaRepository<Receipt, UUID> {
     @EntityGraph(attributePaths = {"order", "order.user", "order.items"})
     Page<Receipt> findAll(Pageable pageable);
 
-    @Query("SELECT r.receiptNumber FROM Receipt r ORDER BY r.issuedAt DESC LIMIT 1")
-    Optional<String> findLatestReceiptNumber();
-}
\ No newline at end of file
+    // Next number in the year's sequence (V32). Must run in a write transaction;
+    // a rollback hands the number back.
+    @Query(value = """
+            INSERT INTO receipt_number_counters AS c (year, last_value) VALUES (:year, 1)
+            ON CONFLICT (year) DO UPDATE SET last_value = c.last_value + 1
+            RETURNING last_value
+            """, nativeQuery = true)
+    int nextReceiptSequence(@Param("year") int year);
+
+    @Modifying
+    @Query("UPDATE Receipt r SET r.pdfUrl = :pdfUrl WHERE r.id = :id")
+    int updatePdfUrl(@Param("id") UUID id, @Param("pdfUrl") String pdfUrl);
+}
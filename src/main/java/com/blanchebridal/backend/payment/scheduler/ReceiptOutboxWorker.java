@@ -0,0 +1,108 @@
+package com.blanchebridal.backend.payment.scheduler;
+
+import com.blanchebridal.backend.payment.dto.ReceiptOutboxEntry;
+import com.blanchebridal.backend.payment.event.ReceiptRequestedEvent;
+import com.blanchebridal.backend.payment.service.ReceiptOutboxService;
+import com.blanchebridal.backend.payment.service.ReceiptService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders and stores receipts from receipt_outbox, off the webhook path.
+ *
+ * A payment commit wakes the worker straight away; a slow poll picks up
+ * retries and anything missed across restarts. Claims are capped by the
+ * free queue space, so the pool never holds more work than it can take.
+ * A failed receipt is retried with exponential backoff (30s doubling, at
+ * most 1h apart) and parked as FAILED after MAX_ATTEMPTS.
+ */
+@Slf4j
+@Component
+public class ReceiptOutboxWorker {
+
+    private static final int MAX_ATTEMPTS = 8;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    // Longer than any sane render + upload; a claim whose worker died comes due again after it
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    private final ReceiptOutboxService receiptOutboxService;
+    private final ReceiptService receiptService;
+    private final ThreadPoolExecutor executor;
+
+    public ReceiptOutboxWorker(ReceiptOutboxService receiptOutboxService,
+                               ReceiptService receiptService,
+                               @Value("${app.receipts.workers:2}") int workers,
+                               @Value("${app.receipts.queue-capacity:20}") int queueCapacity) {
+        this.receiptOutboxService = receiptOutboxService;
+        this.receiptService = receiptService;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("receipt-worker-", 0).daemon().factory());
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReceiptRequested(ReceiptRequestedEvent event) {
+        poll();
+    }
+
+    @Scheduled(fixedDelay = 15_000, initialDelay = 30_000)
+    public synchronized void poll() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0 || executor.isShutdown()) return;
+
+        for (ReceiptOutboxEntry entry : receiptOutboxService.claimDue(capacity, LEASE)) {
+            executor.execute(() -> process(entry));
+        }
+    }
+
+    private void process(ReceiptOutboxEntry entry) {
+        try {
+            receiptService.generateReceipt(entry.orderId());
+            receiptOutboxService.markDone(entry.orderId());
+        } catch (RuntimeException e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            if (entry.attempts() >= MAX_ATTEMPTS) {
+                log.error("[Receipt] Giving up on order {} after {} attempts: {}",
+                        entry.orderId(), entry.attempts(), error, e);
+                receiptOutboxService.markFailed(entry.orderId(), error);
+            } else {
+                Duration delay = backoff(entry.attempts());
+                log.warn("[Receipt] Attempt {} for order {} failed, retrying in {}s: {}",
+                        entry.attempts(), entry.orderId(), delay.toSeconds(), error);
+                receiptOutboxService.retryLater(entry.orderId(), delay, error);
+            }
+        }
+    }
+
+    // 30s, 60s, 120s, ... capped at MAX_BACKOFF
+    private static Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 16);
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            // Unfinished claims are picked up again once their lease runs out
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
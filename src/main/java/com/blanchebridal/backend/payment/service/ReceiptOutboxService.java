@@ -0,0 +1,20 @@
+package com.blanchebridal.backend.payment.service;
+
+import com.blanchebridal.backend.payment.dto.ReceiptOutboxEntry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReceiptOutboxService {
+
+    // Joins the caller's transaction; a second request for the same order is ignored
+    void enqueue(UUID orderId, UUID paymentId);
+
+    // Claims up to limit due rows and hides them from other pollers for the lease
+    List<ReceiptOutboxEntry> claimDue(int limit, Duration lease);
+
+    void markDone(UUID orderId);
+    void retryLater(UUID orderId, Duration delay, String error);
+    void markFailed(UUID orderId, String error);
+}
@@ -1,8 +1,6 @@
 package com.blanchebridal.backend.payment.service;
 
-import com.blanchebridal.backend.order.entity.Order;
 import com.blanchebridal.backend.payment.dto.res.ReceiptResponse;
-import com.blanchebridal.backend.payment.entity.Payment;
 import com.blanchebridal.backend.payment.entity.Receipt;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,7 +9,15 @@ import java.util.List;
 import java.util.UUID;
 
 public interface ReceiptService {
-    Receipt generateReceipt(Order order, Payment payment);
+
+    /**
+     * Issues the receipt for a paid order: reserves its number, renders the
+     * PDF, stores it and records the URL. Safe to call again — an order that
+     * already has a stored receipt gets it back unchanged. Runs outside any
+     * caller transaction so the upload never holds database locks.
+     */
+    Receipt generateReceipt(UUID orderId);
+
     List<ReceiptResponse> getMyReceipts(UUID userId);
     Page<ReceiptResponse> getAllReceipts(Pageable pageable);
     String getReceiptPdfUrl(UUID receiptId, UUID requestingUserId, String role);
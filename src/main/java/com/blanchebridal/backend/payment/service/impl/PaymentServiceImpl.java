@@ -4,27 +4,35 @@ import com.blanchebridal.backend.exception.ResourceNotFoundException;
 import com.blanchebridal.backend.exception.UnauthorizedException;
 import com.blanchebridal.backend.order.entity.Order;
 import com.blanchebridal.backend.order.entity.OrderItem;
+import com.blanchebridal.backend.order.entity.OrderFollowUp;
+import com.blanchebridal.backend.order.entity.OrderFollowUpReason;
 import com.blanchebridal.backend.order.entity.OrderStatus;
+import com.blanchebridal.backend.order.repository.OrderFollowUpRepository;
 import com.blanchebridal.backend.order.repository.OrderRepository;
 import com.blanchebridal.backend.payment.dto.res.PaymentInitiateResponse;
 import com.blanchebridal.backend.payment.dto.res.PaymentStatusResponse;
 import com.blanchebridal.backend.payment.entity.Payment;
 import com.blanchebridal.backend.payment.entity.PaymentMethod;
 import com.blanchebridal.backend.payment.entity.PaymentStatus;
+import com.blanchebridal.backend.payment.event.ReceiptRequestedEvent;
 import com.blanchebridal.backend.payment.repository.PaymentRepository;
 import com.blanchebridal.backend.payment.service.PaymentService;
-import com.blanchebridal.backend.payment.service.ReceiptService;
+import com.blanchebridal.backend.payment.service.ReceiptOutboxService;
 import com.blanchebridal.backend.payment.util.PayHereUtil;
-import com.blanchebridal.backend.product.entity.Product;
-import com.blanchebridal.backend.product.repository.ProductRepository;
+import com.blanchebridal.backend.product.dto.StockDeduction;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
+import com.blanchebridal.backend.product.service.ProductStockService;
+import com.blanchebridal.backend.product.service.StockReservationService;
 import com.blanchebridal.backend.user.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -35,9 +43,12 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository  paymentRepository;
     private final OrderRepository    orderRepository;
-    private final ProductRepository  productRepository;
+    private final OrderFollowUpRepository orderFollowUpRepository;
+    private final ProductStockService productStockService;
+    private final StockReservationService stockReservationService;
     private final PayHereUtil        payHereUtil;
-    private final ReceiptService     receiptService;
+    private final ReceiptOutboxService receiptOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${payhere.merchant-id}") private String merchantId;
     @Value("${payhere.return-url}")  private String returnUrl;
@@ -137,39 +148,87 @@ public class PaymentServiceImpl implements PaymentService {
 
         paymentRepository.findByPayhereOrderId(orderId).ifPresentOrElse(payment -> {
 
-            // Guard against duplicate webhook delivery
-            if (payment.getStatus() == PaymentStatus.COMPLETED) {
+            // Row-lock the order first. OrderScheduler's SKIP LOCKED sweep then
+            // passes over it, and OrderExpiryScheduler's UPDATE waits and finds
+            // it no longer PENDING. Whichever side locked first wins outright.
+            UUID id = payment.getOrder().getId();
+            Order order = orderRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
+
+            // Guard against duplicate webhook delivery — the conditional update
+            // lets exactly one of several concurrent deliveries through
+            LocalDateTime paidAt = LocalDateTime.now();
+            if (payment.getStatus() == PaymentStatus.COMPLETED
+                    || paymentRepository.markCompleted(payment.getId(), payherePaymentId, paidAt) == 0) {
                 log.info("Duplicate webhook received for already-completed order {}. Ignoring.", orderId);
                 return;
             }
 
             payment.setStatus(PaymentStatus.COMPLETED);
             payment.setPayherePaymentId(payherePaymentId);
-            payment.setPaidAt(LocalDateTime.now());
-            paymentRepository.save(payment);
+            payment.setPaidAt(paidAt);
+
+            if (order.getStatus() == OrderStatus.CANCELLED) {
+                // The order expired (or was cancelled) before the money arrived.
+                // Its reservation is already released and the stock may be sold
+                // again, so it is not revived: the payment stays COMPLETED on a
+                // CANCELLED order, no stock is deducted and no receipt issued,
+                // and the refund is queued for staff.
+                log.warn("Payment {} received for CANCELLED order {} — queued for refund", payherePaymentId, orderId);
+                orderFollowUpRepository.save(OrderFollowUp.builder()
+                        .order(order)
+                        .reason(OrderFollowUpReason.PAID_AFTER_CANCEL)
+                        .paymentId(payment.getId())
+                        .amount(payment.getAmount())
+                        .build());
+                return;
+            }
 
-            Order order = payment.getOrder();
             order.setStatus(OrderStatus.CONFIRMED);
             orderRepository.save(order);
 
             log.info("Payment COMPLETED for order {}. PayHere ID: {}", orderId, payherePaymentId);
 
             // Deduct stock now that payment is confirmed.
-            // This is the ONLY place stock is reduced — createOrder() does not touch stock.
+            // This is the ONLY place stock is reduced — createOrder() only reserves it,
+            // and the reservation is closed here in the same transaction.
+            stockReservationService.convert(order.getId());
             if (order.getItems() != null) {
+                Map<UUID, Integer> quantities = new HashMap<>();
+                Map<UUID, OrderItem> itemsByProduct = new HashMap<>();
                 for (OrderItem item : order.getItems()) {
-                    Product product = item.getProduct();
-                    if (product != null) {
-                        int newStock = Math.max(0, product.getStock() - item.getQuantity());
-                        product.setStock(newStock);
-                        productRepository.save(product);
-                        log.info("[Stock] Reduced stock for product {} ('{}') by {}. New stock: {}",
-                                product.getId(), product.getName(), item.getQuantity(), newStock);
+                    if (item.getProduct() != null) {
+                        quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                        itemsByProduct.putIfAbsent(item.getProduct().getId(), item);
                     }
                 }
+
+                StockDeduction deduction = productStockService.deductStock(quantities);
+                if (!deduction.isComplete()) {
+                    // Paid but not enough stock left — stock is left as is for
+                    // these products and each one is queued for staff follow-up
+                    log.warn("[Stock] Order {} OVERSOLD — insufficient stock for {}",
+                            orderId, deduction.oversold());
+                    orderFollowUpRepository.saveAll(deduction.oversold().entrySet().stream()
+                            .map(e -> OrderFollowUp.builder()
+                                    .order(order)
+                                    .reason(OrderFollowUpReason.OVERSOLD)
+                                    .product(itemsByProduct.get(e.getKey()).getProduct())
+                                    .productName(itemsByProduct.get(e.getKey()).getProductName())
+                                    .quantity(e.getValue())
+                                    .build())
+                            .toList());
+                }
+                if (!deduction.deducted().isEmpty()) {
+                    eventPublisher.publishEvent(new ProductChangedEvent(deduction.deducted()));
+                }
             }
 
-            receiptService.generateReceipt(order, payment);
+            // The receipt is rendered and uploaded by ReceiptOutboxWorker after
+            // commit — a slow or failing upload can't hold these row locks or
+            // roll back the payment
+            receiptOutboxService.enqueue(order.getId(), payment.getId());
+            eventPublisher.publishEvent(new ReceiptRequestedEvent(order.getId()));
 
         }, () -> log.warn("Webhook received for unknown payhereOrderId: {}", orderId));
     }
@@ -0,0 +1,89 @@
+package com.blanchebridal.backend.payment.service.impl;
+
+import com.blanchebridal.backend.payment.dto.ReceiptOutboxEntry;
+import com.blanchebridal.backend.payment.service.ReceiptOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * receipt_outbox (V31) over plain JDBC. A claim pushes next_attempt_at out by
+ * the lease instead of flipping a status, so a row whose worker died simply
+ * comes due again.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReceiptOutboxServiceImpl implements ReceiptOutboxService {
+
+    private static final String ENQUEUE_SQL = """
+            INSERT INTO receipt_outbox (order_id, payment_id)
+            VALUES (?, ?)
+            ON CONFLICT (order_id) DO NOTHING
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE receipt_outbox o
+            SET attempts        = o.attempts + 1,
+                next_attempt_at = NOW() + ? * INTERVAL '1 second',
+                updated_at      = NOW()
+            FROM (SELECT order_id FROM receipt_outbox
+                   WHERE status = 'PENDING' AND next_attempt_at <= NOW()
+                   ORDER BY next_attempt_at
+                   LIMIT ?
+                   FOR UPDATE SKIP LOCKED) due
+            WHERE o.order_id = due.order_id
+            RETURNING o.order_id, o.attempts
+            """;
+
+    private static final String DONE_SQL = """
+            UPDATE receipt_outbox
+            SET status = 'DONE', last_error = NULL, updated_at = NOW()
+            WHERE order_id = ?
+            """;
+
+    private static final String RETRY_SQL = """
+            UPDATE receipt_outbox
+            SET next_attempt_at = NOW() + ? * INTERVAL '1 second', last_error = ?, updated_at = NOW()
+            WHERE order_id = ?
+            """;
+
+    private static final String FAILED_SQL = """
+            UPDATE receipt_outbox
+            SET status = 'FAILED', last_error = ?, updated_at = NOW()
+            WHERE order_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void enqueue(UUID orderId, UUID paymentId) {
+        jdbcTemplate.update(ENQUEUE_SQL, orderId, paymentId);
+    }
+
+    @Override
+    public List<ReceiptOutboxEntry> claimDue(int limit, Duration lease) {
+        if (limit <= 0) return List.of();
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, i) -> new ReceiptOutboxEntry(rs.getObject("order_id", UUID.class), rs.getInt("attempts")),
+                lease.toSeconds(), limit);
+    }
+
+    @Override
+    public void markDone(UUID orderId) {
+        jdbcTemplate.update(DONE_SQL, orderId);
+    }
+
+    @Override
+    public void retryLater(UUID orderId, Duration delay, String error) {
+        jdbcTemplate.update(RETRY_SQL, delay.toSeconds(), error, orderId);
+    }
+
+    @Override
+    public void markFailed(UUID orderId, String error) {
+        jdbcTemplate.update(FAILED_SQL, error, orderId);
+    }
+}
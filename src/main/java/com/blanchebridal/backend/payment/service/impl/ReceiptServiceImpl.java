@@ -4,13 +4,14 @@ import com.blanchebridal.backend.exception.ResourceNotFoundException;
 import com.blanchebridal.backend.exception.UnauthorizedException;
 import com.blanchebridal.backend.order.entity.Order;
 import com.blanchebridal.backend.order.entity.OrderItem;
+import com.blanchebridal.backend.order.repository.OrderRepository;
 import com.blanchebridal.backend.payment.dto.res.ReceiptResponse;
 import com.blanchebridal.backend.payment.entity.Payment;
 import com.blanchebridal.backend.payment.entity.Receipt;
+import com.blanchebridal.backend.payment.repository.PaymentRepository;
 import com.blanchebridal.backend.payment.repository.ReceiptRepository;
 import com.blanchebridal.backend.payment.service.ReceiptService;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.blanchebridal.backend.payment.storage.ReceiptStorage;
 import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.font.PdfFont;
@@ -24,62 +25,103 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.element.Text;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ReceiptServiceImpl implements ReceiptService {
 
     private final ReceiptRepository receiptRepository;
-    private final Cloudinary cloudinary;
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final ReceiptStorage receiptStorage;
+    private final TransactionTemplate writeTx;
 
     private static final DateTimeFormatter DATE_FMT =
             DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
 
+    // A reserved receipt with what its PDF is rendered from; order is null
+    // when the receipt was already stored
+    private record ReservedReceipt(Receipt receipt, Order order, Payment payment) {}
+
+    public ReceiptServiceImpl(ReceiptRepository receiptRepository,
+                              OrderRepository orderRepository,
+                              PaymentRepository paymentRepository,
+                              ReceiptStorage receiptStorage,
+                              PlatformTransactionManager transactionManager) {
+        this.receiptRepository = receiptRepository;
+        this.orderRepository   = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.receiptStorage    = receiptStorage;
+        this.writeTx           = new TransactionTemplate(transactionManager);
+    }
+
     // ─── Public API ──────────────────────────────────────────────────────────
 
     @Override
-    @Transactional
-    public Receipt generateReceipt(Order order, Payment payment) {
-        // Idempotency: if receipt already exists for this order, return it
-        return receiptRepository.findByOrder_Id(order.getId())
-                .orElseGet(() -> {
-                    try {
-                        String receiptNumber = buildNextReceiptNumber();
-                        byte[] pdfBytes     = buildPdf(order, payment, receiptNumber);
-                        String pdfUrl       = uploadToCloudinary(pdfBytes, receiptNumber);
-
-                        Receipt receipt = Receipt.builder()
-                                .order(order)
-                                .payment(payment)
-                                .receiptNumber(receiptNumber)
-                                .pdfUrl(pdfUrl)
-                                .build();
-
-                        return receiptRepository.save(receipt);
-
-                    } catch (Exception e) {
-                        // Log but don't crash the webhook — order is already CONFIRMED
-                        log.error("Receipt generation failed for order {}: {}",
-                                order.getId(), e.getMessage(), e);
-                        throw new RuntimeException("Receipt generation failed", e);
-                    }
-                });
+    public Receipt generateReceipt(UUID orderId) {
+        // 1. Reserve the number in one short transaction. The row is written
+        //    before the upload so two receipts can never share a number — and
+        //    therefore never overwrite each other's stored PDF.
+        ReservedReceipt reserved = writeTx.execute(status -> {
+            Receipt existing = receiptRepository.findByOrder_Id(orderId).orElse(null);
+            if (existing != null && existing.getPdfUrl() != null) {
+                return new ReservedReceipt(existing, null, null);
+            }
+
+            Order order = orderRepository.findWithDetailsById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+            Payment payment = paymentRepository.findByOrder_Id(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Payment not found for order: " + orderId));
+
+            // A previous attempt that got this far keeps its number
+            Receipt receipt = existing != null ? existing : receiptRepository.saveAndFlush(Receipt.builder()
+                    .order(order)
+                    .payment(payment)
+                    .receiptNumber(buildNextReceiptNumber())
+                    .build());
+            return new ReservedReceipt(receipt, order, payment);
+        });
+        if (reserved.order() == null) return reserved.receipt();
+
+        // 2. Render and upload with no transaction open — the counter row
+        //    locked by the reservation is already released. The order was
+        //    loaded with its customer and items, so nothing here is lazy.
+        Receipt receipt = reserved.receipt();
+        byte[] pdf;
+        try {
+            pdf = buildPdf(reserved.order(), reserved.payment(), receipt.getReceiptNumber());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String pdfUrl;
+        try {
+            pdfUrl = receiptStorage.store(receipt.getReceiptNumber(), pdf);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Receipt upload failed for " + receipt.getReceiptNumber(), e);
+        }
+
+        // 3. Record where it went
+        writeTx.executeWithoutResult(status -> receiptRepository.updatePdfUrl(receipt.getId(), pdfUrl));
+        receipt.setPdfUrl(pdfUrl);
+        log.info("[Receipt] Issued {} for order {}", receipt.getReceiptNumber(), orderId);
+        return receipt;
     }
 
     @Override
@@ -119,24 +161,12 @@ public class ReceiptServiceImpl implements ReceiptService {
 
     // ─── Receipt number ───────────────────────────────────────────────────────
 
+    // RCP-2025-00042 — the sequence restarts every year. Taken from the
+    // year's counter row, which the upsert keeps locked until the reserving
+    // transaction commits, so concurrent workers queue instead of colliding.
     private String buildNextReceiptNumber() {
         int year = LocalDateTime.now().getYear();
-
-        return receiptRepository.findLatestReceiptNumber()
-                .map(latest -> {
-                    // Format: RCP-2025-00042 → parse the 5-digit sequence
-                    try {
-                        String[] parts = latest.split("-");
-                        int lastYear = Integer.parseInt(parts[1]);
-                        int seq      = Integer.parseInt(parts[2]);
-                        // Reset sequence when year rolls over
-                        int nextSeq = (lastYear == year) ? seq + 1 : 1;
-                        return "RCP-%d-%05d".formatted(year, nextSeq);
-                    } catch (Exception e) {
-                        return "RCP-%d-00001".formatted(year);
-                    }
-                })
-                .orElse("RCP-%d-00001".formatted(year));
+        return "RCP-%d-%05d".formatted(year, receiptRepository.nextReceiptSequence(year));
     }
 
     // ─── PDF builder ──────────────────────────────────────────────────────────
@@ -263,22 +293,6 @@ public class ReceiptServiceImpl implements ReceiptService {
         return baos.toByteArray();
     }
 
-    // ─── Cloudinary upload ────────────────────────────────────────────────────
-
-    @SuppressWarnings("unchecked")
-    private String uploadToCloudinary(byte[] pdfBytes,
-                                      String receiptNumber) throws Exception {
-        Map<String, Object> uploadResult = cloudinary.uploader().upload(
-                pdfBytes,
-                ObjectUtils.asMap(
-                        "resource_type", "raw",
-                        "folder",        "receipts",
-                        "public_id",     receiptNumber,
-                        "overwrite",     true
-                ));
-        return (String) uploadResult.get("secure_url");
-    }
-
     // ─── Helpers ─────────────────────────────────────────────────────────────
 
     private Paragraph metaLine(String label, String value,
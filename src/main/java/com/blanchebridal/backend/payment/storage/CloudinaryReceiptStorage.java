@@ -0,0 +1,32 @@
+package com.blanchebridal.backend.payment.storage;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.receipts.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryReceiptStorage implements ReceiptStorage {
+
+    private final Cloudinary cloudinary;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String store(String receiptNumber, byte[] pdf) throws IOException {
+        Map<String, Object> uploadResult = cloudinary.uploader().upload(
+                pdf,
+                ObjectUtils.asMap(
+                        "resource_type", "raw",
+                        "folder",        "receipts",
+                        "public_id",     receiptNumber,
+                        "overwrite",     true
+                ));
+        return (String) uploadResult.get("secure_url");
+    }
+}
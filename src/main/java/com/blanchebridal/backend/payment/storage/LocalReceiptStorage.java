@@ -0,0 +1,32 @@
+package com.blanchebridal.backend.payment.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes receipts to a local directory instead of Cloudinary — for tests and
+ * local development (app.receipts.storage=local). Returns file: URLs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.receipts.storage", havingValue = "local")
+public class LocalReceiptStorage implements ReceiptStorage {
+
+    private final Path directory;
+
+    public LocalReceiptStorage(@Value("${app.receipts.local-dir:${java.io.tmpdir}/receipts}") Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String store(String receiptNumber, byte[] pdf) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(receiptNumber + ".pdf");
+        Files.write(file, pdf);
+        return file.toUri().toString();
+    }
+}
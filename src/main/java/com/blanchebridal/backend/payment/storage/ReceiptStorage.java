@@ -0,0 +1,13 @@
+package com.blanchebridal.backend.payment.storage;
+
+import java.io.IOException;
+
+/**
+ * Where rendered receipt PDFs are kept. Storing the same receipt number
+ * twice overwrites the first copy, so a retried upload is harmless.
+ */
+public interface ReceiptStorage {
+
+    // Stores the PDF and returns the URL customers download it from
+    String store(String receiptNumber, byte[] pdf) throws IOException;
+}
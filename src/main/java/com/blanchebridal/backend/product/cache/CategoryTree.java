@@ -0,0 +1,131 @@
+package com.blanchebridal.backend.product.cache;
+
+import com.blanchebridal.backend.product.dto.CategoryRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the active category hierarchy.
+ *
+ * Nodes are kept in depth-first order (siblings by name), and every node
+ * carries its precomputed descendant-id set, so reads never touch the
+ * database. A category whose parent is inactive is treated as a root.
+ */
+public final class CategoryTree {
+
+    private static final Comparator<CategoryRow> BY_NAME =
+            Comparator.comparing(CategoryRow::name, String.CASE_INSENSITIVE_ORDER);
+
+    public record Node(
+            UUID id,
+            String name,
+            String slug,
+            UUID parentId,
+            String parentName,
+            int depth,
+            List<UUID> childIds,
+            Set<UUID> descendantIds,
+            LocalDateTime createdAt
+    ) {}
+
+    private final Map<UUID, Node> nodes;
+
+    private CategoryTree(Map<UUID, Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public static CategoryTree build(Collection<CategoryRow> rows) {
+        Map<UUID, CategoryRow> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(row.id(), row));
+
+        Map<UUID, List<CategoryRow>> children = new HashMap<>();
+        List<CategoryRow> roots = new ArrayList<>();
+        for (CategoryRow row : rows) {
+            if (row.parentId() != null && byId.containsKey(row.parentId())) {
+                children.computeIfAbsent(row.parentId(), k -> new ArrayList<>()).add(row);
+            } else {
+                roots.add(row);
+            }
+        }
+        children.values().forEach(list -> list.sort(BY_NAME));
+        roots.sort(BY_NAME);
+
+        Builder builder = new Builder(children);
+        roots.forEach(root -> builder.visit(root, 0, false));
+
+        // Rows still unvisited sit on a parent cycle — cut them loose as roots
+        // rather than dropping them or looping forever
+        rows.stream()
+                .filter(row -> !builder.visited.contains(row.id()))
+                .sorted(BY_NAME)
+                .forEach(row -> {
+                    if (!builder.visited.contains(row.id())) builder.visit(row, 0, true);
+                });
+
+        Map<UUID, Node> ordered = new LinkedHashMap<>();
+        builder.order.forEach(id -> ordered.put(id, builder.built.get(id)));
+        return new CategoryTree(ordered);
+    }
+
+    /** Every active category, parents before children. */
+    public Collection<Node> nodes() {
+        return nodes.values();
+    }
+
+    public Optional<Node> find(UUID id) {
+        return Optional.ofNullable(nodes.get(id));
+    }
+
+    /**
+     * The category and everything below it. An unknown id resolves to just
+     * itself, so a filter on it still matches nothing rather than everything.
+     */
+    public Set<UUID> descendantIds(UUID id) {
+        Node node = nodes.get(id);
+        return node != null ? node.descendantIds() : Set.of(id);
+    }
+
+    private static final class Builder {
+
+        private final Map<UUID, List<CategoryRow>> children;
+        private final Set<UUID> visited = new HashSet<>();
+        private final List<UUID> order = new ArrayList<>();
+        private final Map<UUID, Node> built = new HashMap<>();
+
+        private Builder(Map<UUID, List<CategoryRow>> children) {
+            this.children = children;
+        }
+
+        private Set<UUID> visit(CategoryRow row, int depth, boolean detached) {
+            visited.add(row.id());
+            order.add(row.id());
+
+            List<UUID> childIds = new ArrayList<>();
+            Set<UUID> descendants = new HashSet<>();
+            descendants.add(row.id());
+            for (CategoryRow child : children.getOrDefault(row.id(), List.of())) {
+                if (visited.contains(child.id())) continue;
+                childIds.add(child.id());
+                descendants.addAll(visit(child, depth + 1, false));
+            }
+
+            built.put(row.id(), new Node(
+                    row.id(), row.name(), row.slug(),
+                    detached ? null : row.parentId(),
+                    detached ? null : row.parentName(),
+                    depth, List.copyOf(childIds), Set.copyOf(descendants), row.createdAt()));
+            return descendants;
+        }
+    }
+}
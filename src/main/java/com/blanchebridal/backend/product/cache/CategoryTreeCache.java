@@ -0,0 +1,42 @@
+package com.blanchebridal.backend.product.cache;
+
+import com.blanchebridal.backend.product.event.CategoryChangedEvent;
+import com.blanchebridal.backend.product.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Holds the current {@link CategoryTree}. Loaded on first use and rebuilt
+ * from one query after every committed category change; readers always see
+ * a complete snapshot because the reference is swapped, never mutated.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree snapshot;
+
+    public CategoryTree current() {
+        CategoryTree tree = snapshot;
+        return tree != null ? tree : rebuild();
+    }
+
+    // Serialised so the snapshot left in place always comes from the latest read
+    public synchronized CategoryTree rebuild() {
+        CategoryTree tree = CategoryTree.build(categoryRepository.findActiveRows());
+        snapshot = tree;
+        log.debug("[Category] Tree rebuilt → {} categories", tree.nodes().size());
+        return tree;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+}
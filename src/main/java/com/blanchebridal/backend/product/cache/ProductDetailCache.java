@@ -0,0 +1,88 @@
+package com.blanchebridal.backend.product.cache;
+
+import com.blanchebridal.backend.product.dto.res.ProductDetailResponse;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of built product detail responses.
+ *
+ * Entries live in a single id-keyed cache; slugs resolve through a small
+ * slug → id index that is checked against the cached entry's slug, so a
+ * renamed product never serves its old slug. Invalidation happens on
+ * {@link ProductChangedEvent} after the writing transaction commits.
+ * Hit/miss counters are published as cache.gets{cache=product-detail|product-slug}.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final Cache<UUID, ProductDetailResponse> byId;
+    private final Cache<String, UUID> slugIndex;
+
+    // Bumped on every invalidation — a slug load that raced a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductDetailCache(@Value("${app.product-cache.max-size:2000}") long maxSize,
+                              @Value("${app.product-cache.ttl:10m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.slugIndex = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "product-detail");
+        CaffeineCacheMetrics.monitor(meterRegistry, slugIndex, "product-slug");
+    }
+
+    public ProductDetailResponse getById(UUID id, Function<UUID, ProductDetailResponse> loader) {
+        // Caffeine blocks invalidate() on a key until its load finishes,
+        // so an in-flight load can never outlive the eviction that follows it
+        ProductDetailResponse detail = byId.get(id, loader);
+        slugIndex.put(detail.slug(), detail.id());
+        return detail;
+    }
+
+    public ProductDetailResponse getBySlug(String slug, Function<String, ProductDetailResponse> loader) {
+        UUID id = slugIndex.getIfPresent(slug);
+        if (id != null) {
+            ProductDetailResponse cached = byId.getIfPresent(id);
+            if (cached != null && slug.equals(cached.slug())) return cached;
+        }
+
+        long seen = generation.get();
+        ProductDetailResponse detail = loader.apply(slug);
+        if (generation.get() == seen) {
+            byId.put(detail.id(), detail);
+            slugIndex.put(slug, detail.id());
+        }
+        return detail;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.affectsAll()) {
+            byId.invalidateAll();
+        } else {
+            byId.invalidateAll(event.productIds());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.blanchebridal.backend.product.cache;
+
+import com.blanchebridal.backend.product.dto.res.ProductSuggestion;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
+import com.blanchebridal.backend.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over active product names and slugs for typeahead.
+ *
+ * Every product contributes one key per word of its name and slug — the text
+ * from that word to the end — so "lace go" and "go" both reach "Lace Gown".
+ * Keys live in one sorted array; a lookup is a binary search plus a short
+ * scan, with no database round trip. Committed product writes patch only the
+ * affected products: their keys are spliced into a copy of the array, and
+ * writes that leave every name and slug as it was don't touch it at all.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestIndex {
+
+    // Upper bound on keys examined per lookup, so a one-letter query stays cheap
+    private static final int MAX_SCAN = 256;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProductRepository productRepository;
+
+    private volatile Snapshot snapshot;
+
+    private record Key(String text, boolean leading, ProductSuggestion product) {}
+
+    private record Snapshot(Map<UUID, ProductSuggestion> products, String[] texts, Key[] keys) {
+
+        static Snapshot of(Map<UUID, ProductSuggestion> products) {
+            Key[] sorted = keysOf(products.values());
+            return new Snapshot(products, textsOf(sorted), sorted);
+        }
+
+        // Drops the changed products' keys and merges in their new ones — the
+        // untouched keys are already sorted, so only the few new ones are
+        Snapshot splice(Map<UUID, ProductSuggestion> products, Set<UUID> changed) {
+            Key[] added = keysOf(changed.stream().map(products::get).filter(Objects::nonNull).toList());
+            List<Key> merged = new ArrayList<>(keys.length + added.length);
+            int a = 0;
+            for (Key key : keys) {
+                if (changed.contains(key.product().id())) continue;
+                while (a < added.length && added[a].text().compareTo(key.text()) < 0) merged.add(added[a++]);
+                merged.add(key);
+            }
+            while (a < added.length) merged.add(added[a++]);
+
+            Key[] sorted = merged.toArray(new Key[0]);
+            return new Snapshot(products, textsOf(sorted), sorted);
+        }
+
+        private static Key[] keysOf(Collection<ProductSuggestion> products) {
+            List<Key> keys = new ArrayList<>();
+            for (ProductSuggestion p : products) {
+                Set<String> seen = new LinkedHashSet<>();
+                addKeys(keys, seen, p, normalize(p.name()));
+                addKeys(keys, seen, p, normalize(p.slug()));
+            }
+            keys.sort(Comparator.comparing(Key::text));
+            return keys.toArray(new Key[0]);
+        }
+
+        private static String[] textsOf(Key[] keys) {
+            return Arrays.stream(keys).map(Key::text).toArray(String[]::new);
+        }
+
+        private static void addKeys(List<Key> keys, Set<String> seen, ProductSuggestion p, String text) {
+            if (text.isEmpty()) return;
+            int start = 0;
+            while (start >= 0) {
+                String suffix = text.substring(start);
+                if (seen.add(suffix)) keys.add(new Key(suffix, start == 0, p));
+                int space = text.indexOf(' ', start);
+                start = space < 0 ? -1 : space + 1;
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} active products whose name or slug has a word
+     * starting with the query. Whole-name prefix matches rank first, then
+     * shorter names.
+     */
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) return List.of();
+
+        Snapshot current = current();
+        int from = lowerBound(current.texts(), prefix);
+
+        Map<UUID, Key> best = new HashMap<>();
+        for (int i = from, scanned = 0;
+             i < current.keys().length && scanned < MAX_SCAN && current.texts()[i].startsWith(prefix);
+             i++, scanned++) {
+            Key key = current.keys()[i];
+            best.merge(key.product().id(), key, (a, b) -> a.leading() ? a : b);
+        }
+
+        return best.values().stream()
+                .sorted(Comparator.comparing((Key k) -> !k.leading())
+                        .thenComparingInt(k -> k.product().name().length())
+                        .thenComparing(k -> k.product().name(), String.CASE_INSENSITIVE_ORDER))
+                .limit(limit)
+                .map(Key::product)
+                .toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (snapshot == null) return;   // not loaded yet — first lookup reads everything
+        if (event.affectsAll()) {
+            reload();
+        } else {
+            refresh(event.productIds());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        return s != null ? s : reload();
+    }
+
+    private synchronized Snapshot reload() {
+        Map<UUID, ProductSuggestion> products = new HashMap<>();
+        productRepository.findActiveSuggestions().forEach(p -> products.put(p.id(), p));
+        Snapshot s = Snapshot.of(products);
+        snapshot = s;
+        log.debug("[Product] Suggest index loaded → {} products, {} keys", products.size(), s.keys().length);
+        return s;
+    }
+
+    // Re-reads just the changed products; deleted or deactivated ones drop out.
+    // Most events are stock or price writes that leave name and slug alone —
+    // those change nothing here and keep the current snapshot.
+    private synchronized void refresh(Collection<UUID> ids) {
+        Snapshot current = snapshot;
+        Map<UUID, ProductSuggestion> fresh = new HashMap<>();
+        productRepository.findActiveSuggestionsByIdIn(ids).forEach(p -> fresh.put(p.id(), p));
+
+        Set<UUID> changed = new HashSet<>();
+        for (UUID id : ids) {
+            if (!Objects.equals(current.products().get(id), fresh.get(id))) changed.add(id);
+        }
+        if (changed.isEmpty()) return;
+
+        Map<UUID, ProductSuggestion> products = new HashMap<>(current.products());
+        products.keySet().removeAll(changed);
+        changed.forEach(id -> { if (fresh.containsKey(id)) products.put(id, fresh.get(id)); });
+        snapshot = current.splice(products, changed);
+    }
+
+    private static int lowerBound(String[] texts, String prefix) {
+        int lo = 0, hi = texts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (texts[mid].compareTo(prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // "Robe de Mariée" / "robe-de-mariee" → "robe de mariee"
+    static String normalize(String text) {
+        if (text == null) return "";
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -7,10 +7,14 @@ import com.blanchebridal.backend.product.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -21,13 +25,20 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CategoryController {
 
+    private static final CacheControl CATEGORY_CACHE =
+            CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic().mustRevalidate();
+
     private final CategoryService categoryService;
 
-    // Public
+    // Public — conditional GET on the category revision; 304 skips the query entirely
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAll() {
+    public ResponseEntity<Map<String, Object>> getAll(WebRequest request) {
+        if (request.checkNotModified(categoryService.getCategoriesETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CATEGORY_CACHE).build();
+        }
         List<CategoryResponse> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(Map.of("success", true, "data", categories));
+        return ResponseEntity.ok().cacheControl(CATEGORY_CACHE)
+                .body(Map.of("success", true, "data", categories));
     }
 
     // Public
@@ -3,12 +3,16 @@ package com.blanchebridal.backend.product.controller;
 import com.blanchebridal.backend.auth.security.JwtUtil;
 import com.blanchebridal.backend.exception.UnauthorizedException;
 import com.blanchebridal.backend.product.dto.ProductFilters;
+import com.blanchebridal.backend.product.dto.ProductSortField;
+import com.blanchebridal.backend.product.dto.ProductTransferFormat;
 import com.blanchebridal.backend.product.dto.req.CreateProductRequest;
 import com.blanchebridal.backend.product.dto.req.CreateReviewRequest;
 import com.blanchebridal.backend.product.dto.req.UpdateProductRequest;
+import com.blanchebridal.backend.product.dto.res.ProductCursorPage;
 import com.blanchebridal.backend.product.dto.res.ProductSummaryResponse;
 import com.blanchebridal.backend.product.entity.ProductType;
 import com.blanchebridal.backend.product.service.ProductService;
+import com.blanchebridal.backend.product.service.ProductTransferService;
 import com.blanchebridal.backend.product.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,11 +21,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -32,8 +47,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProductController {
 
+    // Shared caches (CDN) may keep a detail for a minute, then revalidate with the ETag
+    private static final CacheControl CATALOG_CACHE =
+            CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic().mustRevalidate();
+
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final ProductService productService;
     private final ReviewService reviewService;
+    private final ProductTransferService productTransferService;
     private final JwtUtil jwtUtil;
 
     // ── Public ────────────────────────────────────────────────────────────────
@@ -46,18 +68,53 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String productSize,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @RequestParam(required = false) String cursor) {
 
         String[] sortParts = sort.split(",");
         Sort.Direction direction = sortParts.length > 1
                 && sortParts[1].equalsIgnoreCase("asc")
                 ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortParts[0]));
+        boolean relevance = sortParts[0].equalsIgnoreCase("relevance");
 
+        // "size" is the page size, so the size filter is productSize
         ProductFilters filters = new ProductFilters(
-                type, categoryId, search, minPrice, maxPrice, available);
+                type, categoryId, search, minPrice, maxPrice, available, productSize, includeSubcategories);
+
+        // ── Cursor mode (opt-in): seek on (sortKey, id), no count query ──────
+        if (cursor != null) {
+            if (relevance) {
+                throw new IllegalStateException("Cursor pagination does not support sort=relevance");
+            }
+            ProductCursorPage result = productService.getProductsByCursor(
+                    filters, ProductSortField.fromParam(sortParts[0]), direction, cursor, size);
+
+            Map<String, Object> pagination = new LinkedHashMap<>();
+            pagination.put("size", size);
+            pagination.put("nextCursor", result.nextCursor());
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "data", result.content(),
+                    "pagination", pagination
+            ));
+        }
+
+        // ── Offset mode ──────────────────────────────────────────────────────
+        Pageable pageable;
+        if (relevance && search != null && !search.isBlank()) {
+            // Unsorted → the service ranks by full-text relevance
+            pageable = PageRequest.of(page, size);
+        } else if (relevance) {
+            pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        } else {
+            ProductSortField sortField = ProductSortField.fromParam(sortParts[0]);
+            pageable = PageRequest.of(page, size, Sort.by(sortField.order(direction)));
+        }
 
         Page<ProductSummaryResponse> result = productService.getProducts(filters, pageable);
 
@@ -73,15 +130,56 @@ public class ProductController {
         ));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getById(@PathVariable UUID id) {
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getFacets(
+            @RequestParam(required = false) ProductType type,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String productSize,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories) {
+
+        ProductFilters filters = new ProductFilters(
+                type, categoryId, search, minPrice, maxPrice, available, productSize, includeSubcategories);
+        return ResponseEntity.ok(Map.of("success", true,
+                "data", productService.getFacets(filters)));
+    }
+
+    // Typeahead for the storefront search box — in-memory, no database round trip
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "8") int limit) {
         return ResponseEntity.ok(Map.of("success", true,
+                "data", productService.suggestProducts(q, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS))));
+    }
+
+    // Conditional GET: the ETag comes from a version lookup, so a matching
+    // If-None-Match returns 304 before the product graph is loaded.
+    // checkNotModified() also writes the ETag header on the 200 path.
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getById(@PathVariable UUID id, WebRequest request) {
+        if (request.checkNotModified(productService.getProductETag(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CATALOG_CACHE).build();
+        }
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(Map.of("success", true,
                 "data", productService.getProductById(id)));
     }
 
-    @GetMapping("/slug/{slug}")
-    public ResponseEntity<Map<String, Object>> getBySlug(@PathVariable String slug) {
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<Map<String, Object>> getSimilar(@PathVariable UUID id) {
         return ResponseEntity.ok(Map.of("success", true,
+                "data", productService.getSimilarProducts(id)));
+    }
+
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<Map<String, Object>> getBySlug(@PathVariable String slug, WebRequest request) {
+        if (request.checkNotModified(productService.getProductETagBySlug(slug))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CATALOG_CACHE).build();
+        }
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE).body(Map.of("success", true,
                 "data", productService.getProductBySlug(slug)));
     }
 
@@ -124,6 +222,39 @@ public class ProductController {
                 "data", productService.updateStock(id, quantity)));
     }
 
+    // ── Bulk import / export ──────────────────────────────────────────────────
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<Map<String, Object>> importProducts(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+        ProductTransferFormat transferFormat =
+                ProductTransferFormat.resolve(format, file.getOriginalFilename());
+        log.info("[Product] Import → file: {}, format: {}, bytes: {}",
+                file.getOriginalFilename(), transferFormat, file.getSize());
+
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(Map.of("success", true,
+                    "data", productTransferService.importProducts(in, transferFormat)));
+        }
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format) {
+        ProductTransferFormat transferFormat = ProductTransferFormat.fromParam(format);
+        log.info("[Product] Export → format: {}", transferFormat);
+
+        StreamingResponseBody body = out -> productTransferService.exportProducts(out, transferFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(transferFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + transferFormat.extension() + "\"")
+                .body(body);
+    }
+
     // ── NEW: GET /api/products/deleted ────────────────────────────────────────
     @GetMapping("/deleted")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
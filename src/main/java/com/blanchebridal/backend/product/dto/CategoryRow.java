@@ -0,0 +1,17 @@
+package com.blanchebridal.backend.product.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One active category with its parent's id and name, selected in a single
+ * join. parentId / parentName are null for roots and when the parent is inactive.
+ */
+public record CategoryRow(
+        UUID id,
+        String name,
+        String slug,
+        UUID parentId,
+        String parentName,
+        LocalDateTime createdAt
+) {}
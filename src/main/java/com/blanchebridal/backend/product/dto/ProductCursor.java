@@ -0,0 +1,46 @@
+package com.blanchebridal.backend.product.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position: the (sort key, id) of the last row a client has seen.
+ * Encoded as URL-safe base64 of "field|direction|id[|value]" — the value goes
+ * last because it may itself contain '|', and is omitted when it is NULL.
+ */
+public record ProductCursor(
+        ProductSortField field,
+        Sort.Direction direction,
+        UUID id,
+        Comparable<?> value
+) {
+
+    public static ProductCursor of(ProductSortField field, Sort.Direction direction, ProductSummaryRow last) {
+        return new ProductCursor(field, direction, last.id(), field.valueOf(last));
+    }
+
+    public String encode() {
+        String raw = field.name() + "|" + direction.name() + "|" + id
+                + (value != null ? "|" + value : "");
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            ProductSortField field = ProductSortField.valueOf(parts[0]);
+            return new ProductCursor(
+                    field,
+                    Sort.Direction.valueOf(parts[1]),
+                    UUID.fromString(parts[2]),
+                    parts.length > 3 ? field.parse(parts[3]) : null);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.blanchebridal.backend.product.dto;
+
+import com.blanchebridal.backend.product.entity.ProductType;
+
+import java.util.UUID;
+
+/**
+ * One group of the facet aggregate: how many matching products share this
+ * (type, category, availability, price bucket) combination, and whether
+ * they fall in the requested minPrice/maxPrice range.
+ * categoryName is null when the category is missing or inactive, and
+ * priceBucket when the product has no price.
+ */
+public record ProductFacetRow(
+        ProductType type,
+        UUID categoryId,
+        String categoryName,
+        Boolean isAvailable,
+        ProductPriceBucket priceBucket,
+        boolean inPriceRange,
+        Long count
+) {
+
+    // Used by the facet query, which computes the bucket as its ordinal
+    public ProductFacetRow(ProductType type, UUID categoryId, String categoryName, Boolean isAvailable,
+                           Integer priceBucket, Boolean inPriceRange, Long count) {
+        this(type, categoryId, categoryName, isAvailable,
+                priceBucket == null ? null : ProductPriceBucket.values()[priceBucket],
+                Boolean.TRUE.equals(inPriceRange), count);
+    }
+}
@@ -11,5 +11,8 @@ public record ProductFilters(
         String search,
         BigDecimal minPrice,
         BigDecimal maxPrice,
-        Boolean available
+        Boolean available,
+        String size,
+        // Also match products in any category below categoryId
+        boolean includeSubcategories
 ) {}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.blanchebridal.backend.product.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Price ranges shown in the catalog sidebar, on the effective price
+ * (rental price, falling back to purchase price). min is inclusive, max
+ * exclusive; the storefront passes them back as minPrice/maxPrice.
+ */
+public enum ProductPriceBucket {
+
+    UNDER_10000(null, "10000"),
+    FROM_10000_TO_25000("10000", "25000"),
+    FROM_25000_TO_50000("25000", "50000"),
+    FROM_50000_TO_100000("50000", "100000"),
+    OVER_100000("100000", null);
+
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    ProductPriceBucket(String min, String max) {
+        this.min = min == null ? null : new BigDecimal(min);
+        this.max = max == null ? null : new BigDecimal(max);
+    }
+
+    public BigDecimal min() {
+        return min;
+    }
+
+    public BigDecimal max() {
+        return max;
+    }
+}
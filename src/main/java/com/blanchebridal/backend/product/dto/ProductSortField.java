@@ -0,0 +1,67 @@
+package com.blanchebridal.backend.product.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Whitelist of the columns GET /api/products may sort and seek on.
+ * Every entry is backed by (column, id) indexes on active products.
+ * Nullable keys sort NULLS LAST in both directions, so a product with no
+ * price or no rating never lists ahead of the ones that have one.
+ */
+public enum ProductSortField {
+
+    CREATED_AT("createdAt", "createdAt", false, ProductSummaryRow::createdAt, LocalDateTime::parse),
+    NAME("name", "name", false, ProductSummaryRow::name, value -> value),
+    // Products with neither price sort last
+    PRICE("price", "effectivePrice", true, ProductSummaryRow::effectivePrice, BigDecimal::new),
+    // Unrated products sort last, below the lowest-rated ones
+    RATING("rating", "ratingAvg", true, ProductSummaryRow::ratingAvg, BigDecimal::new);
+
+    private final String param;
+    private final String property;
+    private final boolean nullable;
+    private final Function<ProductSummaryRow, Comparable<?>> extractor;
+    private final Function<String, Comparable<?>> parser;
+
+    ProductSortField(String param, String property, boolean nullable,
+                     Function<ProductSummaryRow, Comparable<?>> extractor,
+                     Function<String, Comparable<?>> parser) {
+        this.param     = param;
+        this.property  = property;
+        this.nullable  = nullable;
+        this.extractor = extractor;
+        this.parser    = parser;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public boolean nullable() {
+        return nullable;
+    }
+
+    public Sort.Order order(Sort.Direction direction) {
+        Sort.Order order = new Sort.Order(direction, property);
+        return nullable ? order.nullsLast() : order;
+    }
+
+    public Comparable<?> valueOf(ProductSummaryRow row) {
+        return extractor.apply(row);
+    }
+
+    public Comparable<?> parse(String raw) {
+        return parser.apply(raw);
+    }
+
+    public static ProductSortField fromParam(String param) {
+        for (ProductSortField field : values()) {
+            if (field.param.equalsIgnoreCase(param)) return field;
+        }
+        throw new IllegalStateException("Unsupported sort field: " + param);
+    }
+}
@@ -0,0 +1,28 @@
+package com.blanchebridal.backend.product.dto;
+
+import com.blanchebridal.backend.product.entity.ProductType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat catalog listing row, selected column-by-column in a single query.
+ * categoryId / categoryName are null when the product has no active category.
+ */
+public record ProductSummaryRow(
+        UUID id,
+        String name,
+        String slug,
+        ProductType type,
+        BigDecimal rentalPrice,
+        BigDecimal purchasePrice,
+        BigDecimal effectivePrice,
+        Integer stock,
+        Boolean isAvailable,
+        BigDecimal ratingAvg,
+        LocalDateTime createdAt,
+        String firstImageUrl,
+        UUID categoryId,
+        String categoryName
+) {}
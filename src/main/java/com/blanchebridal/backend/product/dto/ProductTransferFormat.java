@@ -0,0 +1,39 @@
+package com.blanchebridal.backend.product.dto;
+
+import java.util.Locale;
+
+public enum ProductTransferFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ProductTransferFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension   = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ProductTransferFormat fromParam(String param) {
+        for (ProductTransferFormat format : values()) {
+            if (format.name().equalsIgnoreCase(param)) return format;
+        }
+        throw new IllegalStateException("Unsupported format: " + param + " (use csv or ndjson)");
+    }
+
+    // Explicit ?format= wins; otherwise go by the uploaded file's extension
+    public static ProductTransferFormat resolve(String param, String filename) {
+        if (param != null && !param.isBlank()) return fromParam(param);
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
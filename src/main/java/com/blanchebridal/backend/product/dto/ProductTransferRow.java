@@ -0,0 +1,33 @@
+package com.blanchebridal.backend.product.dto;
+
+import com.blanchebridal.backend.product.entity.ProductType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One product in a bulk import or export file. The same shape is used for
+ * CSV (header row, list cells separated by "|") and NDJSON (one object per
+ * line), so an export can be edited and imported back as-is.
+ * slug is optional on import and derived from name when blank; isActive is
+ * optional and leaves an existing product's visibility alone when absent.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"name", "slug", "description", "type", "categorySlug",
+        "rentalPrice", "purchasePrice", "stock", "sizes", "imageUrls", "isAvailable", "isActive"})
+public record ProductTransferRow(
+        String name,
+        String slug,
+        String description,
+        ProductType type,
+        String categorySlug,
+        BigDecimal rentalPrice,
+        BigDecimal purchasePrice,
+        Integer stock,
+        List<String> sizes,
+        List<String> imageUrls,
+        Boolean isAvailable,
+        Boolean isActive
+) {}
@@ -0,0 +1,15 @@
+package com.blanchebridal.backend.product.dto;
+
+import java.util.UUID;
+
+/**
+ * Everything a product detail response depends on, read without loading the
+ * entity graph. categoryVersion is null when the product has no category.
+ */
+public record ProductVersion(UUID id, Long version, Long categoryVersion) {
+
+    // Strong ETag; the id keeps it unique per product even when a slug is reused
+    public String etag() {
+        return "\"" + id + "-" + version + "-" + (categoryVersion == null ? 0 : categoryVersion) + "\"";
+    }
+}
@@ -0,0 +1,19 @@
+package com.blanchebridal.backend.product.dto;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Outcome of a set-based stock deduction. Every product is either fully
+ * deducted or left untouched and reported in {@code oversold} with the
+ * quantity that could not be covered — stock is never clamped or driven negative.
+ */
+public record StockDeduction(
+        Set<UUID> deducted,
+        Map<UUID, Integer> oversold
+) {
+    public boolean isComplete() {
+        return oversold.isEmpty();
+    }
+}
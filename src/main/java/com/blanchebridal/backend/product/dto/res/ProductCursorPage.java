@@ -0,0 +1,8 @@
+package com.blanchebridal.backend.product.dto.res;
+
+import java.util.List;
+
+public record ProductCursorPage(
+        List<ProductSummaryResponse> content,
+        String nextCursor
+) {}
@@ -0,0 +1,21 @@
+package com.blanchebridal.backend.product.dto.res;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Sidebar counts for GET /api/products/facets. Each facet is counted with
+ * every filter applied except its own, so picking a type still shows how
+ * many products the other types would return.
+ */
+public record ProductFacetsResponse(
+        long total,
+        List<FacetCount> types,
+        List<FacetCount> categories,
+        List<PriceBucketCount> priceBuckets,
+        List<FacetCount> availability
+) {
+    public record FacetCount(String value, String label, long count) {}
+
+    public record PriceBucketCount(String bucket, BigDecimal min, BigDecimal max, long count) {}
+}
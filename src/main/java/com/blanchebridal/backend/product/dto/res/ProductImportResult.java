@@ -0,0 +1,18 @@
+package com.blanchebridal.backend.product.dto.res;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. processed counts every data row read; imported
+ * counts products written (a slug repeated in the file is written once, last
+ * row wins). errors is capped — failed is always the full count.
+ */
+public record ProductImportResult(
+        long processed,
+        long imported,
+        long failed,
+        List<RowError> errors
+) {
+    // row is the CSV record number (header excluded) or the NDJSON line number
+    public record RowError(long row, String slug, String message) {}
+}
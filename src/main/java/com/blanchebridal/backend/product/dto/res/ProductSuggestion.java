@@ -0,0 +1,9 @@
+package com.blanchebridal.backend.product.dto.res;
+
+import java.util.UUID;
+
+public record ProductSuggestion(
+        UUID id,
+        String name,
+        String slug
+) {}
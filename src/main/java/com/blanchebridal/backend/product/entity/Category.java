@@ -3,6 +3,7 @@ package com.blanchebridal.backend.product.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -40,7 +41,15 @@ public class Category {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Bumped on every update — feeds product and category-list ETags
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
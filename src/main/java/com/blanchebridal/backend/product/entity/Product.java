@@ -7,6 +7,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -46,11 +47,31 @@ public class Product {
     @Column(name = "purchase_price", precision = 10, scale = 2)
     private BigDecimal purchasePrice;
 
+    // COALESCE(rental_price, purchase_price), generated by Postgres (V19) — never written by JPA
+    @Column(name = "effective_price", precision = 10, scale = 2,
+            insertable = false, updatable = false)
+    private BigDecimal effectivePrice;
+
     @Column(nullable = false)
     private Integer stock = 0;
 
-    @Column(columnDefinition = "TEXT")
-    private String sizes; // stored as JSON array string: ["XS","S","M"]
+    // Trimmed sizes as entered; the size filter matches them case-insensitively (V20)
+    @Column(columnDefinition = "TEXT[]", nullable = false)
+    @Builder.Default
+    private List<String> sizes = new ArrayList<>();
+
+    // Totals over APPROVED reviews, adjusted atomically by review moderation (V22).
+    // Read-only here so an entity save can never overwrite a concurrent adjustment.
+    @Column(name = "rating_sum", insertable = false, updatable = false)
+    private Long ratingSum;
+
+    @Column(name = "rating_count", insertable = false, updatable = false)
+    private Integer ratingCount;
+
+    // rating_sum / rating_count, generated by Postgres — null until the first approved review
+    @Column(name = "rating_avg", precision = 3, scale = 2,
+            insertable = false, updatable = false)
+    private BigDecimal ratingAvg;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("displayOrder ASC")
@@ -65,6 +86,10 @@ public class Product {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Bumped on every update — also the source of the detail ETag
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
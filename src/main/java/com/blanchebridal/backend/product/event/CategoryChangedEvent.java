@@ -0,0 +1,7 @@
+package com.blanchebridal.backend.product.event;
+
+/**
+ * Published when a category is created, updated, deleted or restored.
+ * Listeners run after the publishing transaction commits.
+ */
+public record CategoryChangedEvent() {}
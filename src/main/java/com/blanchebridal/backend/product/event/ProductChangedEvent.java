@@ -0,0 +1,24 @@
+package com.blanchebridal.backend.product.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published whenever product data that readers may have cached changes.
+ * An empty id set means "anything may have changed" (e.g. a category rename).
+ * Listeners run after the publishing transaction commits.
+ */
+public record ProductChangedEvent(Set<UUID> productIds) {
+
+    public static ProductChangedEvent of(UUID... productIds) {
+        return new ProductChangedEvent(Set.of(productIds));
+    }
+
+    public static ProductChangedEvent all() {
+        return new ProductChangedEvent(Set.of());
+    }
+
+    public boolean affectsAll() {
+        return productIds.isEmpty();
+    }
+}
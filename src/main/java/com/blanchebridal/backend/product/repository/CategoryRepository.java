@@ -1,7 +1,9 @@
 package com.blanchebridal.backend.product.repository;
 
+import com.blanchebridal.backend.product.dto.CategoryRow;
 import com.blanchebridal.backend.product.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +15,18 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     boolean existsBySlug(String slug);
     List<Category> findByParentIsNullAndIsActiveTrue();
     List<Category> findAllByIsActiveTrue();
+
+    // Category tree source — parent id and name come from the join, not a lazy load per row
+    @Query("SELECT new com.blanchebridal.backend.product.dto.CategoryRow(" +
+           "c.id, c.name, c.slug, p.id, p.name, c.createdAt) " +
+           "FROM Category c LEFT JOIN c.parent p ON p.isActive = true " +
+           "WHERE c.isActive = true")
+    List<CategoryRow> findActiveRows();
     List<Category> findByIsActiveFalse();
     Optional<Category> findByIdAndIsActiveFalse(UUID id);
+
+    // Categories are never hard-deleted and versions only grow, so this
+    // strictly increases on every create, update, delete or restore
+    @Query("SELECT COUNT(c) + COALESCE(SUM(c.version), 0) FROM Category c")
+    long findRevision();
 }
\ No newline at end of file
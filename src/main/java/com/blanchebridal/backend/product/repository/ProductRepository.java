@@ -1,15 +1,22 @@
 package com.blanchebridal.backend.product.repository;
 
+import com.blanchebridal.backend.product.dto.ProductVersion;
+import com.blanchebridal.backend.product.dto.res.ProductSuggestion;
 import com.blanchebridal.backend.product.entity.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ProductRepository extends JpaRepository<Product, UUID>,
-        JpaSpecificationExecutor<Product> {
+        JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
 
     Optional<Product> findByIdAndIsActiveTrue(UUID id);
 
@@ -17,6 +24,43 @@ public interface ProductRepository extends JpaRepository<Product, UUID>,
 
     boolean existsBySlug(String slug);
 
+    // Order creation — every requested product with its images in one query
+    @EntityGraph(attributePaths = "images")
+    List<Product> findWithImagesByIdIn(Collection<UUID> ids);
+
+    // ETag sources — two columns and a join, no images, no description
+    @Query("SELECT new com.blanchebridal.backend.product.dto.ProductVersion(p.id, p.version, c.version) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id = :id AND p.isActive = true")
+    Optional<ProductVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT new com.blanchebridal.backend.product.dto.ProductVersion(p.id, p.version, c.version) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.slug = :slug AND p.isActive = true")
+    Optional<ProductVersion> findVersionBySlug(@Param("slug") String slug);
+
+    // Typeahead index source — id, name and slug only
+    @Query("SELECT new com.blanchebridal.backend.product.dto.res.ProductSuggestion(p.id, p.name, p.slug) " +
+           "FROM Product p WHERE p.isActive = true")
+    List<ProductSuggestion> findActiveSuggestions();
+
+    @Query("SELECT new com.blanchebridal.backend.product.dto.res.ProductSuggestion(p.id, p.name, p.slug) " +
+           "FROM Product p WHERE p.isActive = true AND p.id IN :ids")
+    List<ProductSuggestion> findActiveSuggestionsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Precomputed by the similarity job (V23) — a primary-key range scan in rank order
+    @Query(value = "SELECT similar_id FROM product_similarities WHERE product_id = :id ORDER BY rank",
+           nativeQuery = true)
+    List<UUID> findSimilarIds(@Param("id") UUID id);
+
+    // Single-statement increment so concurrent moderations never lose an update.
+    // Bumps version too, which moves the detail ETag.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE products SET rating_sum = rating_sum + :sumDelta, " +
+                   "rating_count = rating_count + :countDelta, version = version + 1 " +
+                   "WHERE id = :id", nativeQuery = true)
+    int adjustRating(@Param("id") UUID id,
+                     @Param("sumDelta") long sumDelta,
+                     @Param("countDelta") int countDelta);
+
     // ── NEW ───────────────────────────────────────────────────────────────────
 
     // Used by getDeletedProducts()
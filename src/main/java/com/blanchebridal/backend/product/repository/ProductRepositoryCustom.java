@@ -0,0 +1,25 @@
+package com.blanchebridal.backend.product.repository;
+
+import com.blanchebridal.backend.product.dto.ProductFacetRow;
+import com.blanchebridal.backend.product.dto.ProductSummaryRow;
+import com.blanchebridal.backend.product.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Offset page of listing rows; the count query is skipped when the page is not full
+    Page<ProductSummaryRow> findSummaries(Specification<Product> spec, Pageable pageable);
+
+    // First `limit` listing rows in `sort` order — used by keyset pagination
+    List<ProductSummaryRow> findSummaries(Specification<Product> spec, Sort sort, int limit);
+
+    // Matching products grouped by every facet dimension — one aggregate query.
+    // minPrice/maxPrice only flag each group as in or out of the price range.
+    List<ProductFacetRow> findFacetRows(Specification<Product> spec, BigDecimal minPrice, BigDecimal maxPrice);
+}
@@ -0,0 +1,196 @@
+package com.blanchebridal.backend.product.repository;
+
+import com.blanchebridal.backend.product.dto.ProductFacetRow;
+import com.blanchebridal.backend.product.dto.ProductPriceBucket;
+import com.blanchebridal.backend.product.dto.ProductSummaryRow;
+import com.blanchebridal.backend.product.entity.Category;
+import com.blanchebridal.backend.product.entity.Product;
+import com.blanchebridal.backend.product.entity.ProductImage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog listing without touching the Product entity graph: one SELECT
+ * returns the summary columns, the active category name (LEFT JOIN) and the
+ * first active image URL (correlated LIMIT 1 subquery). The TEXT description
+ * and the images collection are never loaded.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductSummaryRow> findSummaries(Specification<Product> spec, Pageable pageable) {
+        List<ProductSummaryRow> content = select(spec, pageable.getSort(),
+                (int) pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ProductSummaryRow> findSummaries(Specification<Product> spec, Sort sort, int limit) {
+        return select(spec, sort, 0, limit);
+    }
+
+    @Override
+    public List<ProductFacetRow> findFacetRows(Specification<Product> spec,
+                                               BigDecimal minPrice, BigDecimal maxPrice) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductFacetRow> query = cb.createQuery(ProductFacetRow.class);
+        Root<Product> root = query.from(Product.class);
+
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        category.on(cb.isTrue(category.get("isActive")));
+
+        Expression<BigDecimal> price = root.get("effectivePrice");
+
+        // Grouped by price bucket and range membership rather than by raw price,
+        // so the result stays a handful of rows however many distinct prices
+        // there are. Bounds are inline literals: the CASE expressions must
+        // render identically in SELECT and GROUP BY for Postgres to match them.
+        CriteriaBuilder.Case<Integer> bucketCase = cb.selectCase();
+        for (ProductPriceBucket bucket : ProductPriceBucket.values()) {
+            bucketCase = bucketCase.when(inBucket(cb, price, bucket),
+                    cb.literal(bucket.ordinal()));
+        }
+        Expression<Integer> bucket = bucketCase.otherwise(cb.nullLiteral(Integer.class));
+
+        Expression<Boolean> inPriceRange = minPrice == null && maxPrice == null
+                ? cb.literal(true)
+                : cb.<Boolean>selectCase()
+                        .when(inPriceFilter(cb, price, minPrice, maxPrice), cb.literal(true))
+                        .otherwise(cb.literal(false));
+
+        // Raw FK so the categoryId filter matches exactly what withFilters does;
+        // the name is only present when the category is active
+        query.select(cb.construct(ProductFacetRow.class,
+                root.get("type"),
+                root.get("category").get("id"),
+                category.get("name"),
+                root.get("isAvailable"),
+                bucket,
+                inPriceRange,
+                cb.count(root)));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.groupBy(root.get("type"), root.get("category").get("id"), category.get("name"),
+                root.get("isAvailable"), bucket, inPriceRange);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // ── private helpers ───────────────────────────────────────────────────────
+
+    // min <= price < max, either bound optional — buckets are half-open so
+    // neighbouring buckets never count the same product
+    private static Predicate inBucket(CriteriaBuilder cb, Expression<BigDecimal> price,
+                                      ProductPriceBucket bucket) {
+        Predicate range = cb.isNotNull(price);
+        if (bucket.min() != null) range = cb.and(range, cb.greaterThanOrEqualTo(price, cb.literal(bucket.min())));
+        if (bucket.max() != null) range = cb.and(range, cb.lessThan(price, cb.literal(bucket.max())));
+        return range;
+    }
+
+    // min <= price <= max, either bound optional — the same range as the
+    // minPrice/maxPrice filters in ProductSpecification.withFilters
+    private static Predicate inPriceFilter(CriteriaBuilder cb, Expression<BigDecimal> price,
+                                           BigDecimal min, BigDecimal max) {
+        Predicate range = cb.isNotNull(price);
+        if (min != null) range = cb.and(range, cb.greaterThanOrEqualTo(price, cb.literal(min)));
+        if (max != null) range = cb.and(range, cb.lessThanOrEqualTo(price, cb.literal(max)));
+        return range;
+    }
+
+    private List<ProductSummaryRow> select(Specification<Product> spec, Sort sort,
+                                           int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryRow> query = cb.createQuery(ProductSummaryRow.class);
+        Root<Product> root = query.from(Product.class);
+
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        category.on(cb.isTrue(category.get("isActive")));
+
+        JpaSubQuery<String> firstImage = (JpaSubQuery<String>) query.subquery(String.class);
+        Root<ProductImage> image = firstImage.from(ProductImage.class);
+        firstImage.select(image.get("url"));
+        firstImage.where(
+                cb.equal(image.get("product"), root),
+                cb.isTrue(image.get("isActive")));
+        firstImage.orderBy(cb.asc(image.get("displayOrder")), cb.asc(image.get("id")));
+        firstImage.fetch(1);
+
+        query.select(cb.construct(ProductSummaryRow.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("slug"),
+                root.get("type"),
+                root.get("rentalPrice"),
+                root.get("purchasePrice"),
+                root.get("effectivePrice"),
+                root.get("stock"),
+                root.get("isAvailable"),
+                root.get("ratingAvg"),
+                root.get("createdAt"),
+                firstImage,
+                category.get("id"),
+                category.get("name")));
+
+        // The spec may also set an ORDER BY (relevance); an explicit sort wins
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        if (sort.isSorted()) query.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // QueryUtils.toOrders drops Sort.Order null handling, so NULLS FIRST/LAST
+    // is applied through Hibernate's criteria extension instead
+    private static List<Order> toOrders(Sort sort, Root<Product> root, CriteriaBuilder cb) {
+        HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<?> path = root.get(order.getProperty());
+            orders.add(switch (order.getNullHandling()) {
+                case NATIVE -> order.isAscending() ? cb.asc(path) : cb.desc(path);
+                case NULLS_FIRST -> order.isAscending() ? hcb.asc(path, true) : hcb.desc(path, true);
+                case NULLS_LAST -> order.isAscending() ? hcb.asc(path, false) : hcb.desc(path, false);
+            });
+        }
+        return orders;
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
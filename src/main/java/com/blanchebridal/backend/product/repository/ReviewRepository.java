@@ -3,6 +3,7 @@ package com.blanchebridal.backend.product.repository;
 import com.blanchebridal.backend.product.entity.Review;
 import com.blanchebridal.backend.product.entity.ReviewStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -22,4 +23,11 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
     Double findOverallAverageRating();
 
     long countByStatus(ReviewStatus status);
+
+    // Compare-and-set on status — 0 rows means another moderator got there first
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Review r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int updateStatus(@Param("id") UUID id,
+                     @Param("from") ReviewStatus from,
+                     @Param("to") ReviewStatus to);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.blanchebridal.backend.product.scheduler;
+
+import com.blanchebridal.backend.product.service.ProductSimilarityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the "you may also like" lists every hour, so new products and
+ * recent orders show up the same day. Product pages only ever read the
+ * precomputed table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSimilarityScheduler {
+
+    private final ProductSimilarityService productSimilarityService;
+
+    @Scheduled(cron = "0 20 * * * *")
+    public void recomputeSimilarProducts() {
+        log.info("[ProductSimilarityScheduler] Recomputing similar products...");
+        productSimilarityService.recomputeSimilarities();
+    }
+}
@@ -9,6 +9,7 @@ import java.util.UUID;
 
 public interface CategoryService {
     List<CategoryResponse> getAllCategories();
+    String getCategoriesETag();
     CategoryResponse getCategoryById(UUID id);
     CategoryResponse createCategory(CreateCategoryRequest request);
     CategoryResponse updateCategory(UUID id, UpdateCategoryRequest request);
@@ -1,10 +1,15 @@
 package com.blanchebridal.backend.product.service;
 
 import com.blanchebridal.backend.product.dto.ProductFilters;
+import com.blanchebridal.backend.product.dto.ProductSortField;
+import com.blanchebridal.backend.product.dto.res.ProductCursorPage;
 import com.blanchebridal.backend.product.dto.res.ProductDetailResponse;
+import com.blanchebridal.backend.product.dto.res.ProductFacetsResponse;
+import com.blanchebridal.backend.product.dto.res.ProductSuggestion;
 import com.blanchebridal.backend.product.dto.res.ProductSummaryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,10 +18,23 @@ public interface ProductService {
 
     Page<ProductSummaryResponse> getProducts(ProductFilters filters, Pageable pageable);
 
+    ProductCursorPage getProductsByCursor(ProductFilters filters, ProductSortField sortField,
+                                          Sort.Direction direction, String cursor, int size);
+
+    ProductFacetsResponse getFacets(ProductFilters filters);
+
+    List<ProductSuggestion> suggestProducts(String query, int limit);
+
+    List<ProductSummaryResponse> getSimilarProducts(UUID id);
+
     ProductDetailResponse getProductById(UUID id);
 
     ProductDetailResponse getProductBySlug(String slug);
 
+    String getProductETag(UUID id);
+
+    String getProductETagBySlug(String slug);
+
     ProductDetailResponse createProduct(com.blanchebridal.backend.product.dto.req.CreateProductRequest request);
 
     ProductDetailResponse updateProduct(UUID id, com.blanchebridal.backend.product.dto.req.UpdateProductRequest request);
@@ -0,0 +1,7 @@
+package com.blanchebridal.backend.product.service;
+
+public interface ProductSimilarityService {
+
+    /** Recomputes every product's similar-products list and returns how many products got one. */
+    int recomputeSimilarities();
+}
@@ -0,0 +1,15 @@
+package com.blanchebridal.backend.product.service;
+
+import com.blanchebridal.backend.product.dto.StockDeduction;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface ProductStockService {
+
+    /**
+     * Deducts the given quantities (product id → units) for all products at
+     * once. Runs in the caller's transaction, which holds the row locks until commit.
+     */
+    StockDeduction deductStock(Map<UUID, Integer> quantities);
+}
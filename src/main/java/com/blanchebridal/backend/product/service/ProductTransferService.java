@@ -0,0 +1,15 @@
+package com.blanchebridal.backend.product.service;
+
+import com.blanchebridal.backend.product.dto.ProductTransferFormat;
+import com.blanchebridal.backend.product.dto.res.ProductImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ProductTransferService {
+
+    ProductImportResult importProducts(InputStream in, ProductTransferFormat format) throws IOException;
+
+    void exportProducts(OutputStream out, ProductTransferFormat format) throws IOException;
+}
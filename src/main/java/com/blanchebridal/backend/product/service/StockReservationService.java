@@ -0,0 +1,35 @@
+package com.blanchebridal.backend.product.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface StockReservationService {
+
+    /**
+     * Stock not yet held by an unpaid order — {@code stock} minus the units
+     * currently reserved for the product.
+     */
+    int availableStock(UUID productId, int stock);
+
+    /**
+     * Holds the given quantities (product id → units) for an order, checked
+     * against {@code stockLevels} (product id → on-hand stock). All or
+     * nothing: returns the products that could not be covered, or an empty
+     * set once everything is reserved. Runs in the caller's transaction.
+     */
+    Set<UUID> reserve(UUID orderId, Map<UUID, Integer> quantities, Map<UUID, Integer> stockLevels);
+
+    /** Gives an order's held stock back — on cancellation or expiry. */
+    void release(UUID orderId);
+
+    /** Same as {@link #release(UUID)} for a batch of orders, in one statement. */
+    void release(Collection<UUID> orderIds);
+
+    /** Closes an order's holds once payment has deducted the stock for real. */
+    void convert(UUID orderId);
+
+    /** Releases every hold past its expiry; returns how many were released. */
+    int releaseExpired();
+}
@@ -2,13 +2,18 @@ package com.blanchebridal.backend.product.service.impl;
 
 import com.blanchebridal.backend.exception.ConflictException;
 import com.blanchebridal.backend.exception.ResourceNotFoundException;
+import com.blanchebridal.backend.product.cache.CategoryTree;
+import com.blanchebridal.backend.product.cache.CategoryTreeCache;
 import com.blanchebridal.backend.product.dto.res.CategoryResponse;
 import com.blanchebridal.backend.product.dto.req.UpdateCategoryRequest;
 import com.blanchebridal.backend.product.dto.req.CreateCategoryRequest;
 import com.blanchebridal.backend.product.entity.Category;
+import com.blanchebridal.backend.product.event.CategoryChangedEvent;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
 import com.blanchebridal.backend.product.repository.CategoryRepository;
 import com.blanchebridal.backend.product.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,15 +25,23 @@ import java.util.UUID;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // Served from the in-memory tree — parents before children, siblings by name
     @Override
     public List<CategoryResponse> getAllCategories() {
-        return categoryRepository.findAllByIsActiveTrue()
+        return categoryTreeCache.current().nodes()
                 .stream()
                 .map(this::toResponse)
                 .toList();
     }
 
+    @Override
+    public String getCategoriesETag() {
+        return "\"categories-" + categoryRepository.findRevision() + "\"";
+    }
+
     @Override
     public CategoryResponse getCategoryById(UUID id) {
         return toResponse(findActiveById(id));
@@ -52,7 +65,9 @@ public class CategoryServiceImpl implements CategoryService {
                 .parent(parent)
                 .build();
 
-        return toResponse(categoryRepository.save(category));
+        CategoryResponse response = toResponse(categoryRepository.save(category));
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+        return response;
     }
 
     @Override
@@ -73,12 +88,19 @@ public class CategoryServiceImpl implements CategoryService {
             if (request.parentId().equals(id)) {
                 throw new ConflictException("A category cannot be its own parent");
             }
+            if (categoryTreeCache.current().descendantIds(id).contains(request.parentId())) {
+                throw new ConflictException("A category cannot be moved under its own subcategory");
+            }
             category.setParent(findActiveById(request.parentId()));
         } else {
             category.setParent(null);
         }
 
-        return toResponse(categoryRepository.save(category));
+        // Product details embed the category name — drop every cached product
+        CategoryResponse response = toResponse(categoryRepository.save(category));
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+        eventPublisher.publishEvent(ProductChangedEvent.all());
+        return response;
     }
 
     @Override
@@ -87,6 +109,8 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = findActiveById(id);
         category.setIsActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+        eventPublisher.publishEvent(ProductChangedEvent.all());
     }
 
     @Override
@@ -104,7 +128,10 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Deleted category not found: " + id));
         category.setIsActive(true);
-        return toResponse(categoryRepository.save(category));
+        CategoryResponse response = toResponse(categoryRepository.save(category));
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+        eventPublisher.publishEvent(ProductChangedEvent.all());
+        return response;
     }
 
     // ─── Helpers ──────────────────────────────────────────────────────────────
@@ -113,6 +140,12 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found: " + id));
     }
 
+    private CategoryResponse toResponse(CategoryTree.Node node) {
+        return new CategoryResponse(
+                node.id(), node.name(), node.slug(),
+                node.parentId(), node.parentName(), node.createdAt());
+    }
+
     private CategoryResponse toResponse(Category c) {
         return new CategoryResponse(
                 c.getId(),
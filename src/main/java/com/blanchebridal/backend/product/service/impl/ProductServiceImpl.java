@@ -2,31 +2,49 @@ package com.blanchebridal.backend.product.service.impl;
 
 import com.blanchebridal.backend.exception.ConflictException;
 import com.blanchebridal.backend.exception.ResourceNotFoundException;
+import com.blanchebridal.backend.product.cache.CategoryTreeCache;
+import com.blanchebridal.backend.product.cache.ProductDetailCache;
+import com.blanchebridal.backend.product.cache.ProductSuggestIndex;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
 import com.blanchebridal.backend.product.repository.ProductImageRepository;
 import com.blanchebridal.backend.product.spec.ProductSpecification;
 import com.blanchebridal.backend.product.dto.*;
 import com.blanchebridal.backend.product.dto.req.CreateProductRequest;
 import com.blanchebridal.backend.product.dto.req.UpdateProductRequest;
+import com.blanchebridal.backend.product.dto.res.ProductCursorPage;
 import com.blanchebridal.backend.product.dto.res.ProductDetailResponse;
+import com.blanchebridal.backend.product.dto.res.ProductFacetsResponse;
+import com.blanchebridal.backend.product.dto.res.ProductSuggestion;
 import com.blanchebridal.backend.product.dto.res.ProductSummaryResponse;
 import com.blanchebridal.backend.product.entity.Category;
 import com.blanchebridal.backend.product.entity.Product;
 import com.blanchebridal.backend.product.entity.ProductImage;
+import com.blanchebridal.backend.product.entity.ProductType;
 import com.blanchebridal.backend.product.repository.CategoryRepository;
 import com.blanchebridal.backend.product.repository.ProductRepository;
 import com.blanchebridal.backend.product.service.ProductService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.blanchebridal.backend.product.util.ProductSizes;
+import com.blanchebridal.backend.product.util.ProductSlugs;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -36,32 +54,175 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final ObjectMapper objectMapper;
     private final ProductImageRepository productImageRepository;
+    private final ProductDetailCache productDetailCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Page<ProductSummaryResponse> getProducts(ProductFilters filters, Pageable pageable) {
+        Specification<Product> spec = ProductSpecification.withFilters(filters, categoryScope(filters));
+
+        // No explicit sort + a search term → rank by full-text relevance
+        if (pageable.getSort().isUnsorted()
+                && filters.search() != null && !filters.search().isBlank()) {
+            spec = spec.and(ProductSpecification.orderByRelevance(filters.search()));
+        }
+
+        // Projection query: one SELECT per page (plus a count when the page is
+        // full) instead of lazy-loading images and category row by row
         return productRepository
-                .findAll(ProductSpecification.withFilters(filters), pageable)
+                .findSummaries(spec, pageable)
                 .map(this::toSummary);
     }
 
+    @Override
+    public ProductCursorPage getProductsByCursor(ProductFilters filters, ProductSortField sortField,
+                                                 Sort.Direction direction, String cursor, int size) {
+        Specification<Product> spec = ProductSpecification.withFilters(filters, categoryScope(filters));
+
+        if (cursor != null && !cursor.isBlank()) {
+            ProductCursor after = ProductCursor.decode(cursor);
+            if (after.field() != sortField || after.direction() != direction) {
+                throw new IllegalStateException("Cursor does not match the requested sort");
+            }
+            spec = spec.and(ProductSpecification.after(after));
+        }
+
+        // id breaks ties so the (key, id) order is total and the seek is stable.
+        // One extra row tells us whether there is a next page — no count query.
+        Sort sort = Sort.by(sortField.order(direction), new Sort.Order(direction, "id"));
+        List<ProductSummaryRow> rows = productRepository.findSummaries(spec, sort, size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<ProductSummaryRow> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? ProductCursor.of(sortField, direction, page.getLast()).encode()
+                : null;
+
+        return new ProductCursorPage(page.stream().map(this::toSummary).toList(), nextCursor);
+    }
+
+    @Override
+    public ProductFacetsResponse getFacets(ProductFilters filters) {
+        // Only search and size narrow the aggregate in SQL. The facet filters
+        // are applied per facet below, each facet ignoring its own selection.
+        ProductFilters base = new ProductFilters(null, null, filters.search(), null, null, null, filters.size(), false);
+        List<ProductFacetRow> rows = productRepository.findFacetRows(
+                ProductSpecification.withFilters(base), filters.minPrice(), filters.maxPrice());
+
+        Set<UUID> categoryScope = categoryScope(filters);
+        long total = 0;
+        Map<ProductType, Long> types = new EnumMap<>(ProductType.class);
+        Map<UUID, Long> categories = new HashMap<>();
+        Map<UUID, String> categoryNames = new HashMap<>();
+        Map<ProductPriceBucket, Long> buckets = new EnumMap<>(ProductPriceBucket.class);
+        Map<Boolean, Long> availability = new HashMap<>();
+
+        for (ProductFacetRow row : rows) {
+            boolean type      = filters.type() == null || filters.type() == row.type();
+            boolean category  = categoryScope == null || categoryScope.contains(row.categoryId());
+            boolean available = filters.available() == null || filters.available().equals(row.isAvailable());
+            boolean price     = row.inPriceRange();
+            long count = row.count();
+
+            if (type && category && available && price) total += count;
+            if (category && available && price) types.merge(row.type(), count, Long::sum);
+            if (type && available && price && row.categoryName() != null) {
+                categories.merge(row.categoryId(), count, Long::sum);
+                categoryNames.put(row.categoryId(), row.categoryName());
+            }
+            if (type && category && available && row.priceBucket() != null) {
+                buckets.merge(row.priceBucket(), count, Long::sum);
+            }
+            if (type && category && price && row.isAvailable() != null) {
+                availability.merge(row.isAvailable(), count, Long::sum);
+            }
+        }
+
+        List<ProductFacetsResponse.FacetCount> typeCounts = new ArrayList<>();
+        for (ProductType t : ProductType.values()) {
+            typeCounts.add(new ProductFacetsResponse.FacetCount(
+                    t.name(), t.name(), types.getOrDefault(t, 0L)));
+        }
+
+        List<ProductFacetsResponse.FacetCount> categoryCounts = categories.entrySet().stream()
+                .map(e -> new ProductFacetsResponse.FacetCount(
+                        e.getKey().toString(), categoryNames.get(e.getKey()), e.getValue()))
+                .sorted(Comparator.comparing(ProductFacetsResponse.FacetCount::label,
+                        String.CASE_INSENSITIVE_ORDER))
+                .toList();
+
+        List<ProductFacetsResponse.PriceBucketCount> bucketCounts = new ArrayList<>();
+        for (ProductPriceBucket b : ProductPriceBucket.values()) {
+            bucketCounts.add(new ProductFacetsResponse.PriceBucketCount(
+                    b.name(), b.min(), b.max(), buckets.getOrDefault(b, 0L)));
+        }
+
+        List<ProductFacetsResponse.FacetCount> availabilityCounts = List.of(
+                new ProductFacetsResponse.FacetCount("true", "Available",
+                        availability.getOrDefault(true, 0L)),
+                new ProductFacetsResponse.FacetCount("false", "Unavailable",
+                        availability.getOrDefault(false, 0L)));
+
+        return new ProductFacetsResponse(total, typeCounts, categoryCounts, bucketCounts, availabilityCounts);
+    }
+
+    // Served from memory — no query per keystroke
+    @Override
+    public List<ProductSuggestion> suggestProducts(String query, int limit) {
+        return productSuggestIndex.suggest(query, limit);
+    }
+
+    // Two indexed reads: the precomputed id list, then the listing rows for it.
+    // Products deactivated since the last run simply drop out.
+    @Override
+    public List<ProductSummaryResponse> getSimilarProducts(UUID id) {
+        List<UUID> ids = productRepository.findSimilarIds(id);
+        if (ids.isEmpty()) return List.of();
+
+        Map<UUID, ProductSummaryRow> rows = new HashMap<>();
+        productRepository.findSummaries(ProductSpecification.activeWithIds(ids), Sort.unsorted(), ids.size())
+                .forEach(row -> rows.put(row.id(), row));
+
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(this::toSummary)
+                .toList();
+    }
+
     @Override
     public ProductDetailResponse getProductById(UUID id) {
-        return toDetail(findActiveById(id));
+        return productDetailCache.getById(id, key -> toDetail(findActiveById(key)));
     }
 
     @Override
     public ProductDetailResponse getProductBySlug(String slug) {
-        Product product = productRepository.findBySlugAndIsActiveTrue(slug)
+        return productDetailCache.getBySlug(slug, key -> toDetail(
+                productRepository.findBySlugAndIsActiveTrue(key)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + key))));
+    }
+
+    @Override
+    public String getProductETag(UUID id) {
+        return productRepository.findVersionById(id)
+                .map(ProductVersion::etag)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + id));
+    }
+
+    @Override
+    public String getProductETagBySlug(String slug) {
+        return productRepository.findVersionBySlug(slug)
+                .map(ProductVersion::etag)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + slug));
-        return toDetail(product);
     }
 
     @Override
     @Transactional
     public ProductDetailResponse createProduct(CreateProductRequest request) {
-        if (productRepository.existsBySlug(slugify(request.name()))) {
+        if (productRepository.existsBySlug(ProductSlugs.slugify(request.name()))) {
             throw new ConflictException("A product with this name already exists");
         }
 
@@ -74,21 +235,23 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = Product.builder()
                 .name(request.name())
-                .slug(slugify(request.name()))
+                .slug(ProductSlugs.slugify(request.name()))
                 .description(request.description())
                 .type(request.type())
                 .category(category)
                 .rentalPrice(request.rentalPrice())
                 .purchasePrice(request.purchasePrice())
                 .stock(request.stock())
-                .sizes(toJson(request.sizes()))
+                .sizes(ProductSizes.clean(request.sizes()))
                 .isAvailable(true)
                 .images(new ArrayList<>())
                 .build();
 
         Product saved = productRepository.save(product);
         attachImages(saved, request.imageUrls());
-        return toDetail(productRepository.save(saved));
+        saved = productRepository.save(saved);
+        eventPublisher.publishEvent(ProductChangedEvent.of(saved.getId()));
+        return toDetail(saved);
     }
 
     @Override
@@ -98,7 +261,7 @@ public class ProductServiceImpl implements ProductService {
 
         if (request.name() != null) {
             product.setName(request.name());
-            product.setSlug(slugify(request.name()));
+            product.setSlug(ProductSlugs.slugify(request.name()));
         }
         if (request.description()  != null) product.setDescription(request.description());
         if (request.type()         != null) product.setType(request.type());
@@ -106,7 +269,7 @@ public class ProductServiceImpl implements ProductService {
         if (request.purchasePrice() != null) product.setPurchasePrice(request.purchasePrice());
         if (request.stock()        != null) product.setStock(request.stock());
         if (request.isAvailable()  != null) product.setIsAvailable(request.isAvailable());
-        if (request.sizes()        != null) product.setSizes(toJson(request.sizes()));
+        if (request.sizes()        != null) product.setSizes(ProductSizes.clean(request.sizes()));
 
         if (request.categoryId() != null) {
             Category category = categoryRepository.findByIdAndIsActiveTrue(request.categoryId())
@@ -118,9 +281,13 @@ public class ProductServiceImpl implements ProductService {
         if (request.imageUrls() != null) {
             product.getImages().clear();
             attachImages(product, request.imageUrls());
+            // Images are the inverse side — touch the product so its version moves
+            product.setUpdatedAt(LocalDateTime.now());
         }
 
-        return toDetail(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
+        return toDetail(saved);
     }
 
     @Override
@@ -129,6 +296,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = findActiveById(id);
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
     }
 
     @Override
@@ -136,13 +304,15 @@ public class ProductServiceImpl implements ProductService {
     public ProductDetailResponse updateStock(UUID id, int quantity) {
         Product product = findActiveById(id);
         product.setStock(quantity);
-        return toDetail(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
+        return toDetail(saved);
     }
 
     @Override
     @Transactional
     public void deleteProductImage(UUID productId, UUID imageId) {
-        findActiveById(productId);
+        Product product = findActiveById(productId);
 
         ProductImage image = productImageRepository.findByIdAndIsActiveTrue(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Image not found: " + imageId));
@@ -153,6 +323,11 @@ public class ProductServiceImpl implements ProductService {
 
         image.setIsActive(false);
         productImageRepository.save(image);
+
+        // The detail response lists images — bump the product version (ETag)
+        product.setUpdatedAt(LocalDateTime.now());
+        productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
     }
 
     // ── NEW: get all deleted (inactive) products ──────────────────────────────
@@ -173,7 +348,9 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Deleted product not found: " + id));
         product.setIsActive(true);
-        return toDetail(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
+        return toDetail(saved);
     }
 
     // ── private helpers ───────────────────────────────────────────────────────
@@ -197,30 +374,18 @@ public class ProductServiceImpl implements ProductService {
         });
     }
 
-    private String slugify(String name) {
-        return name.toLowerCase()
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .replaceAll("\\s+", "-")
-                .replaceAll("-+", "-")
-                .trim();
+    // The selected category, or with includeSubcategories its whole subtree
+    // from the in-memory category tree. null when no category is selected.
+    private Set<UUID> categoryScope(ProductFilters filters) {
+        if (filters.categoryId() == null) return null;
+        return filters.includeSubcategories()
+                ? categoryTreeCache.current().descendantIds(filters.categoryId())
+                : Set.of(filters.categoryId());
     }
 
-    private String toJson(List<String> sizes) {
-        if (sizes == null || sizes.isEmpty()) return "[]";
-        try {
-            return objectMapper.writeValueAsString(sizes);
-        } catch (JsonProcessingException e) {
-            return "[]";
-        }
-    }
-
-    private List<String> fromJson(String json) {
-        if (json == null || json.isBlank()) return Collections.emptyList();
-        try {
-            return objectMapper.readValue(json, new TypeReference<>() {});
-        } catch (JsonProcessingException e) {
-            return Collections.emptyList();
-        }
+    // Denormalised on products by review moderation — null until the first approved review
+    private Double toAverage(BigDecimal ratingAvg) {
+        return ratingAvg == null ? null : ratingAvg.doubleValue();
     }
 
     private ProductSummaryResponse toSummary(Product p) {
@@ -237,7 +402,20 @@ public class ProductServiceImpl implements ProductService {
                 p.getId(), p.getName(), p.getSlug(), p.getType(),
                 p.getRentalPrice(), p.getPurchasePrice(),
                 p.getStock(), p.getIsAvailable(),
-                firstImage, null, categoryInfo
+                firstImage, toAverage(p.getRatingAvg()), categoryInfo
+        );
+    }
+
+    private ProductSummaryResponse toSummary(ProductSummaryRow row) {
+        ProductSummaryResponse.CategoryInfo categoryInfo = row.categoryId() != null
+                ? new ProductSummaryResponse.CategoryInfo(row.categoryId(), row.categoryName())
+                : null;
+
+        return new ProductSummaryResponse(
+                row.id(), row.name(), row.slug(), row.type(),
+                row.rentalPrice(), row.purchasePrice(),
+                row.stock(), row.isAvailable(),
+                row.firstImageUrl(), toAverage(row.ratingAvg()), categoryInfo
         );
     }
 
@@ -259,8 +437,8 @@ public class ProductServiceImpl implements ProductService {
                 p.getId(), p.getName(), p.getSlug(), p.getDescription(), p.getType(),
                 p.getRentalPrice(), p.getPurchasePrice(),
                 p.getStock(), p.getIsAvailable(),
-                fromJson(p.getSizes()), images,
-                null, categoryInfo,
+                p.getSizes() == null ? Collections.emptyList() : p.getSizes(), images,
+                toAverage(p.getRatingAvg()), categoryInfo,
                 p.getCreatedAt(), p.getUpdatedAt()
         );
     }
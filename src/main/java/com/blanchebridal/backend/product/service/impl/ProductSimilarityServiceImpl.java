@@ -0,0 +1,107 @@
+package com.blanchebridal.backend.product.service.impl;
+
+import com.blanchebridal.backend.product.entity.ProductType;
+import com.blanchebridal.backend.product.service.ProductSimilarityService;
+import com.blanchebridal.backend.product.util.ProductSimilarity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds the product_similarities table from product attributes and order
+ * history. Reads two flat result sets, scores in memory, then replaces the
+ * whole table in one transaction so readers see either the old or the new lists.
+ */
+@Slf4j
+@Service
+public class ProductSimilarityServiceImpl implements ProductSimilarityService {
+
+    static final int TOP_K = 12;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String CANDIDATES_SQL = """
+            SELECT id, type, category_id, effective_price, upper_text_array(sizes) AS sizes
+            FROM products
+            WHERE is_active
+            """;
+
+    // Each unordered pair once (a < b), counting orders rather than items
+    private static final String CO_PURCHASES_SQL = """
+            SELECT a.product_id AS a_id, b.product_id AS b_id, COUNT(DISTINCT a.order_id) AS orders
+            FROM order_items a
+            JOIN order_items b ON b.order_id = a.order_id AND b.product_id > a.product_id
+            JOIN orders o      ON o.id = a.order_id
+            WHERE o.status <> 'CANCELLED'
+            GROUP BY a.product_id, b.product_id
+            """;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_similarities (product_id, rank, similar_id, score) VALUES (?, ?, ?, ?)";
+
+    private record Row(UUID productId, int rank, UUID similarId, double score) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductSimilarityServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public int recomputeSimilarities() {
+        List<ProductSimilarity.Candidate> candidates = jdbcTemplate.query(CANDIDATES_SQL, (rs, i) ->
+                new ProductSimilarity.Candidate(
+                        rs.getObject("id", UUID.class),
+                        ProductType.valueOf(rs.getString("type")),
+                        rs.getObject("category_id", UUID.class),
+                        rs.getBigDecimal("effective_price"),
+                        toSizes(rs.getArray("sizes"))));
+
+        List<ProductSimilarity.CoPurchase> coPurchases = jdbcTemplate.query(CO_PURCHASES_SQL, (rs, i) ->
+                new ProductSimilarity.CoPurchase(
+                        rs.getObject("a_id", UUID.class),
+                        rs.getObject("b_id", UUID.class),
+                        rs.getInt("orders")));
+
+        Map<UUID, List<ProductSimilarity.Match>> similar =
+                ProductSimilarity.topK(candidates, coPurchases, TOP_K);
+
+        List<Row> rows = new ArrayList<>();
+        similar.forEach((productId, matches) -> {
+            for (int rank = 0; rank < matches.size(); rank++) {
+                ProductSimilarity.Match m = matches.get(rank);
+                rows.add(new Row(productId, rank, m.id(), m.score()));
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM product_similarities");
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+                ps.setObject(1, row.productId());
+                ps.setShort(2, (short) row.rank());
+                ps.setObject(3, row.similarId());
+                ps.setFloat(4, (float) row.score());
+            });
+        });
+
+        log.info("[Product] Similar products recomputed → {} products, {} links", similar.size(), rows.size());
+        return similar.size();
+    }
+
+    private static Set<String> toSizes(Array array) throws SQLException {
+        if (array == null) return Set.of();
+        return Set.copyOf(Arrays.asList((String[]) array.getArray()));
+    }
+}
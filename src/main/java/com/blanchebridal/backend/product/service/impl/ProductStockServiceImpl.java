@@ -0,0 +1,83 @@
+package com.blanchebridal.backend.product.service.impl;
+
+import com.blanchebridal.backend.product.dto.StockDeduction;
+import com.blanchebridal.backend.product.service.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Conditional, set-based stock decrements. Each product row is updated only
+ * if it still has enough stock, so concurrent deductions can neither lose an
+ * update nor oversell — whichever commits second sees the first one's result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductStockServiceImpl implements ProductStockService {
+
+    // Locks the rows in id order first, so two multi-item deductions that
+    // share products always queue instead of deadlocking
+    private static final String LOCK_SQL =
+            "SELECT id FROM products WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    // Bumps version so detail ETags move with the stock
+    private static final String DEDUCT_SQL = """
+            UPDATE products p
+            SET stock      = p.stock - w.qty,
+                version    = p.version + 1,
+                updated_at = NOW()
+            FROM unnest(?::uuid[], ?::int[]) AS w(id, qty)
+            WHERE p.id = w.id
+              AND p.stock >= w.qty
+            RETURNING p.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public StockDeduction deductStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> wanted = new LinkedHashMap<>();
+        quantities.forEach((id, qty) -> {
+            if (id != null && qty != null && qty > 0) wanted.merge(id, qty, Integer::sum);
+        });
+        if (wanted.isEmpty()) return new StockDeduction(Set.of(), Map.of());
+
+        UUID[] ids = wanted.keySet().toArray(new UUID[0]);
+        Integer[] qtys = wanted.values().toArray(new Integer[0]);
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        }, (rs, i) -> rs.getObject(1, UUID.class));
+
+        List<UUID> updated = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DEDUCT_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setArray(2, con.createArrayOf("integer", qtys));
+            return ps;
+        }, (rs, i) -> rs.getObject(1, UUID.class));
+
+        Set<UUID> deducted = new HashSet<>(updated);
+        Map<UUID, Integer> oversold = new LinkedHashMap<>();
+        wanted.forEach((id, qty) -> {
+            if (!deducted.contains(id)) oversold.put(id, qty);
+        });
+
+        log.info("[Stock] Deducted {} product(s), oversold {}", deducted.size(), oversold.size());
+        return new StockDeduction(Set.copyOf(deducted), Map.copyOf(oversold));
+    }
+}
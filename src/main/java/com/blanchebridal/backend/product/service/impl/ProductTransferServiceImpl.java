@@ -0,0 +1,436 @@
+package com.blanchebridal.backend.product.service.impl;
+
+import com.blanchebridal.backend.product.dto.ProductTransferFormat;
+import com.blanchebridal.backend.product.dto.ProductTransferRow;
+import com.blanchebridal.backend.product.dto.res.ProductImportResult;
+import com.blanchebridal.backend.product.entity.Category;
+import com.blanchebridal.backend.product.entity.ProductType;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
+import com.blanchebridal.backend.product.repository.CategoryRepository;
+import com.blanchebridal.backend.product.service.ProductTransferService;
+import com.blanchebridal.backend.product.util.ProductSizes;
+import com.blanchebridal.backend.product.util.ProductSlugs;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk product import / export.
+ *
+ * Import streams the upload row by row, validates each row in memory, and
+ * upserts products (keyed by slug) plus their images in JDBC batches, one
+ * transaction per batch. If a batch fails, its rows are retried one at a time
+ * so a single bad row is reported instead of sinking its neighbours.
+ * An imported row replaces the stored product, except that is_active is only
+ * written when the file has that column (new products default to active).
+ * Images are only touched when the row lists imageUrls, and then diffed:
+ * listed URLs are kept (re-ordered) or added, unlisted ones deactivated.
+ *
+ * Export streams active products through a server-side cursor inside a
+ * read-only transaction, so the table is never held in memory.
+ */
+@Slf4j
+@Service
+public class ProductTransferServiceImpl implements ProductTransferService {
+
+    static final int BATCH_SIZE = 500;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String UPSERT_PRODUCT_SQL = """
+            INSERT INTO products (name, slug, description, type, category_id, rental_price,
+                                  purchase_price, stock, sizes, is_available, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, TRUE))
+            ON CONFLICT (slug) DO UPDATE SET
+                name           = EXCLUDED.name,
+                description    = EXCLUDED.description,
+                type           = EXCLUDED.type,
+                category_id    = EXCLUDED.category_id,
+                rental_price   = EXCLUDED.rental_price,
+                purchase_price = EXCLUDED.purchase_price,
+                stock          = EXCLUDED.stock,
+                sizes          = EXCLUDED.sizes,
+                is_available   = EXCLUDED.is_available,
+                is_active      = COALESCE(?, products.is_active),
+                version        = products.version + 1,
+                updated_at     = NOW()
+            """;
+
+    private static final String SELECT_IDS_BY_SLUG_SQL =
+            "SELECT id, slug FROM products WHERE slug = ANY(?)";
+
+    // One statement per batch; all three parts see the images as they were
+    // before it, so each existing row is either kept or deactivated, never both
+    private static final String SYNC_IMAGES_SQL = """
+            WITH wanted AS (
+                SELECT * FROM unnest(?::uuid[], ?::text[], ?::int[]) AS w(product_id, url, display_order)
+            ), retired AS (
+                UPDATE product_images i SET is_active = FALSE
+                 WHERE i.product_id IN (SELECT product_id FROM wanted)
+                   AND i.is_active
+                   AND NOT EXISTS (SELECT 1 FROM wanted w WHERE w.product_id = i.product_id AND w.url = i.url)
+            ), kept AS (
+                UPDATE product_images i SET display_order = w.display_order, is_active = TRUE
+                  FROM wanted w
+                 WHERE i.product_id = w.product_id AND i.url = w.url
+                   AND (i.display_order, i.is_active) IS DISTINCT FROM (w.display_order, TRUE)
+            )
+            INSERT INTO product_images (product_id, url, display_order, is_active)
+            SELECT w.product_id, w.url, w.display_order, TRUE
+              FROM wanted w
+             WHERE NOT EXISTS (SELECT 1 FROM product_images i WHERE i.product_id = w.product_id AND i.url = w.url)
+            """;
+
+    private static final String EXPORT_SQL = """
+            SELECT p.name, p.slug, p.description, p.type, c.slug AS category_slug,
+                   p.rental_price, p.purchase_price, p.stock, p.sizes, p.is_available, p.is_active,
+                   ARRAY(SELECT i.url FROM product_images i
+                          WHERE i.product_id = p.id AND i.is_active
+                          ORDER BY i.display_order, i.id) AS image_urls
+              FROM products p
+              LEFT JOIN categories c ON c.id = p.category_id
+             WHERE p.is_active
+             ORDER BY p.slug
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTx;
+    private final TransactionTemplate exportTx;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(CsvParser.Feature.FAIL_ON_MISSING_HEADER_COLUMNS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final CsvSchema csvSchema = csvMapper.schemaFor(ProductTransferRow.class)
+            .withHeader()
+            .withColumnReordering(true)
+            .withArrayElementSeparator("|");
+
+    public ProductTransferServiceImpl(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      CategoryRepository categoryRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      ObjectMapper objectMapper) {
+        this.jdbcTemplate       = jdbcTemplate;
+        this.batchTx            = new TransactionTemplate(transactionManager);
+        this.exportTx           = new TransactionTemplate(transactionManager);
+        this.exportTx.setReadOnly(true);
+        this.categoryRepository = categoryRepository;
+        this.eventPublisher     = eventPublisher;
+        this.objectMapper       = objectMapper;
+    }
+
+    // ── Import ────────────────────────────────────────────────────────────────
+
+    @Override
+    public ProductImportResult importProducts(InputStream in, ProductTransferFormat format) throws IOException {
+        ImportRun run = new ImportRun(activeCategoryIdsBySlug());
+
+        if (format == ProductTransferFormat.CSV) {
+            readCsv(in, run);
+        } else {
+            readNdjson(in, run);
+        }
+        run.flush();
+
+        if (run.imported > 0) {
+            eventPublisher.publishEvent(ProductChangedEvent.all());
+        }
+        log.info("[Import] {} rows processed, {} products written, {} failed",
+                run.processed, run.imported, run.failed);
+        return run.result();
+    }
+
+    private void readCsv(InputStream in, ImportRun run) throws IOException {
+        try (MappingIterator<ProductTransferRow> rows = csvMapper
+                .readerFor(ProductTransferRow.class)
+                .with(csvSchema)
+                .readValues(in)) {
+            long row = 0;
+            while (true) {
+                try {
+                    if (!rows.hasNextValue()) break;
+                } catch (IOException e) {
+                    // Structural damage (e.g. an unclosed quote) — nothing after it is trustworthy
+                    run.fail(row + 1, null, "Unreadable CSV, import stopped: " + originalMessage(e));
+                    break;
+                }
+                row++;
+                try {
+                    run.accept(row, rows.nextValue());
+                } catch (JsonProcessingException e) {
+                    run.fail(row, null, originalMessage(e));
+                }
+            }
+        }
+    }
+
+    private void readNdjson(InputStream in, ImportRun run) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(ProductTransferRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            long row = 0;
+            while ((line = lines.readLine()) != null) {
+                row++;
+                if (line.isBlank()) continue;
+                try {
+                    run.accept(row, reader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    run.fail(row, null, originalMessage(e));
+                }
+            }
+        }
+    }
+
+    private Map<String, UUID> activeCategoryIdsBySlug() {
+        Map<String, UUID> ids = new HashMap<>();
+        for (Category category : categoryRepository.findAllByIsActiveTrue()) {
+            ids.put(category.getSlug(), category.getId());
+        }
+        return ids;
+    }
+
+    private record PendingRow(long row, String slug, String name, String description, ProductType type,
+                              UUID categoryId, BigDecimal rentalPrice, BigDecimal purchasePrice,
+                              int stock, List<String> sizes, List<String> imageUrls, boolean available,
+                              Boolean active) {}
+
+    // Mutable state of one import: counters, the pending batch, reported errors
+    private final class ImportRun {
+
+        private final Map<String, UUID> categoryIds;
+        private final Map<String, PendingRow> batch = new LinkedHashMap<>();
+        private final List<ProductImportResult.RowError> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private ImportRun(Map<String, UUID> categoryIds) {
+            this.categoryIds = categoryIds;
+        }
+
+        void accept(long row, ProductTransferRow r) {
+            processed++;
+
+            String name = r.name() == null ? "" : r.name().trim();
+            String slug = ProductSlugs.slugify(r.slug() != null && !r.slug().isBlank() ? r.slug() : name);
+
+            if (name.isEmpty())                 { fail(row, r.slug(), "name is required"); return; }
+            if (slug.isEmpty())                 { fail(row, r.slug(), "name does not produce a valid slug"); return; }
+            if (r.type() == null)               { fail(row, slug, "type is required (DRESS or ACCESSORY)"); return; }
+            if (r.stock() == null || r.stock() < 0) { fail(row, slug, "stock must be zero or more"); return; }
+            if (isNegative(r.rentalPrice()) || isNegative(r.purchasePrice())) {
+                fail(row, slug, "prices must not be negative");
+                return;
+            }
+
+            UUID categoryId = null;
+            if (r.categorySlug() != null && !r.categorySlug().isBlank()) {
+                categoryId = categoryIds.get(r.categorySlug().trim());
+                if (categoryId == null) {
+                    fail(row, slug, "Unknown or inactive category: " + r.categorySlug());
+                    return;
+                }
+            }
+
+            List<String> imageUrls = r.imageUrls() == null ? List.of() : r.imageUrls().stream()
+                    .filter(url -> url != null && !url.isBlank())
+                    .map(String::trim)
+                    .distinct()
+                    .toList();
+
+            // A slug repeated within the batch is written once — the last row wins
+            batch.remove(slug);
+            batch.put(slug, new PendingRow(row, slug, name, r.description(), r.type(), categoryId,
+                    r.rentalPrice(), r.purchasePrice(), r.stock(), ProductSizes.clean(r.sizes()),
+                    imageUrls, r.isAvailable() == null || r.isAvailable(), r.isActive()));
+
+            if (batch.size() >= BATCH_SIZE) flush();
+        }
+
+        void fail(long row, String slug, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportResult.RowError(row, slug, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            List<PendingRow> rows = List.copyOf(batch.values());
+            batch.clear();
+
+            try {
+                batchTx.executeWithoutResult(status -> write(rows));
+                imported += rows.size();
+            } catch (DataAccessException e) {
+                log.warn("[Import] Batch of {} rows failed ({}), retrying rows individually",
+                        rows.size(), e.getMostSpecificCause().getMessage());
+                for (PendingRow row : rows) {
+                    try {
+                        batchTx.executeWithoutResult(status -> write(List.of(row)));
+                        imported++;
+                    } catch (DataAccessException rowError) {
+                        fail(row.row(), row.slug(), rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        ProductImportResult result() {
+            return new ProductImportResult(processed, imported, failed, List.copyOf(errors));
+        }
+    }
+
+    // Upserts the products, then syncs images for rows that list any
+    private void write(List<PendingRow> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingRow r = rows.get(i);
+                ps.setString(1, r.name());
+                ps.setString(2, r.slug());
+                ps.setString(3, r.description());
+                ps.setString(4, r.type().name());
+                ps.setObject(5, r.categoryId(), Types.OTHER);
+                ps.setBigDecimal(6, r.rentalPrice());
+                ps.setBigDecimal(7, r.purchasePrice());
+                ps.setInt(8, r.stock());
+                ps.setArray(9, ps.getConnection().createArrayOf("text", r.sizes().toArray()));
+                ps.setBoolean(10, r.available());
+                ps.setObject(11, r.active(), Types.BOOLEAN);
+                ps.setObject(12, r.active(), Types.BOOLEAN);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+
+        List<PendingRow> withImages = rows.stream().filter(r -> !r.imageUrls().isEmpty()).toList();
+        if (withImages.isEmpty()) return;
+
+        Map<String, UUID> ids = new HashMap<>();
+        jdbcTemplate.query(SELECT_IDS_BY_SLUG_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text",
+                        withImages.stream().map(PendingRow::slug).toArray())),
+                rs -> { ids.put(rs.getString("slug"), rs.getObject("id", UUID.class)); });
+
+        List<UUID> productIds = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        List<Integer> displayOrders = new ArrayList<>();
+        for (PendingRow r : withImages) {
+            for (int order = 0; order < r.imageUrls().size(); order++) {
+                productIds.add(ids.get(r.slug()));
+                urls.add(r.imageUrls().get(order));
+                displayOrders.add(order);
+            }
+        }
+        jdbcTemplate.update(SYNC_IMAGES_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", productIds.toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("text", urls.toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", displayOrders.toArray()));
+        });
+    }
+
+    // ── Export ────────────────────────────────────────────────────────────────
+
+    @Override
+    public void exportProducts(OutputStream out, ProductTransferFormat format) throws IOException {
+        // The response stream belongs to the servlet container — never close it here
+        try (SequenceWriter writer = format == ProductTransferFormat.CSV
+                ? csvMapper.writer(csvSchema).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out)
+                : objectMapper.writer().withRootValueSeparator("\n")
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out)) {
+
+            exportTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL);
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                try {
+                    writer.write(toTransferRow(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ProductTransferRow toTransferRow(ResultSet rs) throws SQLException {
+        return new ProductTransferRow(
+                rs.getString("name"),
+                rs.getString("slug"),
+                rs.getString("description"),
+                ProductType.valueOf(rs.getString("type")),
+                rs.getString("category_slug"),
+                rs.getBigDecimal("rental_price"),
+                rs.getBigDecimal("purchase_price"),
+                rs.getInt("stock"),
+                textArray(rs.getArray("sizes")),
+                textArray(rs.getArray("image_urls")),
+                rs.getBoolean("is_available"),
+                rs.getBoolean("is_active"));
+    }
+
+    // ── private helpers ───────────────────────────────────────────────────────
+
+    private static List<String> textArray(Array array) throws SQLException {
+        return array == null ? List.of() : Arrays.asList((String[]) array.getArray());
+    }
+
+    private static boolean isNegative(BigDecimal value) {
+        return value != null && value.signum() < 0;
+    }
+
+    private static String originalMessage(IOException e) {
+        return e instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : e.getMessage();
+    }
+}
@@ -7,12 +7,14 @@ import com.blanchebridal.backend.product.dto.res.ReviewResponse;
 import com.blanchebridal.backend.product.dto.res.ReviewStatsResponse;
 import com.blanchebridal.backend.product.entity.Review;
 import com.blanchebridal.backend.product.entity.ReviewStatus;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
 import com.blanchebridal.backend.product.repository.ProductRepository;
 import com.blanchebridal.backend.product.repository.ReviewRepository;
 import com.blanchebridal.backend.product.service.ReviewService;
 import com.blanchebridal.backend.user.entity.User;
 import com.blanchebridal.backend.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ReviewResponse> getApprovedReviews(UUID productId) {
@@ -66,17 +69,13 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     @Transactional
     public ReviewResponse approveReview(UUID reviewId) {
-        Review review = findReviewById(reviewId);
-        review.setStatus(ReviewStatus.APPROVED);
-        return toResponse(reviewRepository.save(review));
+        return moderate(reviewId, ReviewStatus.APPROVED);
     }
 
     @Override
     @Transactional
     public ReviewResponse rejectReview(UUID reviewId) {
-        Review review = findReviewById(reviewId);
-        review.setStatus(ReviewStatus.REJECTED);
-        return toResponse(reviewRepository.save(review));
+        return moderate(reviewId, ReviewStatus.REJECTED);
     }
 
     @Override
@@ -110,6 +109,33 @@ public class ReviewServiceImpl implements ReviewService {
 
     // ─── Helpers
 
+    // Moves a review to its new status and keeps the product's rating totals in
+    // step. Only a move into or out of APPROVED touches the totals, and the
+    // compare-and-set on status means two moderators can never count it twice.
+    private ReviewResponse moderate(UUID reviewId, ReviewStatus target) {
+        Review review = findReviewById(reviewId);
+        ReviewStatus previous = review.getStatus();
+        if (previous == target) {
+            return toResponse(review);
+        }
+
+        if (reviewRepository.updateStatus(reviewId, previous, target) == 0) {
+            throw new ConflictException("Review was moderated by someone else, please refresh: " + reviewId);
+        }
+        review.setStatus(target);
+
+        int countDelta = target == ReviewStatus.APPROVED ? 1
+                : previous == ReviewStatus.APPROVED ? -1
+                : 0;
+        if (countDelta != 0) {
+            UUID productId = review.getProduct().getId();
+            productRepository.adjustRating(productId, (long) countDelta * review.getRating(), countDelta);
+            eventPublisher.publishEvent(ProductChangedEvent.of(productId));
+        }
+
+        return toResponse(review);
+    }
+
     private Review findReviewById(UUID id) {
         return reviewRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found: " + id));
@@ -0,0 +1,251 @@
+package com.blanchebridal.backend.product.service.impl;
+
+import com.blanchebridal.backend.product.service.StockReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reservation ledger backed by the stock_reservations table (V24), with the
+ * per-product ACTIVE totals mirrored in memory so availability is a map
+ * lookup instead of a SUM over the table.
+ *
+ * Check-and-hold is guarded by a fixed set of lock stripes keyed by product
+ * id; a multi-item order takes its stripes in ascending order, so two orders
+ * sharing products queue instead of deadlocking. Counters move as soon as a
+ * hold is taken and are put back if the transaction rolls back; releases and
+ * conversions only take effect in memory after commit.
+ *
+ * The counters are per JVM — with more than one instance each one must be
+ * pinned to its own share of checkout traffic, or this needs a shared store.
+ */
+@Slf4j
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    // Matches OrderScheduler's PENDING timeout — a hold lives as long as an unpaid order
+    static final Duration HOLD = Duration.ofMinutes(30);
+
+    private static final int STRIPES = 64;
+
+    private static final String LOAD_SQL = """
+            SELECT product_id, SUM(quantity)
+            FROM stock_reservations
+            WHERE status = 'ACTIVE'
+            GROUP BY product_id
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO stock_reservations (order_id, product_id, quantity, expires_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String CLOSE_ORDER_SQL = """
+            UPDATE stock_reservations
+            SET status = ?, closed_at = NOW()
+            WHERE order_id = ANY(?) AND status = 'ACTIVE'
+            RETURNING product_id, quantity
+            """;
+
+    private static final String RELEASE_EXPIRED_SQL = """
+            UPDATE stock_reservations
+            SET status = 'RELEASED', closed_at = NOW()
+            WHERE status = 'ACTIVE' AND expires_at < NOW()
+            RETURNING product_id, quantity
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<UUID, AtomicInteger> reserved = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public StockReservationServiceImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    @Override
+    public int availableStock(UUID productId, int stock) {
+        ensureLoaded();
+        return stock - reservedOf(productId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<UUID> reserve(UUID orderId, Map<UUID, Integer> quantities, Map<UUID, Integer> stockLevels) {
+        Map<UUID, Integer> wanted = new LinkedHashMap<>();
+        quantities.forEach((id, qty) -> {
+            if (id != null && qty != null && qty > 0) wanted.merge(id, qty, Integer::sum);
+        });
+        if (wanted.isEmpty()) return Set.of();
+        ensureLoaded();
+
+        List<ReentrantLock> held = lockStripes(wanted.keySet());
+        try {
+            Set<UUID> shortfall = new HashSet<>();
+            wanted.forEach((id, qty) -> {
+                if (stockLevels.getOrDefault(id, 0) - reservedOf(id) < qty) shortfall.add(id);
+            });
+            if (!shortfall.isEmpty()) return Set.copyOf(shortfall);
+
+            wanted.forEach((id, qty) -> counter(id).addAndGet(qty));
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) held.get(i).unlock();
+        }
+
+        // Registered before the insert so a failed write also hands the units back
+        onRollback(() -> adjust(wanted, -1));
+
+        Timestamp expiresAt = Timestamp.valueOf(LocalDateTime.now().plus(HOLD));
+        List<Object[]> rows = new ArrayList<>(wanted.size());
+        wanted.forEach((id, qty) -> rows.add(new Object[]{orderId, id, qty, expiresAt}));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        log.info("[Stock] Reserved {} product(s) for order {}", wanted.size(), orderId);
+        return Set.of();
+    }
+
+    @Override
+    @Transactional
+    public void release(UUID orderId) {
+        closeOrders(List.of(orderId), "RELEASED");
+    }
+
+    @Override
+    @Transactional
+    public void release(Collection<UUID> orderIds) {
+        if (!orderIds.isEmpty()) closeOrders(orderIds, "RELEASED");
+    }
+
+    @Override
+    @Transactional
+    public void convert(UUID orderId) {
+        closeOrders(List.of(orderId), "CONVERTED");
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpired() {
+        ensureLoaded();
+        Map<UUID, Integer> closed = collect(jdbcTemplate.query(RELEASE_EXPIRED_SQL, this::toHold));
+        if (!closed.isEmpty()) {
+            log.info("[Stock] Released expired holds on {} product(s)", closed.size());
+        }
+        return closed.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────
+
+    private void closeOrders(Collection<UUID> orderIds, String status) {
+        // Seeded before the UPDATE, so the holds it closes are in the counters
+        // it is about to decrement — otherwise a release right after a restart
+        // would push them below the seeded ACTIVE totals
+        ensureLoaded();
+        UUID[] ids = orderIds.toArray(new UUID[0]);
+        Map<UUID, Integer> closed = collect(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CLOSE_ORDER_SQL);
+            ps.setString(1, status);
+            ps.setArray(2, con.createArrayOf("uuid", ids));
+            return ps;
+        }, this::toHold));
+        if (!closed.isEmpty()) {
+            log.info("[Stock] {} holds on {} product(s) for {} order(s)", status, closed.size(), ids.length);
+        }
+    }
+
+    private Map.Entry<UUID, Integer> toHold(ResultSet rs, int rowNum) throws SQLException {
+        return Map.entry(rs.getObject(1, UUID.class), rs.getInt(2));
+    }
+
+    // Counters drop only once the status change is committed
+    private Map<UUID, Integer> collect(List<Map.Entry<UUID, Integer>> holds) {
+        Map<UUID, Integer> closed = new LinkedHashMap<>();
+        holds.forEach(h -> closed.merge(h.getKey(), h.getValue(), Integer::sum));
+        if (!closed.isEmpty()) afterCommit(() -> adjust(closed, -1));
+        return closed;
+    }
+
+    private void adjust(Map<UUID, Integer> quantities, int sign) {
+        quantities.forEach((id, qty) -> counter(id).addAndGet(sign * qty));
+    }
+
+    private int reservedOf(UUID productId) {
+        AtomicInteger count = reserved.get(productId);
+        return count == null ? 0 : Math.max(count.get(), 0);
+    }
+
+    private AtomicInteger counter(UUID productId) {
+        return reserved.computeIfAbsent(productId, id -> new AtomicInteger());
+    }
+
+    private List<ReentrantLock> lockStripes(Set<UUID> productIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        productIds.forEach(id -> indexes.add(Math.floorMod(id.hashCode(), STRIPES)));
+
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            stripes[index].lock();
+            held.add(stripes[index]);
+        }
+        return held;
+    }
+
+    // Seeds the counters from the table on first use, so a restart picks up
+    // holds taken before it. Every path that moves a counter calls this first.
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                counter(rs.getObject(1, UUID.class)).addAndGet(rs.getInt(2));
+            });
+            loaded = true;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) action.run();
+            }
+        });
+    }
+}
@@ -1,16 +1,37 @@
 package com.blanchebridal.backend.product.spec;
 
+import com.blanchebridal.backend.product.dto.ProductCursor;
 import com.blanchebridal.backend.product.dto.ProductFilters;
 import com.blanchebridal.backend.product.entity.Product;
+import com.blanchebridal.backend.product.util.ProductSizes;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class ProductSpecification {
 
+    // Cap on search terms so a pasted paragraph cannot build a huge tsquery
+    private static final int MAX_SEARCH_TERMS = 8;
+
     public static Specification<Product> withFilters(ProductFilters filters) {
+        return withFilters(filters, filters.categoryId() == null ? null : Set.of(filters.categoryId()));
+    }
+
+    /**
+     * Same as {@link #withFilters(ProductFilters)}, but matches any of the given
+     * category ids — the caller resolves the selected category's subtree.
+     */
+    public static Specification<Product> withFilters(ProductFilters filters, Set<UUID> categoryIds) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -19,32 +40,108 @@ public class ProductSpecification {
             if (filters.type() != null) {
                 predicates.add(cb.equal(root.get("type"), filters.type()));
             }
-            if (filters.categoryId() != null) {
-                predicates.add(cb.equal(root.get("category").get("id"), filters.categoryId()));
+            if (categoryIds != null && categoryIds.size() == 1) {
+                predicates.add(cb.equal(root.get("category").get("id"), categoryIds.iterator().next()));
+            } else if (categoryIds != null) {
+                predicates.add(root.get("category").get("id").in(categoryIds));
             }
             if (filters.available() != null) {
                 predicates.add(cb.equal(root.get("isAvailable"), filters.available()));
             }
-            if (filters.minPrice() != null || filters.maxPrice() != null) {
-                jakarta.persistence.criteria.Expression<java.math.BigDecimal> effectivePrice =
-                        cb.coalesce(root.get("rentalPrice"), root.get("purchasePrice"));
+            // Indexed generated column — rental price, else purchase price
+            if (filters.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("effectivePrice"), filters.minPrice()));
+            }
+            if (filters.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("effectivePrice"), filters.maxPrice()));
+            }
 
-                if (filters.minPrice() != null) {
-                    predicates.add(cb.greaterThanOrEqualTo(effectivePrice, filters.minPrice()));
-                }
-                if (filters.maxPrice() != null) {
-                    predicates.add(cb.lessThanOrEqualTo(effectivePrice, filters.maxPrice()));
-                }
+            // upper(sizes) @> ARRAY['M'] — served by the GIN index on products.sizes
+            String size = ProductSizes.normalize(filters.size());
+            if (size != null) {
+                predicates.add(cb.isTrue(cb.function("text_array_has_ignore_case", Boolean.class,
+                        root.get("sizes"), cb.literal(size))));
             }
-            if (filters.search() != null && !filters.search().isBlank()) {
-                String pattern = "%" + filters.search().toLowerCase() + "%";
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("name")), pattern),
-                        cb.like(cb.lower(root.get("description")), pattern)
-                ));
+
+            String tsQuery = toPrefixQuery(filters.search());
+            if (tsQuery != null) {
+                // search_vector is unmapped — fts_match reads it off the row's alias
+                predicates.add(cb.isTrue(cb.function("fts_match", Boolean.class,
+                        root.get("id"), cb.literal(tsQuery))));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
-}
\ No newline at end of file
+
+    public static Specification<Product> activeWithIds(Collection<UUID> ids) {
+        return (root, query, cb) -> cb.and(
+                cb.isTrue(root.get("isActive")),
+                root.get("id").in(ids));
+    }
+
+    /**
+     * Orders results by full-text rank (name matches outrank description
+     * matches), newest first on ties. Adds no predicate, and leaves count
+     * queries unordered.
+     */
+    public static Specification<Product> orderByRelevance(String search) {
+        return (root, query, cb) -> {
+            String tsQuery = toPrefixQuery(search);
+            if (tsQuery != null && !Long.class.equals(query.getResultType())) {
+                Expression<Double> rank = cb.function("fts_rank", Double.class,
+                        root.get("id"), cb.literal(tsQuery));
+                query.orderBy(cb.desc(rank), cb.desc(root.get("createdAt")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Keyset seek: rows strictly after the cursor in (sort key, id) order.
+     * Written as "key >= v AND (key > v OR id > lastId)" rather than a plain
+     * OR so the leading range can use the (key, id) index. Nullable keys sort
+     * NULLS LAST in both directions (see ProductSortField), so the NULL rows
+     * always follow every valued row.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Product> after(ProductCursor cursor) {
+        return (root, query, cb) -> {
+            Path key = root.get(cursor.field().property());
+            Path<UUID> id = root.get("id");
+            Comparable value = cursor.value();
+            boolean asc = cursor.direction().isAscending();
+
+            Predicate idAfter = asc
+                    ? cb.greaterThan(id, cursor.id())
+                    : cb.lessThan(id, cursor.id());
+
+            if (value == null) {
+                return cb.and(cb.isNull(key), idAfter);
+            }
+
+            Predicate seek = asc
+                    ? cb.and(cb.greaterThanOrEqualTo(key, value),
+                             cb.or(cb.greaterThan(key, value), idAfter))
+                    : cb.and(cb.lessThanOrEqualTo(key, value),
+                             cb.or(cb.lessThan(key, value), idAfter));
+
+            return cursor.field().nullable() ? cb.or(seek, cb.isNull(key)) : seek;
+        };
+    }
+
+    // "lace gowns" → "lace:* & gowns:*" — every term must match, each as a prefix.
+    // Anything that is not a letter or digit is dropped so user input can never
+    // inject tsquery operators.
+    public static String toPrefixQuery(String search) {
+        if (search == null || search.isBlank()) return null;
+
+        String joined = Arrays.stream(search.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+
+        return joined.isEmpty() ? null : joined;
+    }
+}
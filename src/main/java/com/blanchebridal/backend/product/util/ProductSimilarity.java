@@ -0,0 +1,113 @@
+package com.blanchebridal.backend.product.util;
+
+import com.blanchebridal.backend.product.entity.ProductType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Scores how alike two products are and keeps the top K per product.
+ *
+ * A pair earns points for a shared category, a shared type, close effective
+ * prices, overlapping sizes and being bought in the same orders. Every pair
+ * is scored once, so the cost is O(n²) — fine for a catalogue of a few
+ * thousand products run as a background job.
+ */
+public final class ProductSimilarity {
+
+    static final double CATEGORY_WEIGHT = 3.0;
+    static final double TYPE_WEIGHT     = 2.0;
+    static final double PRICE_WEIGHT    = 2.0;
+    static final double SIZE_WEIGHT     = 1.5;
+    static final double BOUGHT_WEIGHT   = 2.5;
+
+    // Below this a pair shares little more than the shop it is sold in
+    static final double MIN_SCORE = 1.0;
+
+    private ProductSimilarity() {}
+
+    public record Candidate(UUID id, ProductType type, UUID categoryId, BigDecimal price, Set<String> sizes) {}
+
+    /** Number of non-cancelled orders that contain both products. */
+    public record CoPurchase(UUID a, UUID b, int orders) {}
+
+    public record Match(UUID id, double score) {}
+
+    public static Map<UUID, List<Match>> topK(List<Candidate> candidates, List<CoPurchase> coPurchases, int k) {
+        Map<UUID, Map<UUID, Integer>> together = new HashMap<>();
+        int maxOrders = 0;
+        for (CoPurchase c : coPurchases) {
+            together.computeIfAbsent(c.a(), x -> new HashMap<>()).merge(c.b(), c.orders(), Integer::sum);
+            together.computeIfAbsent(c.b(), x -> new HashMap<>()).merge(c.a(), c.orders(), Integer::sum);
+            maxOrders = Math.max(maxOrders, c.orders());
+        }
+
+        // Min-heap per product: the weakest of the current top K sits on top
+        Comparator<Match> weakestFirst = Comparator.comparingDouble(Match::score)
+                .thenComparing(Match::id, Comparator.reverseOrder());
+        Map<UUID, PriorityQueue<Match>> heaps = new HashMap<>();
+        candidates.forEach(c -> heaps.put(c.id(), new PriorityQueue<>(weakestFirst)));
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate a = candidates.get(i);
+            Map<UUID, Integer> boughtWithA = together.getOrDefault(a.id(), Map.of());
+            for (int j = i + 1; j < candidates.size(); j++) {
+                Candidate b = candidates.get(j);
+                double score = score(a, b, boughtWithA.getOrDefault(b.id(), 0), maxOrders);
+                if (score < MIN_SCORE) continue;
+                offer(heaps.get(a.id()), new Match(b.id(), score), k);
+                offer(heaps.get(b.id()), new Match(a.id(), score), k);
+            }
+        }
+
+        Map<UUID, List<Match>> result = new HashMap<>();
+        heaps.forEach((id, heap) -> {
+            if (heap.isEmpty()) return;
+            List<Match> best = new ArrayList<>(heap);
+            best.sort(weakestFirst.reversed());
+            result.put(id, List.copyOf(best));
+        });
+        return result;
+    }
+
+    static double score(Candidate a, Candidate b, int ordersTogether, int maxOrders) {
+        double score = 0;
+        if (a.categoryId() != null && a.categoryId().equals(b.categoryId())) score += CATEGORY_WEIGHT;
+        if (a.type() == b.type()) score += TYPE_WEIGHT;
+
+        if (a.price() != null && b.price() != null) {
+            double pa = a.price().doubleValue();
+            double pb = b.price().doubleValue();
+            double max = Math.max(pa, pb);
+            if (max > 0) score += PRICE_WEIGHT * (1 - Math.abs(pa - pb) / max);
+        }
+
+        if (!a.sizes().isEmpty() && !b.sizes().isEmpty()) {
+            long shared = a.sizes().stream().filter(b.sizes()::contains).count();
+            long union = a.sizes().size() + b.sizes().size() - shared;
+            score += SIZE_WEIGHT * shared / union;
+        }
+
+        // Log-scaled against the most co-bought pair so a few bestsellers don't swamp the rest
+        if (ordersTogether > 0) {
+            score += BOUGHT_WEIGHT * Math.log1p(ordersTogether) / Math.log1p(maxOrders);
+        }
+        return score;
+    }
+
+    private static void offer(PriorityQueue<Match> heap, Match match, int k) {
+        if (heap.size() < k) {
+            heap.add(match);
+        } else if (heap.comparator().compare(match, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(match);
+        }
+    }
+}
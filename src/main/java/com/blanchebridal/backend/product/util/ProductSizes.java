@@ -0,0 +1,34 @@
+package com.blanchebridal.backend.product.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Product sizes are stored as the admin wrote them — trimmed, in their order —
+ * and compared case-insensitively, so "s", " S " and "S" are the same size.
+ */
+public final class ProductSizes {
+
+    private ProductSizes() {}
+
+    // Filter key, matched against the upper-cased sizes (V20)
+    public static String normalize(String size) {
+        if (size == null || size.isBlank()) return null;
+        return size.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Stored form: trimmed, blanks dropped, a repeat differing only in case keeps the first
+    public static List<String> clean(List<String> sizes) {
+        if (sizes == null) return List.of();
+        Set<String> seen = new HashSet<>();
+        List<String> cleaned = new ArrayList<>();
+        for (String size : sizes) {
+            String key = normalize(size);
+            if (key != null && seen.add(key)) cleaned.add(size.trim());
+        }
+        return List.copyOf(cleaned);
+    }
+}
@@ -0,0 +1,18 @@
+package com.blanchebridal.backend.product.util;
+
+/**
+ * URL slug derived from a product name: "Lace A-Line Gown" → "lace-a-line-gown".
+ * Shared by single-product writes and bulk import so both produce the same key.
+ */
+public final class ProductSlugs {
+
+    private ProductSlugs() {}
+
+    public static String slugify(String name) {
+        return name.toLowerCase()
+                .replaceAll("[^a-z0-9\\s-]", "")
+                .replaceAll("\\s+", "-")
+                .replaceAll("-+", "-")
+                .trim();
+    }
+}
@@ -0,0 +1,62 @@
+package com.blanchebridal.backend.report.controller;
+
+import com.blanchebridal.backend.report.dto.SalesGranularity;
+import com.blanchebridal.backend.report.service.AccountingExportService;
+import com.blanchebridal.backend.report.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+public class SalesReportController {
+
+    private final SalesReportService salesReportService;
+    private final AccountingExportService accountingExportService;
+
+    @GetMapping("/sales")
+    public ResponseEntity<Map<String, Object>> getSalesReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") SalesGranularity granularity,
+            @RequestParam(required = false) String fulfillmentMethod,
+            @RequestParam(required = false) String orderMode) {
+
+        log.info("[Report] Sales {} → {} by {}", from, to, granularity);
+        return ResponseEntity.ok(Map.of("success", true,
+                "data", salesReportService.getSalesReport(from, to, granularity, fulfillmentMethod, orderMode)));
+    }
+
+    @GetMapping("/accounting-export")
+    public ResponseEntity<StreamingResponseBody> exportAccounting(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        // Checked up front — once streaming starts the status is already committed
+        if (from.isAfter(to)) {
+            throw new IllegalStateException("'from' must not be after 'to'");
+        }
+        log.info("[Report] Accounting export {} → {}", from, to);
+
+        StreamingResponseBody body = out -> accountingExportService.exportOrders(out, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"accounting-" + from + "-" + to + ".csv\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,36 @@
+package com.blanchebridal.backend.report.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One order line in the accounting export. Order, payment and receipt
+ * columns repeat on every line of the same order; an order without items
+ * or without a payment still appears once, with those columns empty.
+ */
+@JsonPropertyOrder({"orderId", "orderDate", "orderStatus", "fulfillmentMethod", "orderMode",
+        "orderTotal", "customerEmail", "productName", "size", "quantity", "unitPrice", "lineTotal",
+        "paymentMethod", "paymentStatus", "paymentAmount", "payherePaymentId", "paidAt", "receiptNumber"})
+public record AccountingExportRow(
+        UUID orderId,
+        LocalDateTime orderDate,
+        String orderStatus,
+        String fulfillmentMethod,
+        String orderMode,
+        BigDecimal orderTotal,
+        String customerEmail,
+        String productName,
+        String size,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal lineTotal,
+        String paymentMethod,
+        String paymentStatus,
+        BigDecimal paymentAmount,
+        String payherePaymentId,
+        LocalDateTime paidAt,
+        String receiptNumber
+) {}
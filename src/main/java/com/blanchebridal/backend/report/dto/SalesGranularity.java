@@ -0,0 +1,18 @@
+package com.blanchebridal.backend.report.dto;
+
+public enum SalesGranularity {
+    DAY("day"),
+    MONTH("month"),
+    YEAR("year");
+
+    // date_trunc field name
+    private final String truncUnit;
+
+    SalesGranularity(String truncUnit) {
+        this.truncUnit = truncUnit;
+    }
+
+    public String truncUnit() {
+        return truncUnit;
+    }
+}
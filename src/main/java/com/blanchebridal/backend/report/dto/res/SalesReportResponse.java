@@ -0,0 +1,30 @@
+package com.blanchebridal.backend.report.dto.res;
+
+import com.blanchebridal.backend.report.dto.SalesGranularity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales per period. orders, gross and itemsSold count confirmed-or-later
+ * orders only; pending and cancelled orders are reported as counts.
+ * Periods with no orders are left out.
+ */
+public record SalesReportResponse(
+        LocalDate from,
+        LocalDate to,
+        SalesGranularity granularity,
+        List<Bucket> buckets,
+        Bucket totals
+) {
+    // period is the first day of the day / month / year
+    public record Bucket(
+            LocalDate period,
+            long orders,
+            BigDecimal gross,
+            long itemsSold,
+            long pendingOrders,
+            long cancelledOrders
+    ) {}
+}
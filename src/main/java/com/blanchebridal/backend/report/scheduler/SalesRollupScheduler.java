@@ -0,0 +1,33 @@
+package com.blanchebridal.backend.report.scheduler;
+
+import com.blanchebridal.backend.report.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds the deltas the order triggers append (V27) into daily_sales_rollup,
+ * off the checkout path. Reports stay exact in between — they add the
+ * unfolded deltas — so this only keeps the delta table short.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRollupScheduler {
+
+    private final SalesReportService salesReportService;
+
+    @Scheduled(fixedDelay = 30_000, initialDelay = 30_000)
+    public void foldDeltas() {
+        try {
+            int buckets = salesReportService.foldDeltas();
+            if (buckets > 0) {
+                log.debug("[SalesRollup] Folded deltas into {} bucket(s)", buckets);
+            }
+        } catch (RuntimeException e) {
+            // Nothing is lost — the deltas stay put until the next run
+            log.warn("[SalesRollup] Folding deltas failed: {}", e.getMessage());
+        }
+    }
+}
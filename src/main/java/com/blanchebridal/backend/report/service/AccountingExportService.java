@@ -0,0 +1,15 @@
+package com.blanchebridal.backend.report.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface AccountingExportService {
+
+    /**
+     * Writes every order line placed between two dates (inclusive) as CSV,
+     * with its payment and receipt number. Rows are written as the database
+     * returns them, so memory use does not grow with the range.
+     */
+    void exportOrders(OutputStream out, LocalDate from, LocalDate to) throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.blanchebridal.backend.report.service;
+
+import com.blanchebridal.backend.report.dto.SalesGranularity;
+import com.blanchebridal.backend.report.dto.res.SalesReportResponse;
+
+import java.time.LocalDate;
+
+public interface SalesReportService {
+
+    /**
+     * Sales between two order dates (inclusive), optionally narrowed to one
+     * fulfillment method and/or order mode. Read from daily_sales_rollup plus
+     * the deltas not folded into it yet — never from orders.
+     */
+    SalesReportResponse getSalesReport(LocalDate from, LocalDate to, SalesGranularity granularity,
+                                       String fulfillmentMethod, String orderMode);
+
+    /**
+     * Moves a batch of trigger-written deltas into daily_sales_rollup.
+     * Returns the number of rollup buckets touched.
+     */
+    int foldDeltas();
+}
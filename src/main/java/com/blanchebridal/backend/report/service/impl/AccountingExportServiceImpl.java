@@ -0,0 +1,142 @@
+package com.blanchebridal.backend.report.service.impl;
+
+import com.blanchebridal.backend.report.dto.AccountingExportRow;
+import com.blanchebridal.backend.report.service.AccountingExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Accounting CSV export over one forward-only JDBC cursor. Postgres only
+ * streams a result set when it runs inside a transaction with a fetch size,
+ * so the query runs in a read-only transaction and pulls EXPORT_FETCH_SIZE
+ * rows per round trip; each row is written to the response before the next
+ * is read.
+ */
+@Slf4j
+@Service
+public class AccountingExportServiceImpl implements AccountingExportService {
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    // One row per order line. idx_orders_created_at (V28) serves the date range
+    // and already yields orders in (created_at, id) order, but the joins still
+    // leave i.id to sort — at best an incremental sort over one order's lines
+    // at a time, a full sort if the planner picks a hash join.
+    private static final String EXPORT_SQL = """
+            SELECT o.id AS order_id, o.created_at, o.status, o.fulfillment_method, o.order_mode,
+                   o.total_amount, u.email,
+                   i.product_name, i.size, i.quantity, i.unit_price,
+                   p.method AS payment_method, p.status AS payment_status, p.amount AS payment_amount,
+                   p.payhere_payment_id, p.paid_at,
+                   r.receipt_number
+              FROM orders o
+              LEFT JOIN users u       ON u.id = o.user_id
+              LEFT JOIN order_items i ON i.order_id = o.id
+              LEFT JOIN payments p    ON p.order_id = o.id
+              LEFT JOIN receipts r    ON r.payment_id = p.id
+             WHERE o.created_at >= ? AND o.created_at < ?
+             ORDER BY o.created_at, o.id, i.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate exportTx;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            // Quote only cells that need it (commas, quotes, newlines)
+            .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final CsvSchema csvSchema = csvMapper.schemaFor(AccountingExportRow.class).withHeader();
+
+    public AccountingExportServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportTx     = new TransactionTemplate(transactionManager);
+        this.exportTx.setReadOnly(true);
+    }
+
+    @Override
+    public void exportOrders(OutputStream out, LocalDate from, LocalDate to) throws IOException {
+        if (from.isAfter(to)) {
+            throw new IllegalStateException("'from' must not be after 'to'");
+        }
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end   = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        long[] rows = {0};
+        // The response stream belongs to the servlet container — never close it here
+        try (SequenceWriter writer = csvMapper.writer(csvSchema)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out)) {
+
+            exportTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                ps.setTimestamp(1, start);
+                ps.setTimestamp(2, end);
+                return ps;
+            }, rs -> {
+                try {
+                    writer.write(toExportRow(rs));
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("[Report] Accounting export {} → {}: {} row(s)", from, to, rows[0]);
+    }
+
+    private AccountingExportRow toExportRow(ResultSet rs) throws SQLException {
+        Integer quantity = rs.getObject("quantity", Integer.class);
+        BigDecimal unitPrice = rs.getBigDecimal("unit_price");
+        return new AccountingExportRow(
+                rs.getObject("order_id", UUID.class),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                rs.getString("status"),
+                rs.getString("fulfillment_method"),
+                rs.getString("order_mode"),
+                rs.getBigDecimal("total_amount"),
+                rs.getString("email"),
+                rs.getString("product_name"),
+                rs.getString("size"),
+                quantity,
+                unitPrice,
+                quantity == null || unitPrice == null ? null : unitPrice.multiply(BigDecimal.valueOf(quantity)),
+                rs.getString("payment_method"),
+                rs.getString("payment_status"),
+                rs.getBigDecimal("payment_amount"),
+                rs.getString("payhere_payment_id"),
+                toLocalDateTime(rs.getTimestamp("paid_at")),
+                rs.getString("receipt_number"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp ts) {
+        return ts == null ? null : ts.toLocalDateTime();
+    }
+}
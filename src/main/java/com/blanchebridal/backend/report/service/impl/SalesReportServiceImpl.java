@@ -0,0 +1,127 @@
+package com.blanchebridal.backend.report.service.impl;
+
+import com.blanchebridal.backend.report.dto.SalesGranularity;
+import com.blanchebridal.backend.report.dto.res.SalesReportResponse;
+import com.blanchebridal.backend.report.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+public class SalesReportServiceImpl implements SalesReportService {
+
+    // Ten years of daily buckets — wider ranges should use MONTH or YEAR
+    static final long MAX_DAY_BUCKETS = 3_660;
+
+    // Statuses that count as a sale
+    private static final String SOLD = "status IN ('CONFIRMED', 'PROCESSING', 'READY', 'COMPLETED')";
+
+    private static final String REPORT_SQL = """
+            SELECT date_trunc(?, day)::date AS period,
+                   COALESCE(SUM(order_count)  FILTER (WHERE %1$s), 0) AS orders,
+                   COALESCE(SUM(gross_amount) FILTER (WHERE %1$s), 0) AS gross,
+                   COALESCE(SUM(items_sold)   FILTER (WHERE %1$s), 0) AS items_sold,
+                   COALESCE(SUM(order_count)  FILTER (WHERE status = 'PENDING'), 0)   AS pending,
+                   COALESCE(SUM(order_count)  FILTER (WHERE status = 'CANCELLED'), 0) AS cancelled
+            FROM (
+                SELECT day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold
+                FROM daily_sales_rollup
+                UNION ALL
+                SELECT day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold
+                FROM daily_sales_rollup_delta
+            ) r
+            WHERE day BETWEEN ? AND ?
+            """.formatted(SOLD);
+
+    // Deltas folded per run. Buckets are upserted in key order, so two
+    // instances folding at once can never deadlock on each other.
+    private static final int FOLD_BATCH_SIZE = 5_000;
+
+    private static final String FOLD_SQL = """
+            WITH folded AS (
+                DELETE FROM daily_sales_rollup_delta
+                WHERE id IN (
+                    SELECT id FROM daily_sales_rollup_delta
+                    ORDER BY id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold
+            )
+            INSERT INTO daily_sales_rollup AS r
+                (day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold)
+            SELECT day, status, fulfillment_method, order_mode,
+                   SUM(order_count), SUM(gross_amount), SUM(items_sold)
+            FROM folded
+            GROUP BY day, status, fulfillment_method, order_mode
+            ORDER BY day, status, fulfillment_method, order_mode
+            ON CONFLICT (day, status, fulfillment_method, order_mode) DO UPDATE
+            SET order_count  = r.order_count  + EXCLUDED.order_count,
+                gross_amount = r.gross_amount + EXCLUDED.gross_amount,
+                items_sold   = r.items_sold   + EXCLUDED.items_sold
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public SalesReportResponse getSalesReport(LocalDate from, LocalDate to, SalesGranularity granularity,
+                                              String fulfillmentMethod, String orderMode) {
+        if (from.isAfter(to)) {
+            throw new IllegalStateException("'from' must not be after 'to'");
+        }
+        if (granularity == SalesGranularity.DAY && ChronoUnit.DAYS.between(from, to) >= MAX_DAY_BUCKETS) {
+            throw new IllegalStateException("Date range too long for daily buckets — use MONTH or YEAR");
+        }
+
+        StringBuilder sql = new StringBuilder(REPORT_SQL);
+        List<Object> args = new ArrayList<>(List.of(granularity.truncUnit(), Date.valueOf(from), Date.valueOf(to)));
+        if (fulfillmentMethod != null && !fulfillmentMethod.isBlank()) {
+            sql.append(" AND fulfillment_method = ?");
+            args.add(fulfillmentMethod.trim().toUpperCase(Locale.ROOT));
+        }
+        if (orderMode != null && !orderMode.isBlank()) {
+            sql.append(" AND order_mode = ?");
+            args.add(orderMode.trim().toUpperCase(Locale.ROOT));
+        }
+        sql.append(" GROUP BY 1 ORDER BY 1");
+
+        List<SalesReportResponse.Bucket> buckets = jdbcTemplate.query(sql.toString(), (rs, i) ->
+                new SalesReportResponse.Bucket(
+                        rs.getDate("period").toLocalDate(),
+                        rs.getLong("orders"),
+                        rs.getBigDecimal("gross"),
+                        rs.getLong("items_sold"),
+                        rs.getLong("pending"),
+                        rs.getLong("cancelled")),
+                args.toArray());
+
+        return new SalesReportResponse(from, to, granularity, buckets, total(buckets));
+    }
+
+    @Override
+    public int foldDeltas() {
+        return jdbcTemplate.update(FOLD_SQL, FOLD_BATCH_SIZE);
+    }
+
+    private static SalesReportResponse.Bucket total(List<SalesReportResponse.Bucket> buckets) {
+        long orders = 0, itemsSold = 0, pending = 0, cancelled = 0;
+        BigDecimal gross = BigDecimal.ZERO;
+        for (SalesReportResponse.Bucket b : buckets) {
+            orders += b.orders();
+            gross = gross.add(b.gross());
+            itemsSold += b.itemsSold();
+            pending += b.pendingOrders();
+            cancelled += b.cancelledOrders();
+        }
+        return new SalesReportResponse.Bucket(null, orders, gross, itemsSold, pending, cancelled);
+    }
+}
@@ -0,0 +1,26 @@
+package com.blanchebridal.backend.shared.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps idempotency_keys compact — expired results are never replayed, so
+ * they are deleted hourly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "0 40 * * * *")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyService.purgeExpired();
+        if (purged > 0) {
+            log.info("[IdempotencyScheduler] Purged {} expired idempotency key(s)", purged);
+        }
+    }
+}
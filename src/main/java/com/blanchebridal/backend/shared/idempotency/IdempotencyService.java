@@ -0,0 +1,23 @@
+package com.blanchebridal.backend.shared.idempotency;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs the action once per (scope, user, key), across all instances. A retry
+     * with the same key gets the stored result back as a JSON tree without
+     * running the action; a duplicate arriving while the first is still running
+     * waits for it and gets the same result, or a ConflictException if it is
+     * still running after the wait timeout. A null key runs the action
+     * unconditionally.
+     *
+     * Failed actions are not stored, so the client may retry with the same key.
+     * Reusing a key with a different request body is a ConflictException.
+     */
+    Object execute(String scope, UUID userId, String key, Object request, Supplier<?> action);
+
+    // Deletes stored results past their TTL; returns how many were removed
+    int purgeExpired();
+}
@@ -0,0 +1,256 @@
+package com.blanchebridal.backend.shared.idempotency;
+
+import com.blanchebridal.backend.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys in three tiers: a bounded in-memory LRU of recent results,
+ * the idempotency_keys table (V30) behind it, and a per-key in-flight future
+ * so concurrent duplicates on this instance share one execution.
+ *
+ * The table is the authority across instances: a key is claimed with an
+ * IN_PROGRESS row before the action runs. A duplicate that loses the claim
+ * polls for the result and replays it, or gets a ConflictException if the
+ * first run is still going after the wait timeout. A failed action deletes
+ * its claim so the key can be retried.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private static final String SELECT_SQL = """
+            SELECT status, request_hash, response::text FROM idempotency_keys
+             WHERE user_id = ? AND scope = ? AND idem_key = ? AND expires_at > NOW()
+            """;
+
+    // A live row — finished, or still running on any instance — keeps the key;
+    // an expired one, including a claim abandoned by a crash, is taken over
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (user_id, scope, idem_key, request_hash, status, expires_at)
+            VALUES (?, ?, ?, ?, 'IN_PROGRESS', ?)
+            ON CONFLICT (user_id, scope, idem_key) DO UPDATE SET
+                request_hash = EXCLUDED.request_hash,
+                status       = 'IN_PROGRESS',
+                response     = NULL,
+                created_at   = NOW(),
+                expires_at   = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= NOW()
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_keys SET status = 'COMPLETED', response = ?::jsonb, expires_at = ?
+             WHERE user_id = ? AND scope = ? AND idem_key = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String RELEASE_SQL = """
+            DELETE FROM idempotency_keys
+             WHERE user_id = ? AND scope = ? AND idem_key = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at <= NOW()";
+
+    private record StoredResult(String requestHash, JsonNode response) {}
+
+    // A live row of the table; response is null while IN_PROGRESS
+    private record StoredRow(boolean completed, String requestHash, JsonNode response) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Duration waitTimeout;
+
+    private final Cache<String, StoredResult> recent;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResult>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.idempotency.max-size:10000}") long maxSize,
+                                  @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${app.idempotency.claim-timeout:5m}") Duration claimTimeout,
+                                  @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.waitTimeout = waitTimeout;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "idempotency");
+    }
+
+    @Override
+    public Object execute(String scope, UUID userId, String key, Object request, Supplier<?> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalStateException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = scope + ":" + userId + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResult cached = recent.getIfPresent(cacheKey);
+        if (cached != null) return replay(cached, requestHash, key);
+
+        CompletableFuture<StoredResult> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResult> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            log.info("[Idempotency] Waiting on in-flight {} for key {}", scope, key);
+            return replay(await(running), requestHash, key);
+        }
+
+        try {
+            long deadline = System.nanoTime() + waitTimeout.toNanos();
+            while (true) {
+                if (claim(userId, scope, key, requestHash)) {
+                    Object result;
+                    try {
+                        result = action.get();
+                    } catch (RuntimeException e) {
+                        release(userId, scope, key);
+                        throw e;
+                    }
+                    StoredResult fresh = new StoredResult(requestHash, objectMapper.valueToTree(result));
+                    complete(userId, scope, key, fresh);
+                    recent.put(cacheKey, fresh);
+                    mine.complete(fresh);
+                    return result;
+                }
+
+                StoredRow row = load(userId, scope, key);
+                if (row != null && row.completed()) {
+                    StoredResult stored = new StoredResult(row.requestHash(), row.response());
+                    recent.put(cacheKey, stored);
+                    mine.complete(stored);
+                    return replay(stored, requestHash, key);
+                }
+                if (row != null && !row.requestHash().equals(requestHash)) {
+                    throw new ConflictException("Idempotency-Key '" + key + "' was already used with a different request");
+                }
+                if (System.nanoTime() >= deadline) {
+                    throw new ConflictException("A request with Idempotency-Key '" + key
+                            + "' is still being processed — retry later");
+                }
+                // Still running on another instance; a missing row means that
+                // run failed and released the key, so claim it straight away
+                if (row != null) {
+                    log.info("[Idempotency] Waiting on {} key {} claimed by another instance", scope, key);
+                    pause();
+                }
+            }
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        return jdbcTemplate.update(PURGE_SQL);
+    }
+
+    private Object replay(StoredResult stored, String requestHash, String key) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key '" + key + "' was already used with a different request");
+        }
+        return stored.response();
+    }
+
+    // Duplicates see the first execution's exception as their own
+    private static StoredResult await(CompletableFuture<StoredResult> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private boolean claim(UUID userId, String scope, String key, String requestHash) {
+        return jdbcTemplate.update(CLAIM_SQL, userId, scope, key, requestHash,
+                Timestamp.valueOf(LocalDateTime.now().plus(claimTimeout))) == 1;
+    }
+
+    private StoredRow load(UUID userId, String scope, String key) {
+        List<StoredRow> rows = jdbcTemplate.query(SELECT_SQL, (rs, i) -> {
+            String response = rs.getString(3);
+            try {
+                return new StoredRow("COMPLETED".equals(rs.getString(1)), rs.getString(2),
+                        response == null ? null : objectMapper.readTree(response));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable stored idempotent response", e);
+            }
+        }, userId, scope, key);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    // The action has already committed. If this write fails the claim stays
+    // IN_PROGRESS until it times out, and duplicates get a 409 meanwhile
+    private void complete(UUID userId, String scope, String key, StoredResult result) {
+        try {
+            jdbcTemplate.update(COMPLETE_SQL, result.response().toString(),
+                    Timestamp.valueOf(LocalDateTime.now().plus(ttl)), userId, scope, key);
+        } catch (DataAccessException e) {
+            log.error("[Idempotency] Could not store result for {} key {}: {}", scope, key, e.getMessage());
+        }
+    }
+
+    // A claim that cannot be deleted still expires after claimTimeout
+    private void release(UUID userId, String scope, String key) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, userId, scope, key);
+        } catch (DataAccessException e) {
+            log.warn("[Idempotency] Could not release claim for {} key {}: {}", scope, key, e.getMessage());
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting on an idempotent request", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            return DigestUtils.sha256Hex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Request could not be serialised for idempotency", e);
+        }
+    }
+}
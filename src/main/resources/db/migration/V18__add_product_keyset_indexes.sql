@@ -0,0 +1,6 @@
+-- Keyset pagination seeks on (sort key, id) over active products
+CREATE INDEX IF NOT EXISTS idx_products_active_created_at_id
+    ON products (created_at, id) WHERE is_active;
+
+CREATE INDEX IF NOT EXISTS idx_products_active_name_id
+    ON products (name, id) WHERE is_active;
@@ -0,0 +1,14 @@
+-- Price a customer pays first: rental price, else purchase price.
+-- Maintained by Postgres on every write so filters and sorts can use an index.
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS effective_price NUMERIC(10, 2)
+        GENERATED ALWAYS AS (COALESCE(rental_price, purchase_price)) STORED;
+
+-- Serves minPrice/maxPrice ranges and sort=price (offset and keyset)
+CREATE INDEX IF NOT EXISTS idx_products_active_effective_price_id
+    ON products (effective_price, id) WHERE is_active;
+
+-- sort=price orders NULLS LAST in both directions. A backward scan of the
+-- index above would give NULLS FIRST descending, so descending gets its own.
+CREATE INDEX IF NOT EXISTS idx_products_active_effective_price_desc_id
+    ON products (effective_price DESC NULLS LAST, id DESC) WHERE is_active;
@@ -0,0 +1,41 @@
+-- sizes was a TEXT column holding a JSON array string. Move it to a native
+-- TEXT[] so it can be filtered with @> and served by a GIN index. Values are
+-- trimmed and blanks dropped; repeats that differ only in case keep their
+-- first occurrence, and the admin's order and spelling are preserved.
+ALTER TABLE products ADD COLUMN sizes_array TEXT[] NOT NULL DEFAULT '{}';
+
+-- Row-by-row so one malformed legacy value does not fail the migration;
+-- those rows simply end up with no sizes, as the old reader treated them.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT id, sizes FROM products WHERE sizes IS NOT NULL AND btrim(sizes) <> '' LOOP
+        BEGIN
+            UPDATE products
+               SET sizes_array = ARRAY(
+                       SELECT size
+                         FROM (SELECT btrim(e) AS size, ord,
+                                      row_number() OVER (PARTITION BY upper(btrim(e)) ORDER BY ord) AS nth
+                                 FROM jsonb_array_elements_text(r.sizes::jsonb) WITH ORDINALITY AS t(e, ord)
+                                WHERE btrim(e) <> '') s
+                        WHERE nth = 1
+                        ORDER BY ord)
+             WHERE id = r.id;
+        EXCEPTION WHEN others THEN
+            RAISE NOTICE 'Skipping unparseable sizes for product %: %', r.id, r.sizes;
+        END;
+    END LOOP;
+END $$;
+
+ALTER TABLE products DROP COLUMN sizes;
+ALTER TABLE products RENAME COLUMN sizes_array TO sizes;
+
+-- Case is folded only when filtering: the GIN index covers the upper-cased
+-- sizes, and text_array_has_ignore_case compares against the same expression.
+-- upper() on each element is immutable, so the index may rely on it.
+CREATE FUNCTION upper_text_array(TEXT[]) RETURNS TEXT[]
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+    AS $$ SELECT ARRAY(SELECT upper(e) FROM unnest($1) AS u(e)) $$;
+
+CREATE INDEX IF NOT EXISTS idx_products_sizes ON products USING GIN (upper_text_array(sizes));
@@ -0,0 +1,7 @@
+-- Optimistic-lock versions double as HTTP ETag sources for the catalog
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE categories
+    ADD COLUMN IF NOT EXISTS version    BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
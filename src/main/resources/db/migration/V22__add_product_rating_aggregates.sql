@@ -0,0 +1,36 @@
+-- Running totals of APPROVED review ratings, adjusted by review moderation
+-- so listings can show and sort by the average without aggregating reviews.
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS rating_sum   BIGINT  NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_count INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE products
+    ADD CONSTRAINT chk_products_rating_totals CHECK (rating_sum >= 0 AND rating_count >= 0);
+
+UPDATE products p
+SET rating_sum   = r.rating_sum,
+    rating_count = r.rating_count
+FROM (
+    SELECT product_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count
+    FROM reviews
+    WHERE status = 'APPROVED'
+    GROUP BY product_id
+) r
+WHERE r.product_id = p.id;
+
+-- NULL until the first approved review, so unrated products sort last
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS rating_avg NUMERIC(3, 2)
+        GENERATED ALWAYS AS (
+            CASE WHEN rating_count = 0 THEN NULL
+                 ELSE ROUND(rating_sum::NUMERIC / rating_count, 2)
+            END) STORED;
+
+-- Serves sort=rating (offset and keyset)
+CREATE INDEX IF NOT EXISTS idx_products_active_rating_avg_id
+    ON products (rating_avg, id) WHERE is_active;
+
+-- sort=rating orders NULLS LAST in both directions; descending gets its own
+-- index, as a backward scan of the one above would put NULLs first
+CREATE INDEX IF NOT EXISTS idx_products_active_rating_avg_desc_id
+    ON products (rating_avg DESC NULLS LAST, id DESC) WHERE is_active;
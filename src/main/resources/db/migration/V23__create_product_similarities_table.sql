@@ -0,0 +1,9 @@
+-- Top-K "you may also like" list per product, rewritten by the similarity job.
+-- Read by primary key in rank order, so a detail page costs one index range scan.
+CREATE TABLE product_similarities (
+    product_id  UUID     NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    rank        SMALLINT NOT NULL,
+    similar_id  UUID     NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    score       REAL     NOT NULL,
+    PRIMARY KEY (product_id, rank)
+);
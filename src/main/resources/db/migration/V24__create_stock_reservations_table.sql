@@ -0,0 +1,23 @@
+-- Stock held for a PENDING order until it is paid (CONVERTED), cancelled or
+-- expires (RELEASED). Available stock = products.stock - SUM(ACTIVE quantity).
+CREATE TABLE stock_reservations (
+    id          UUID        PRIMARY KEY DEFAULT gen_random_uuid(),
+    order_id    UUID        NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    product_id  UUID        NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    quantity    INT         NOT NULL CHECK (quantity > 0),
+    status      VARCHAR(20) NOT NULL DEFAULT 'ACTIVE'
+                            CHECK (status IN ('ACTIVE', 'RELEASED', 'CONVERTED')),
+    expires_at  TIMESTAMP   NOT NULL,
+    created_at  TIMESTAMP   NOT NULL DEFAULT NOW(),
+    closed_at   TIMESTAMP
+);
+
+-- Only live holds are ever looked up, so the indexes skip closed rows
+CREATE INDEX idx_stock_reservations_active_order
+    ON stock_reservations (order_id) WHERE status = 'ACTIVE';
+
+CREATE INDEX idx_stock_reservations_active_product
+    ON stock_reservations (product_id) WHERE status = 'ACTIVE';
+
+CREATE INDEX idx_stock_reservations_active_expiry
+    ON stock_reservations (expires_at) WHERE status = 'ACTIVE';
@@ -0,0 +1,4 @@
+-- Stale-order sweep: only PENDING rows are indexed, so the index stays small
+-- however many completed orders accumulate
+CREATE INDEX idx_orders_pending_created_at
+    ON orders (created_at) WHERE status = 'PENDING';
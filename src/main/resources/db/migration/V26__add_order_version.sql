@@ -0,0 +1,4 @@
+-- Optimistic locking for orders — bumped by every status change, including
+-- the bulk and scheduled UPDATEs that bypass JPA
+ALTER TABLE orders
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,176 @@
+-- Per-day order totals by status, fulfillment method and order mode, so
+-- sales reports never scan orders / order_items. A year is at most a few
+-- thousand rows, so month and year views are a GROUP BY over this table.
+CREATE TABLE daily_sales_rollup (
+    day                 DATE          NOT NULL,
+    status              VARCHAR(20)   NOT NULL,
+    fulfillment_method  VARCHAR(20)   NOT NULL,
+    order_mode          VARCHAR(10)   NOT NULL,
+    order_count         INTEGER       NOT NULL DEFAULT 0,
+    gross_amount        NUMERIC(14,2) NOT NULL DEFAULT 0,
+    items_sold          INTEGER       NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, status, fulfillment_method, order_mode)
+);
+
+-- The triggers below only append per-statement deltas here rather than
+-- upserting the rollup row inside the writing transaction, so checkouts on
+-- the same day never queue on one row lock and bulk updates cannot deadlock
+-- on buckets locked in different orders. SalesReportServiceImpl.foldDeltas
+-- moves them into the rollup in the background, and the report adds
+-- whatever is not folded yet.
+CREATE TABLE daily_sales_rollup_delta (
+    id                  BIGSERIAL     PRIMARY KEY,
+    day                 DATE          NOT NULL,
+    status              VARCHAR(20)   NOT NULL,
+    fulfillment_method  VARCHAR(20)   NOT NULL,
+    order_mode          VARCHAR(10)   NOT NULL,
+    order_count         INTEGER       NOT NULL,
+    gross_amount        NUMERIC(14,2) NOT NULL,
+    items_sold          INTEGER       NOT NULL
+);
+
+-- The triggers below look up one order's items at a time
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
+
+-- ── orders ───────────────────────────────────────────────────────────────────
+
+-- A new order starts with no items; they are counted as order_items arrive
+CREATE FUNCTION orders_sales_delta_insert() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO daily_sales_rollup_delta
+        (day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold)
+    SELECT COALESCE(created_at, NOW())::date, status,
+           COALESCE(fulfillment_method, 'UNKNOWN'), COALESCE(order_mode, 'UNKNOWN'),
+           COUNT(*), SUM(total_amount), 0
+    FROM new_rows
+    GROUP BY 1, 2, 3, 4;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_orders_sales_delta_insert
+    AFTER INSERT ON orders
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION orders_sales_delta_insert();
+
+-- Moves each changed order's whole contribution from its old bucket to its
+-- new one. JPA rewrites every column on save, so unchanged rows are skipped
+-- and moves that cancel out within a bucket are not written at all.
+CREATE FUNCTION orders_sales_delta_update() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO daily_sales_rollup_delta
+        (day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold)
+    SELECT d.day, d.status, d.method, d.mode, SUM(d.orders), SUM(d.gross), SUM(d.items)
+    FROM old_rows o
+    JOIN new_rows n ON n.id = o.id
+    CROSS JOIN LATERAL (
+        SELECT COALESCE(SUM(quantity), 0) AS qty FROM order_items WHERE order_id = o.id
+    ) i
+    CROSS JOIN LATERAL (VALUES
+        (COALESCE(o.created_at, NOW())::date, o.status,
+         COALESCE(o.fulfillment_method, 'UNKNOWN'), COALESCE(o.order_mode, 'UNKNOWN'),
+         -1, -o.total_amount, -i.qty),
+        (COALESCE(n.created_at, NOW())::date, n.status,
+         COALESCE(n.fulfillment_method, 'UNKNOWN'), COALESCE(n.order_mode, 'UNKNOWN'),
+         1, n.total_amount, i.qty)
+    ) AS d(day, status, method, mode, orders, gross, items)
+    WHERE (o.status, o.total_amount, o.fulfillment_method, o.order_mode, o.created_at)
+          IS DISTINCT FROM
+          (n.status, n.total_amount, n.fulfillment_method, n.order_mode, n.created_at)
+    GROUP BY 1, 2, 3, 4
+    HAVING SUM(d.orders) <> 0 OR SUM(d.gross) <> 0 OR SUM(d.items) <> 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_orders_sales_delta_update
+    AFTER UPDATE ON orders
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION orders_sales_delta_update();
+
+-- Row-level and BEFORE, so the order's items are still there to subtract
+-- ahead of the cascade (transition tables only exist for AFTER triggers).
+-- It only appends, so it never waits on a rollup row either.
+CREATE FUNCTION orders_sales_delta_delete() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO daily_sales_rollup_delta
+        (day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold)
+    SELECT COALESCE(OLD.created_at, NOW())::date, OLD.status,
+           COALESCE(OLD.fulfillment_method, 'UNKNOWN'), COALESCE(OLD.order_mode, 'UNKNOWN'),
+           -1, -OLD.total_amount, -COALESCE(SUM(quantity), 0)
+    FROM order_items
+    WHERE order_id = OLD.id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_orders_sales_delta_delete
+    BEFORE DELETE ON orders
+    FOR EACH ROW EXECUTE FUNCTION orders_sales_delta_delete();
+
+-- ── order_items ──────────────────────────────────────────────────────────────
+
+-- Items sold for each order's current bucket. A delete cascading from its
+-- order finds no order row and is skipped — already subtracted above.
+CREATE FUNCTION order_items_sales_delta() RETURNS trigger AS $$
+DECLARE
+    order_ids UUID[];
+    deltas    INTEGER[];
+BEGIN
+    -- Each branch only names the transition tables its event defines
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(order_id), array_agg(quantity) INTO order_ids, deltas
+        FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(order_id), array_agg(-quantity) INTO order_ids, deltas
+        FROM old_rows;
+    ELSE
+        SELECT array_agg(n.order_id), array_agg(n.quantity - o.quantity) INTO order_ids, deltas
+        FROM old_rows o
+        JOIN new_rows n ON n.id = o.id
+        WHERE n.quantity IS DISTINCT FROM o.quantity;
+    END IF;
+
+    INSERT INTO daily_sales_rollup_delta
+        (day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold)
+    SELECT COALESCE(o.created_at, NOW())::date, o.status,
+           COALESCE(o.fulfillment_method, 'UNKNOWN'), COALESCE(o.order_mode, 'UNKNOWN'),
+           0, 0, SUM(c.delta)
+    FROM unnest(order_ids, deltas) AS c(order_id, delta)
+    JOIN orders o ON o.id = c.order_id
+    GROUP BY 1, 2, 3, 4
+    HAVING SUM(c.delta) <> 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables allow one event per trigger, hence three
+CREATE TRIGGER trg_order_items_sales_delta_insert
+    AFTER INSERT ON order_items
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION order_items_sales_delta();
+
+CREATE TRIGGER trg_order_items_sales_delta_update
+    AFTER UPDATE ON order_items
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION order_items_sales_delta();
+
+CREATE TRIGGER trg_order_items_sales_delta_delete
+    AFTER DELETE ON order_items
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION order_items_sales_delta();
+
+-- Backfill from the orders placed so far
+INSERT INTO daily_sales_rollup (day, status, fulfillment_method, order_mode, order_count, gross_amount, items_sold)
+SELECT COALESCE(o.created_at, NOW())::date,
+       o.status,
+       COALESCE(o.fulfillment_method, 'UNKNOWN'),
+       COALESCE(o.order_mode, 'UNKNOWN'),
+       COUNT(*),
+       SUM(o.total_amount),
+       COALESCE(SUM(i.items), 0)
+FROM orders o
+LEFT JOIN (
+    SELECT order_id, SUM(quantity) AS items FROM order_items GROUP BY order_id
+) i ON i.order_id = o.id
+GROUP BY 1, 2, 3, 4;
@@ -0,0 +1,4 @@
+-- Date-range reads over all orders (accounting export). The index yields
+-- orders in (created_at, id) order; the order lines joined to each order are
+-- still sorted by the query.
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at, id);
@@ -0,0 +1,18 @@
+-- Admin order search (GET /api/orders/search): substring matches served by
+-- trigram GIN indexes. The expressions here must match OrderRepositoryCustomImpl
+-- exactly or the planner will not use them.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Customer phone and delivery address captured on the order
+CREATE INDEX IF NOT EXISTS idx_orders_search_trgm ON orders
+    USING GIN (lower(coalesce(customer_phone, '') || ' ' || coalesce(delivery_address, '')) gin_trgm_ops);
+
+-- Customer name, email and account phone
+CREATE INDEX IF NOT EXISTS idx_users_search_trgm ON users
+    USING GIN (lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '') || ' '
+                     || email || ' ' || coalesce(phone, '')) gin_trgm_ops);
+
+-- Matched customers are joined back to their orders
+CREATE INDEX IF NOT EXISTS idx_orders_user_id ON orders (user_id);
+
+-- The id prefix needs no index of its own: it becomes a range scan on the primary key
@@ -0,0 +1,21 @@
+-- Results of POST requests sent with an Idempotency-Key header. The key is
+-- claimed (IN_PROGRESS) before the request runs, so a duplicate on any
+-- instance waits for that run instead of starting its own; a retry after it
+-- finishes replays the stored response. expires_at is the claim timeout while
+-- IN_PROGRESS — a claim left by a crashed instance can be taken over — and
+-- the replay TTL once COMPLETED.
+CREATE TABLE idempotency_keys (
+    user_id       UUID         NOT NULL,
+    scope         VARCHAR(40)  NOT NULL,
+    idem_key      VARCHAR(100) NOT NULL,
+    request_hash  CHAR(64)     NOT NULL,
+    status        VARCHAR(12)  NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response      JSONB,
+    created_at    TIMESTAMP    NOT NULL DEFAULT NOW(),
+    expires_at    TIMESTAMP    NOT NULL,
+    PRIMARY KEY (user_id, scope, idem_key),
+    CHECK (status <> 'COMPLETED' OR response IS NOT NULL)
+);
+
+-- Hourly purge of expired results and abandoned claims
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,17 @@
+-- Receipts to render and store, written in the same transaction that
+-- confirms the payment. ReceiptOutboxWorker picks rows up after commit.
+CREATE TABLE receipt_outbox (
+    order_id         UUID        PRIMARY KEY REFERENCES orders(id) ON DELETE CASCADE,
+    payment_id       UUID        NOT NULL REFERENCES payments(id) ON DELETE CASCADE,
+    status           VARCHAR(20) NOT NULL DEFAULT 'PENDING'
+        CHECK (status IN ('PENDING', 'DONE', 'FAILED')),
+    attempts         INTEGER     NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP   NOT NULL DEFAULT NOW(),
+    last_error       TEXT,
+    created_at       TIMESTAMP   NOT NULL DEFAULT NOW(),
+    updated_at       TIMESTAMP   NOT NULL DEFAULT NOW()
+);
+
+-- The worker only ever looks for due PENDING rows
+CREATE INDEX idx_receipt_outbox_due ON receipt_outbox (next_attempt_at)
+    WHERE status = 'PENDING';
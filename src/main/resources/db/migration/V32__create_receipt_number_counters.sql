@@ -0,0 +1,15 @@
+-- One row per year holding the last receipt sequence issued. Receipt numbers
+-- used to be "latest + 1", which two outbox workers could compute at the same
+-- time; the upsert on this row serialises them instead.
+CREATE TABLE receipt_number_counters (
+    year        INTEGER PRIMARY KEY,
+    last_value  INTEGER NOT NULL CHECK (last_value > 0)
+);
+
+-- Continue from the numbers already issued (RCP-2025-00042)
+INSERT INTO receipt_number_counters (year, last_value)
+SELECT split_part(receipt_number, '-', 2)::INTEGER,
+       MAX(split_part(receipt_number, '-', 3)::INTEGER)
+FROM receipts
+WHERE receipt_number ~ '^RCP-[0-9]{4}-[0-9]+$'
+GROUP BY 1;
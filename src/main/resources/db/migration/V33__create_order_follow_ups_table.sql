@@ -0,0 +1,26 @@
+-- Paid orders that could not be fulfilled as paid used to be logged only.
+-- Each case is now kept here until staff resolve it, so the queue can be
+-- listed from the admin side:
+--   OVERSOLD           one product whose stock could not be deducted
+--                      (restock, substitute or refund that product)
+--   PAID_AFTER_CANCEL  a payment that completed after the order was cancelled,
+--                      e.g. by the deadline expiry (refund the payment)
+CREATE TABLE order_follow_ups (
+    id            UUID          PRIMARY KEY DEFAULT gen_random_uuid(),
+    order_id      UUID          NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    reason        VARCHAR(20)   NOT NULL CHECK (reason IN ('OVERSOLD', 'PAID_AFTER_CANCEL')),
+    product_id    UUID          REFERENCES products(id) ON DELETE SET NULL,
+    product_name  VARCHAR(255),
+    quantity      INTEGER       CHECK (quantity > 0),
+    payment_id    UUID          REFERENCES payments(id) ON DELETE SET NULL,
+    amount        DECIMAL(10,2),
+    created_at    TIMESTAMP     NOT NULL DEFAULT NOW(),
+    resolved_at   TIMESTAMP,
+    CHECK (reason <> 'OVERSOLD' OR quantity IS NOT NULL),
+    CHECK (reason <> 'PAID_AFTER_CANCEL' OR payment_id IS NOT NULL)
+);
+
+CREATE INDEX idx_order_follow_ups_order_id ON order_follow_ups (order_id);
+
+-- The staff queue only ever reads the unresolved rows
+CREATE INDEX idx_order_follow_ups_open ON order_follow_ups (created_at) WHERE resolved_at IS NULL;
@@ -0,0 +1,126 @@
+package com.blanchebridal.backend.order;
+
+import com.blanchebridal.backend.order.event.OrderCreatedEvent;
+import com.blanchebridal.backend.order.scheduler.OrderExpiryScheduler;
+import com.blanchebridal.backend.product.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("OrderExpiryScheduler Tests")
+class OrderExpirySchedulerTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private StockReservationService stockReservationService;
+
+    private OrderExpiryScheduler expiryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        expiryScheduler = new OrderExpiryScheduler(jdbcTemplate, transactionManager, stockReservationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        expiryScheduler.stop();
+    }
+
+    // createdAt that puts the 30-minute deadline the given number of millis from now
+    private static LocalDateTime dueIn(long millis) {
+        return LocalDateTime.now().minusMinutes(30).plusNanos(millis * 1_000_000);
+    }
+
+    private void givenStillPending(UUID... orderIds) {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<UUID>>any()))
+                .thenReturn(List.of(orderIds));
+    }
+
+    @Test
+    @DisplayName("order created — cancelled at its deadline, not at the next poll")
+    void orderCreated_cancelledAtDeadline() {
+        UUID orderId = UUID.randomUUID();
+        givenStillPending(orderId);
+        expiryScheduler.start();
+
+        expiryScheduler.onOrderCreated(new OrderCreatedEvent(orderId, dueIn(150)));
+
+        verify(stockReservationService, timeout(2_000)).release((Collection<UUID>) List.of(orderId));
+        assertThat(expiryScheduler.scheduledCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("order not yet due — no database work at all")
+    void orderNotDue_noQueries() throws Exception {
+        expiryScheduler.start();
+        clearInvocations(jdbcTemplate);
+
+        expiryScheduler.register(UUID.randomUUID(), LocalDateTime.now());
+        Thread.sleep(200);
+
+        verifyNoInteractions(jdbcTemplate, stockReservationService);
+        assertThat(expiryScheduler.scheduledCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("startup — PENDING orders are reloaded and overdue ones expire immediately")
+    void start_rebuildsFromDatabase() throws Exception {
+        UUID overdue = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (Object[] row : List.of(new Object[]{overdue, dueIn(-60_000)}, new Object[]{fresh, LocalDateTime.now()})) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject("id", UUID.class)).thenReturn((UUID) row[0]);
+                when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf((LocalDateTime) row[1]));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, created_at FROM orders"), any(RowCallbackHandler.class));
+        givenStillPending(overdue);
+
+        expiryScheduler.start();
+
+        verify(stockReservationService, timeout(2_000)).release((Collection<UUID>) List.of(overdue));
+        assertThat(expiryScheduler.scheduledCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("order paid before its deadline — UPDATE matches nothing, no reservation released")
+    void orderPaidMeanwhile_skipped() {
+        givenStillPending();
+        expiryScheduler.start();
+
+        expiryScheduler.register(UUID.randomUUID(), dueIn(50));
+
+        verify(jdbcTemplate, timeout(2_000)).query(any(PreparedStatementCreator.class),
+                ArgumentMatchers.<RowMapper<UUID>>any());
+        verify(stockReservationService, never()).release(ArgumentMatchers.<Collection<UUID>>any());
+    }
+}
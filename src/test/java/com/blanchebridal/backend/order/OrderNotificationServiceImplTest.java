@@ -0,0 +1,84 @@
+package com.blanchebridal.backend.order;
+
+import com.blanchebridal.backend.order.entity.Order;
+import com.blanchebridal.backend.order.entity.OrderItem;
+import com.blanchebridal.backend.order.entity.OrderStatus;
+import com.blanchebridal.backend.order.event.OrderStatusChangedEvent;
+import com.blanchebridal.backend.order.repository.OrderRepository;
+import com.blanchebridal.backend.order.service.impl.OrderNotificationServiceImpl;
+import com.blanchebridal.backend.shared.email.EmailService;
+import com.blanchebridal.backend.user.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderNotificationServiceImpl Tests")
+class OrderNotificationServiceImplTest {
+
+    @Mock private OrderRepository orderRepository;
+    @Mock private EmailService emailService;
+
+    @InjectMocks
+    private OrderNotificationServiceImpl notificationService;
+
+    private Order orderFor(String email) {
+        User customer = User.builder().id(UUID.randomUUID()).email(email)
+                .firstName("Amaya").lastName("Silva").build();
+        OrderItem item = OrderItem.builder().productName("Ivory Lace Gown").quantity(1)
+                .unitPrice(new BigDecimal("45000.00")).build();
+        return Order.builder().id(UUID.randomUUID()).user(customer).status(OrderStatus.CONFIRMED)
+                .totalAmount(new BigDecimal("45000.00")).items(List.of(item)).build();
+    }
+
+    @Test
+    @DisplayName("onStatusChanged — CONFIRMED: one email per order, loaded in one query")
+    void confirmed_emailsEveryCustomer() {
+        Order first = orderFor("a@example.com");
+        Order second = orderFor("b@example.com");
+        Set<UUID> ids = Set.of(first.getId(), second.getId());
+        when(orderRepository.findWithDetailsByIdIn(ids)).thenReturn(List.of(first, second));
+
+        notificationService.onStatusChanged(new OrderStatusChangedEvent(ids, OrderStatus.CONFIRMED));
+
+        verify(orderRepository, times(1)).findWithDetailsByIdIn(ids);
+        verify(emailService).sendOrderConfirmationEmail(eq("a@example.com"), any(), any(), any(), any());
+        verify(emailService).sendOrderConfirmationEmail(eq("b@example.com"), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("onStatusChanged — one failed email does not stop the rest")
+    void confirmed_emailFailure_continues() {
+        Order first = orderFor("bad@example.com");
+        Order second = orderFor("ok@example.com");
+        Set<UUID> ids = Set.of(first.getId(), second.getId());
+        when(orderRepository.findWithDetailsByIdIn(ids)).thenReturn(List.of(first, second));
+        doThrow(new RuntimeException("SMTP error")).when(emailService)
+                .sendOrderConfirmationEmail(eq("bad@example.com"), any(), any(), any(), any());
+
+        notificationService.onStatusChanged(new OrderStatusChangedEvent(ids, OrderStatus.CONFIRMED));
+
+        verify(emailService).sendOrderConfirmationEmail(eq("ok@example.com"), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("onStatusChanged — statuses without a customer email are ignored")
+    void otherStatus_noEmails() {
+        notificationService.onStatusChanged(
+                new OrderStatusChangedEvent(Set.of(UUID.randomUUID()), OrderStatus.PROCESSING));
+
+        verifyNoInteractions(orderRepository, emailService);
+    }
+}
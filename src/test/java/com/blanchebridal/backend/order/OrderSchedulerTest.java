@@ -0,0 +1,108 @@
+package com.blanchebridal.backend.order;
+
+import com.blanchebridal.backend.order.scheduler.OrderScheduler;
+import com.blanchebridal.backend.product.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderScheduler Tests")
+class OrderSchedulerTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private StockReservationService stockReservationService;
+
+    private OrderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new OrderScheduler(jdbcTemplate, transactionManager, stockReservationService);
+    }
+
+    // Each call to the bulk UPDATE returns the next chunk, mapped through the real row mapper
+    private void givenCancelledChunks(List<List<UUID>> chunks) {
+        var answers = new ArrayList<>(chunks);
+        when(jdbcTemplate.query(startsWith("UPDATE orders"), ArgumentMatchers.<RowMapper<Object>>any(), any(), any()))
+                .thenAnswer(inv -> {
+                    RowMapper<Object> mapper = inv.getArgument(1);
+                    List<Object> rows = new ArrayList<>();
+                    for (UUID id : answers.removeFirst()) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getObject("id", UUID.class)).thenReturn(id);
+                        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+                        rows.add(mapper.mapRow(rs, rows.size()));
+                    }
+                    return rows;
+                });
+    }
+
+    private static List<UUID> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+
+    @Test
+    @DisplayName("cancelStaleOrders — backlog is cancelled in chunks, each releasing its own reservations")
+    void cancelStaleOrders_backlog_processedInChunks() {
+        List<UUID> first = ids(500);
+        List<UUID> second = ids(500);
+        List<UUID> last = ids(37);
+        givenCancelledChunks(List.of(first, second, last));
+
+        scheduler.cancelStaleOrders();
+
+        verify(jdbcTemplate, times(3)).query(startsWith("UPDATE orders"),
+                ArgumentMatchers.<RowMapper<Object>>any(), any(), eq(500));
+        verify(stockReservationService).release((Collection<UUID>) first);
+        verify(stockReservationService).release((Collection<UUID>) second);
+        verify(stockReservationService).release((Collection<UUID>) last);
+        verify(stockReservationService).releaseExpired();
+        // One transaction per chunk plus the expiry sweep
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    @DisplayName("cancelStaleOrders — nothing stale: one UPDATE, no releases, expiry sweep still runs")
+    void cancelStaleOrders_nothingStale_singleStatement() {
+        givenCancelledChunks(List.of(List.of()));
+
+        scheduler.cancelStaleOrders();
+
+        verify(jdbcTemplate, times(1)).query(startsWith("UPDATE orders"),
+                ArgumentMatchers.<RowMapper<Object>>any(), any(), any());
+        verify(stockReservationService, never()).release(ArgumentMatchers.<Collection<UUID>>any());
+        verify(stockReservationService).releaseExpired();
+    }
+
+    @Test
+    @DisplayName("cancelStaleOrders — a chunk that is exactly full triggers one more (empty) pass")
+    void cancelStaleOrders_exactlyFullChunk_checksAgain() {
+        givenCancelledChunks(List.of(ids(500), List.of()));
+
+        scheduler.cancelStaleOrders();
+
+        verify(jdbcTemplate, times(2)).query(startsWith("UPDATE orders"),
+                ArgumentMatchers.<RowMapper<Object>>any(), any(), any());
+    }
+}
@@ -2,17 +2,23 @@ package com.blanchebridal.backend.order;
 
 import com.blanchebridal.backend.exception.ResourceNotFoundException;
 import com.blanchebridal.backend.exception.UnauthorizedException;
+import com.blanchebridal.backend.order.dto.OrderStatusRow;
 import com.blanchebridal.backend.order.dto.req.CreateOrderRequest;
 import com.blanchebridal.backend.order.dto.req.OrderItemRequest;
+import com.blanchebridal.backend.order.dto.res.BulkOrderStatusResult;
 import com.blanchebridal.backend.order.dto.res.OrderResponse;
 import com.blanchebridal.backend.order.entity.Order;
 import com.blanchebridal.backend.order.entity.OrderItem;
 import com.blanchebridal.backend.order.entity.OrderStatus;
+import com.blanchebridal.backend.order.event.OrderCreatedEvent;
+import com.blanchebridal.backend.order.event.OrderStatusChangedEvent;
+import com.blanchebridal.backend.order.repository.OrderFollowUpRepository;
 import com.blanchebridal.backend.order.repository.OrderRepository;
 import com.blanchebridal.backend.order.service.impl.OrderServiceImpl;
 import com.blanchebridal.backend.product.entity.Product;
+import com.blanchebridal.backend.product.entity.ProductImage;
 import com.blanchebridal.backend.product.repository.ProductRepository;
-import com.blanchebridal.backend.shared.email.EmailService;
+import com.blanchebridal.backend.product.service.StockReservationService;
 import com.blanchebridal.backend.user.entity.User;
 import com.blanchebridal.backend.user.entity.UserRole;
 import com.blanchebridal.backend.user.repository.UserRepository;
@@ -23,16 +29,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,9 +50,11 @@ import static org.mockito.Mockito.*;
 class OrderServiceImplTest {
 
     @Mock private OrderRepository orderRepository;
+    @Mock private OrderFollowUpRepository orderFollowUpRepository;
     @Mock private ProductRepository productRepository;
     @Mock private UserRepository userRepository;
-    @Mock private EmailService emailService;
+    @Mock private StockReservationService stockReservationService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -91,13 +103,17 @@ class OrderServiceImplTest {
                 .totalAmount(new BigDecimal("45000.00"))
                 .items(List.of(item))
                 .build();
+
+        // Nothing held by other orders unless a test says so
+        lenient().when(stockReservationService.availableStock(any(), anyInt()))
+                .thenAnswer(inv -> inv.getArgument(1));
     }
 
     // ── createOrder ───────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("createOrder — creates order and deducts stock")
-    void createOrder_validRequest_createsOrderAndDeductsStock() {
+    @DisplayName("createOrder — creates order and reserves stock (deducted only once paid)")
+    void createOrder_validRequest_createsOrderAndReservesStock() {
         OrderItemRequest itemReq = new OrderItemRequest();
         itemReq.setProductId(productId);
         itemReq.setQuantity(1);
@@ -106,16 +122,17 @@ class OrderServiceImplTest {
         req.setItems(List.of(itemReq));
 
         when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.findWithImagesByIdIn(Set.of(productId))).thenReturn(List.of(product));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(stockReservationService.reserve(any(), any(), any())).thenReturn(Set.of());
 
         OrderResponse response = orderService.createOrder(req, customerId);
 
         assertThat(response.getStatus()).isEqualTo(OrderStatus.PENDING);
         assertThat(response.getTotalAmount()).isEqualByComparingTo("45000.00");
-        verify(productRepository).save(any(Product.class)); // stock deducted
         verify(orderRepository).save(any(Order.class));
+        verify(stockReservationService).reserve(orderId, Map.of(productId, 1), Map.of(productId, 5));
+        verify(productRepository, never()).save(any(Product.class)); // stock itself untouched
     }
 
     @Test
@@ -143,7 +160,7 @@ class OrderServiceImplTest {
         req.setItems(List.of(itemReq));
 
         when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(productRepository.findById(unknownProductId)).thenReturn(Optional.empty());
+        when(productRepository.findWithImagesByIdIn(Set.of(unknownProductId))).thenReturn(List.of());
 
         assertThatThrownBy(() -> orderService.createOrder(req, customerId))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -163,7 +180,7 @@ class OrderServiceImplTest {
         req.setItems(List.of(itemReq));
 
         when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findWithImagesByIdIn(Set.of(productId))).thenReturn(List.of(product));
 
         assertThatThrownBy(() -> orderService.createOrder(req, customerId))
                 .isInstanceOf(IllegalStateException.class)
@@ -183,11 +200,165 @@ class OrderServiceImplTest {
         req.setItems(List.of(itemReq));
 
         when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findWithImagesByIdIn(Set.of(productId))).thenReturn(List.of(product));
+
+        assertThatThrownBy(() -> orderService.createOrder(req, customerId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Insufficient stock");
+        verify(stockReservationService, never()).reserve(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("createOrder — reserves the ordered quantity against on-hand stock")
+    void createOrder_validRequest_reservesStock() {
+        OrderItemRequest itemReq = new OrderItemRequest();
+        itemReq.setProductId(productId);
+        itemReq.setQuantity(2);
+
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setItems(List.of(itemReq));
+
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(productRepository.findWithImagesByIdIn(Set.of(productId))).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(stockReservationService.reserve(any(), any(), any())).thenReturn(Set.of());
+
+        orderService.createOrder(req, customerId);
+
+        verify(stockReservationService).reserve(orderId, Map.of(productId, 2), Map.of(productId, 5));
+        verify(eventPublisher).publishEvent(new OrderCreatedEvent(orderId, order.getCreatedAt()));
+    }
+
+    @Test
+    @DisplayName("createOrder — throws IllegalStateException when remaining stock is held by other orders")
+    void createOrder_stockHeldByPendingOrders_throwsException() {
+        OrderItemRequest itemReq = new OrderItemRequest();
+        itemReq.setProductId(productId);
+        itemReq.setQuantity(1);
+
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setItems(List.of(itemReq));
+
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(productRepository.findWithImagesByIdIn(Set.of(productId))).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(stockReservationService.reserve(any(), any(), any())).thenReturn(Set.of(productId));
+
+        assertThatThrownBy(() -> orderService.createOrder(req, customerId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Insufficient stock for: Ivory Lace Gown");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("createOrder — units held by unpaid orders are rejected before the order is written")
+    void createOrder_heldUnits_rejectedBeforeSave() {
+        OrderItemRequest itemReq = new OrderItemRequest();
+        itemReq.setProductId(productId);
+        itemReq.setQuantity(2);
+
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setItems(List.of(itemReq));
+
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(productRepository.findWithImagesByIdIn(Set.of(productId))).thenReturn(List.of(product));
+        when(stockReservationService.availableStock(productId, 5)).thenReturn(1);
+
+        assertThatThrownBy(() -> orderService.createOrder(req, customerId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Insufficient stock for: Ivory Lace Gown");
+        verify(orderRepository, never()).save(any());
+        verify(stockReservationService, never()).reserve(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("createOrder — repeated lines for one product are checked against stock together")
+    void createOrder_repeatedProductLines_stockCheckedOnTotal() {
+        product.setStock(2);
+
+        OrderItemRequest first = new OrderItemRequest();
+        first.setProductId(productId);
+        first.setQuantity(1);
+        first.setSize("S");
+        OrderItemRequest second = new OrderItemRequest();
+        second.setProductId(productId);
+        second.setQuantity(2);
+        second.setSize("M");
+
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setItems(List.of(first, second));
+
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(productRepository.findWithImagesByIdIn(Set.of(productId))).thenReturn(List.of(product));
 
         assertThatThrownBy(() -> orderService.createOrder(req, customerId))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Insufficient stock");
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createOrder — one product query however many items")
+    void createOrder_manyItems_singleProductQuery() {
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
+            Order o = inv.getArgument(0);
+            o.setId(UUID.randomUUID());
+            return o;
+        });
+        when(stockReservationService.reserve(any(), any(), any())).thenReturn(Set.of());
+
+        for (int itemCount : new int[]{1, 10, 50, 200}) {
+            List<Product> catalogue = new ArrayList<>();
+            List<OrderItemRequest> lines = new ArrayList<>();
+            for (int i = 0; i < itemCount; i++) {
+                Product p = Product.builder().id(UUID.randomUUID()).name("Gown " + i)
+                        .purchasePrice(new BigDecimal("1000.00")).stock(10).isAvailable(true)
+                        .images(new ArrayList<>(List.of(ProductImage.builder().url("/img/" + i + ".jpg").build())))
+                        .build();
+                catalogue.add(p);
+                OrderItemRequest line = new OrderItemRequest();
+                line.setProductId(p.getId());
+                line.setQuantity(1);
+                lines.add(line);
+            }
+            CreateOrderRequest req = new CreateOrderRequest();
+            req.setItems(lines);
+            clearInvocations(productRepository);
+            when(productRepository.findWithImagesByIdIn(any())).thenReturn(catalogue);
+
+            OrderResponse response = orderService.createOrder(req, customerId);
+
+            assertThat(response.getItems()).hasSize(itemCount);
+            assertThat(response.getItems().getLast().getProductImage()).isEqualTo("/img/" + (itemCount - 1) + ".jpg");
+            verify(productRepository, times(1)).findWithImagesByIdIn(any());
+            verify(productRepository, never()).findById(any());
+        }
+    }
+
+    // ── cancelOrder ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("cancelOrder — cancels a PENDING order and releases its reservation")
+    void cancelOrder_pending_releasesReservation() {
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        orderService.cancelOrder(orderId, customerId);
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(stockReservationService).release(orderId);
+    }
+
+    @Test
+    @DisplayName("cancelOrder — non-PENDING order is left alone and keeps its stock")
+    void cancelOrder_notPending_noRelease() {
+        order.setStatus(OrderStatus.CONFIRMED);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        orderService.cancelOrder(orderId, customerId);
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        verifyNoInteractions(stockReservationService);
     }
 
     // ── getOrderById ──────────────────────────────────────────────────────────
@@ -195,7 +366,7 @@ class OrderServiceImplTest {
     @Test
     @DisplayName("getOrderById — admin can access any order")
     void getOrderById_adminRole_returnsOrder() {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.of(order));
 
         OrderResponse response = orderService.getOrderById(orderId, UUID.randomUUID(), "ROLE_ADMIN");
 
@@ -205,7 +376,7 @@ class OrderServiceImplTest {
     @Test
     @DisplayName("getOrderById — customer can access own order")
     void getOrderById_customerAccessingOwnOrder_returnsOrder() {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.of(order));
 
         OrderResponse response = orderService.getOrderById(orderId, customerId, "ROLE_CUSTOMER");
 
@@ -215,7 +386,7 @@ class OrderServiceImplTest {
     @Test
     @DisplayName("getOrderById — customer cannot access another customer's order")
     void getOrderById_customerAccessingOtherOrder_throwsException() {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.of(order));
 
         UUID otherCustomerId = UUID.randomUUID();
 
@@ -229,7 +400,7 @@ class OrderServiceImplTest {
     @DisplayName("getOrderById — throws ResourceNotFoundException when order not found")
     void getOrderById_notFound_throwsException() {
         UUID unknownId = UUID.randomUUID();
-        when(orderRepository.findById(unknownId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithDetailsById(unknownId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
                 orderService.getOrderById(unknownId, customerId, "ROLE_ADMIN"))
@@ -240,8 +411,8 @@ class OrderServiceImplTest {
     // ── updateOrderStatus ─────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("updateOrderStatus — updates status to CONFIRMED and sends email")
-    void updateOrderStatus_toConfirmed_updatesAndSendsEmail() {
+    @DisplayName("updateOrderStatus — updates status to CONFIRMED and leaves the email to the after-commit listener")
+    void updateOrderStatus_toConfirmed_publishesStatusChange() {
         Order confirmed = Order.builder()
                 .id(orderId)
                 .user(customer)
@@ -256,14 +427,12 @@ class OrderServiceImplTest {
         OrderResponse response = orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
 
         assertThat(response.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
-        verify(emailService).sendOrderConfirmationEmail(
-                eq(customer.getEmail()),
-                any(), any(), any(), any());
+        verify(eventPublisher).publishEvent(new OrderStatusChangedEvent(Set.of(orderId), OrderStatus.CONFIRMED));
     }
 
     @Test
-    @DisplayName("updateOrderStatus — updates status to CANCELLED without sending email")
-    void updateOrderStatus_toCancelled_doesNotSendEmail() {
+    @DisplayName("updateOrderStatus — updates status to CANCELLED and releases the reservation")
+    void updateOrderStatus_toCancelled_releasesReservation() {
         Order cancelled = Order.builder()
                 .id(orderId)
                 .user(customer)
@@ -278,28 +447,8 @@ class OrderServiceImplTest {
         OrderResponse response = orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
 
         assertThat(response.getStatus()).isEqualTo(OrderStatus.CANCELLED);
-        verifyNoInteractions(emailService);
-    }
-
-    @Test
-    @DisplayName("updateOrderStatus — email failure does not prevent status update")
-    void updateOrderStatus_emailFails_statusStillUpdated() {
-        Order confirmed = Order.builder()
-                .id(orderId)
-                .user(customer)
-                .status(OrderStatus.CONFIRMED)
-                .totalAmount(new BigDecimal("45000.00"))
-                .items(order.getItems())
-                .build();
-
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(confirmed);
-        doThrow(new RuntimeException("SMTP error"))
-                .when(emailService).sendOrderConfirmationEmail(any(), any(), any(), any(), any());
-
-        OrderResponse response = orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
-
-        assertThat(response.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        verify(stockReservationService).release(orderId);
+        verify(eventPublisher).publishEvent(new OrderStatusChangedEvent(Set.of(orderId), OrderStatus.CANCELLED));
     }
 
     @Test
@@ -313,4 +462,127 @@ class OrderServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining(unknownId.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("updateOrderStatus — rejects a move the transition table does not allow")
+    void updateOrderStatus_invalidTransition_throwsException() {
+        order.setStatus(OrderStatus.COMPLETED);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, OrderStatus.PENDING))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Cannot move order from COMPLETED to PENDING");
+        verify(orderRepository, never()).save(any());
+    }
+
+    // ── updateOrderStatuses (bulk) ────────────────────────────────────────────
+
+    @Test
+    @DisplayName("updateOrderStatuses — valid moves written in one versioned UPDATE, the rest reported")
+    void updateOrderStatuses_mixedOrders_validatedAndBatched() {
+        UUID pending     = UUID.randomUUID();
+        UUID completed   = UUID.randomUUID();
+        UUID confirmed   = UUID.randomUUID();
+        UUID missing     = UUID.randomUUID();
+        UUID raced       = UUID.randomUUID();
+        List<UUID> ids = List.of(pending, completed, confirmed, missing, raced);
+
+        when(orderRepository.findStatusRows(ids)).thenReturn(List.of(
+                new OrderStatusRow(pending, OrderStatus.PENDING, 3L),
+                new OrderStatusRow(completed, OrderStatus.COMPLETED, 7L),
+                new OrderStatusRow(confirmed, OrderStatus.CONFIRMED, 2L),
+                new OrderStatusRow(raced, OrderStatus.PENDING, 1L)));
+        // raced was changed by someone else after it was read
+        when(orderRepository.updateStatuses(any(), eq(OrderStatus.CONFIRMED))).thenReturn(List.of(pending));
+
+        BulkOrderStatusResult result = orderService.updateOrderStatuses(ids, OrderStatus.CONFIRMED);
+
+        verify(orderRepository).updateStatuses(Map.of(pending, 3L, raced, 1L), OrderStatus.CONFIRMED);
+        assertThat(result.updated()).containsExactly(pending);
+        assertThat(result.unchanged()).containsExactly(confirmed);
+        assertThat(result.rejected())
+                .extracting(BulkOrderStatusResult.Rejection::orderId)
+                .containsExactly(completed, missing, raced);
+        assertThat(result.rejected().get(2).reason()).contains("modified concurrently");
+        verify(eventPublisher).publishEvent(new OrderStatusChangedEvent(Set.of(pending), OrderStatus.CONFIRMED));
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    @DisplayName("updateOrderStatuses — cancelling releases the reservations of the updated orders only")
+    void updateOrderStatuses_cancel_releasesReservations() {
+        UUID first  = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<UUID> ids = List.of(first, second);
+
+        when(orderRepository.findStatusRows(ids)).thenReturn(List.of(
+                new OrderStatusRow(first, OrderStatus.PENDING, 0L),
+                new OrderStatusRow(second, OrderStatus.READY, 4L)));
+        when(orderRepository.updateStatuses(any(), eq(OrderStatus.CANCELLED))).thenReturn(List.of(second));
+
+        orderService.updateOrderStatuses(ids, OrderStatus.CANCELLED);
+
+        verify(stockReservationService).release(Set.of(second));
+    }
+
+    @Test
+    @DisplayName("updateOrderStatuses — nothing valid: no event published")
+    void updateOrderStatuses_nothingValid_noEvent() {
+        UUID cancelled = UUID.randomUUID();
+        when(orderRepository.findStatusRows(List.of(cancelled))).thenReturn(List.of(
+                new OrderStatusRow(cancelled, OrderStatus.CANCELLED, 0L)));
+        when(orderRepository.updateStatuses(Map.of(), OrderStatus.READY)).thenReturn(List.of());
+
+        BulkOrderStatusResult result = orderService.updateOrderStatuses(List.of(cancelled), OrderStatus.READY);
+
+        assertThat(result.updated()).isEmpty();
+        assertThat(result.rejected()).hasSize(1);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // ── searchOrders ──────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("searchOrders — text query: ids searched newest first, details loaded once, order kept")
+    void searchOrders_text_keepsSearchOrder() {
+        UUID newer = UUID.randomUUID();
+        UUID older = UUID.randomUUID();
+        when(orderRepository.searchIds("perera", null, 20)).thenReturn(List.of(newer, older));
+        when(orderRepository.findWithDetailsByIdIn(List.of(newer, older))).thenReturn(List.of(
+                Order.builder().id(older).status(OrderStatus.PENDING).build(),
+                Order.builder().id(newer).status(OrderStatus.CONFIRMED).build()));
+
+        List<OrderResponse> result = orderService.searchOrders("  Perera ", 20);
+
+        assertThat(result).extracting(OrderResponse::getId).containsExactly(newer, older);
+    }
+
+    @Test
+    @DisplayName("searchOrders — \"#AB12CD34\" from the email searches the id prefix and the text")
+    void searchOrders_emailOrderNumber_searchesIdPrefix() {
+        when(orderRepository.searchIds("ab12cd34", "ab12cd34", 20)).thenReturn(List.of());
+
+        assertThat(orderService.searchOrders("#AB12CD34", 20)).isEmpty();
+        verify(orderRepository, never()).findWithDetailsByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("searchOrders — limit is capped")
+    void searchOrders_largeLimit_capped() {
+        when(orderRepository.searchIds("lace", null, 50)).thenReturn(List.of());
+
+        orderService.searchOrders("lace", 10_000);
+
+        verify(orderRepository).searchIds("lace", null, 50);
+    }
+
+    @Test
+    @DisplayName("searchOrders — too short to search throws IllegalStateException")
+    void searchOrders_tooShort_throws() {
+        assertThatThrownBy(() -> orderService.searchOrders("ab", 20))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("at least 3");
+        verifyNoInteractions(orderRepository);
+    }
+}
@@ -4,18 +4,26 @@ import com.blanchebridal.backend.exception.ResourceNotFoundException;
 import com.blanchebridal.backend.exception.UnauthorizedException;
 import com.blanchebridal.backend.order.entity.Order;
 import com.blanchebridal.backend.order.entity.OrderItem;
+import com.blanchebridal.backend.order.entity.OrderFollowUp;
+import com.blanchebridal.backend.order.entity.OrderFollowUpReason;
 import com.blanchebridal.backend.order.entity.OrderStatus;
+import com.blanchebridal.backend.order.repository.OrderFollowUpRepository;
 import com.blanchebridal.backend.order.repository.OrderRepository;
 import com.blanchebridal.backend.payment.dto.res.PaymentInitiateResponse;
 import com.blanchebridal.backend.payment.dto.res.PaymentStatusResponse;
 import com.blanchebridal.backend.payment.entity.Payment;
 import com.blanchebridal.backend.payment.entity.PaymentMethod;
 import com.blanchebridal.backend.payment.entity.PaymentStatus;
-import com.blanchebridal.backend.payment.entity.Receipt;
+import com.blanchebridal.backend.payment.event.ReceiptRequestedEvent;
 import com.blanchebridal.backend.payment.repository.PaymentRepository;
-import com.blanchebridal.backend.payment.service.ReceiptService;
+import com.blanchebridal.backend.payment.service.ReceiptOutboxService;
 import com.blanchebridal.backend.payment.service.impl.PaymentServiceImpl;
 import com.blanchebridal.backend.payment.util.PayHereUtil;
+import com.blanchebridal.backend.product.dto.StockDeduction;
+import com.blanchebridal.backend.product.entity.Product;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
+import com.blanchebridal.backend.product.service.ProductStockService;
+import com.blanchebridal.backend.product.service.StockReservationService;
 import com.blanchebridal.backend.user.entity.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,11 +34,19 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,8 +58,12 @@ class PaymentServiceImplTest {
 
     @Mock private PaymentRepository paymentRepository;
     @Mock private OrderRepository   orderRepository;
+    @Mock private OrderFollowUpRepository orderFollowUpRepository;
     @Mock private PayHereUtil       payHereUtil;
-    @Mock private ReceiptService    receiptService;
+    @Mock private ReceiptOutboxService receiptOutboxService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private ProductStockService productStockService;
+    @Mock private StockReservationService stockReservationService;
 
     @InjectMocks
     private PaymentServiceImpl paymentService;
@@ -212,15 +232,15 @@ class PaymentServiceImplTest {
         }
 
         @Test
-        @DisplayName("marks payment COMPLETED, order CONFIRMED, and generates receipt on success")
+        @DisplayName("marks payment COMPLETED, order CONFIRMED, and queues the receipt on success")
         void successfulWebhook() {
             when(payHereUtil.generateHash("test_merchant", ORDER_ID.toString(),
                     "15000.00", "LKR")).thenReturn("MATCHING_HASH");
             when(paymentRepository.findByPayhereOrderId(ORDER_ID.toString()))
                     .thenReturn(Optional.of(pendingPayment));
+            when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
             when(paymentRepository.save(any())).thenReturn(pendingPayment);
             when(orderRepository.save(any())).thenReturn(order);
-            when(receiptService.generateReceipt(any(), any())).thenReturn(mock(Receipt.class));
 
             paymentService.handleWebhook(validParams());
 
@@ -228,7 +248,8 @@ class PaymentServiceImplTest {
             assertThat(pendingPayment.getPayherePaymentId()).isEqualTo("PAY-XYZ-001");
             assertThat(pendingPayment.getPaidAt()).isNotNull();
             assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
-            verify(receiptService).generateReceipt(order, pendingPayment);
+            verify(receiptOutboxService).enqueue(order.getId(), pendingPayment.getId());
+            verify(eventPublisher).publishEvent(new ReceiptRequestedEvent(order.getId()));
         }
 
         @Test
@@ -268,6 +289,81 @@ class PaymentServiceImplTest {
             assertThatNoException().isThrownBy(() -> paymentService.handleWebhook(validParams()));
         }
 
+        @Test
+        @DisplayName("locks the order before completing the payment")
+        void locksOrderFirst() {
+            when(payHereUtil.generateNotifyHash(any(), any(), any(), any(), any())).thenReturn("MATCHING_HASH");
+            when(paymentRepository.findByPayhereOrderId(ORDER_ID.toString()))
+                    .thenReturn(Optional.of(pendingPayment));
+            when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+            when(paymentRepository.markCompleted(any(), any(), any())).thenReturn(1);
+            when(productStockService.deductStock(any())).thenReturn(new StockDeduction(Set.of(), Map.of()));
+
+            paymentService.handleWebhook(validParams());
+
+            var inOrder = inOrder(orderRepository, paymentRepository);
+            inOrder.verify(orderRepository).findByIdForUpdate(ORDER_ID);
+            inOrder.verify(paymentRepository).markCompleted(any(), eq("PAY-XYZ-001"), any());
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+            verifyNoInteractions(orderFollowUpRepository);
+        }
+
+        @Test
+        @DisplayName("products that could not be deducted are recorded for staff follow-up")
+        @SuppressWarnings("unchecked")
+        void oversoldProducts_recordedForFollowUp() {
+            Product gown = new Product();
+            gown.setId(UUID.randomUUID());
+            order.getItems().get(0).setProduct(gown);
+            when(payHereUtil.generateNotifyHash(any(), any(), any(), any(), any())).thenReturn("MATCHING_HASH");
+            when(paymentRepository.findByPayhereOrderId(ORDER_ID.toString()))
+                    .thenReturn(Optional.of(pendingPayment));
+            when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+            when(paymentRepository.markCompleted(any(), any(), any())).thenReturn(1);
+            when(productStockService.deductStock(any()))
+                    .thenReturn(new StockDeduction(Set.of(), Map.of(gown.getId(), 1)));
+
+            paymentService.handleWebhook(validParams());
+
+            ArgumentCaptor<List<OrderFollowUp>> captor = ArgumentCaptor.forClass(List.class);
+            verify(orderFollowUpRepository).saveAll(captor.capture());
+            assertThat(captor.getValue()).singleElement().satisfies(o -> {
+                assertThat(o.getOrder()).isSameAs(order);
+                assertThat(o.getReason()).isEqualTo(OrderFollowUpReason.OVERSOLD);
+                assertThat(o.getProduct()).isSameAs(gown);
+                assertThat(o.getProductName()).isEqualTo("Ivory Gown");
+                assertThat(o.getQuantity()).isEqualTo(1);
+                assertThat(o.getResolvedAt()).isNull();
+            });
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+            verify(receiptOutboxService).enqueue(ORDER_ID, pendingPayment.getId());
+        }
+
+        @Test
+        @DisplayName("payment for an order that already expired — order stays CANCELLED, no stock or receipt, refund queued")
+        void cancelledOrder_notRevived() {
+            order.setStatus(OrderStatus.CANCELLED);
+            when(payHereUtil.generateNotifyHash(any(), any(), any(), any(), any())).thenReturn("MATCHING_HASH");
+            when(paymentRepository.findByPayhereOrderId(ORDER_ID.toString()))
+                    .thenReturn(Optional.of(pendingPayment));
+            when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+            when(paymentRepository.markCompleted(any(), any(), any())).thenReturn(1);
+
+            paymentService.handleWebhook(validParams());
+
+            assertThat(pendingPayment.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+            verify(orderRepository, never()).save(any());
+            verifyNoInteractions(stockReservationService, productStockService, receiptOutboxService);
+
+            ArgumentCaptor<OrderFollowUp> captor = ArgumentCaptor.forClass(OrderFollowUp.class);
+            verify(orderFollowUpRepository).save(captor.capture());
+            assertThat(captor.getValue().getReason()).isEqualTo(OrderFollowUpReason.PAID_AFTER_CANCEL);
+            assertThat(captor.getValue().getOrder()).isSameAs(order);
+            assertThat(captor.getValue().getPaymentId()).isEqualTo(pendingPayment.getId());
+            assertThat(captor.getValue().getAmount()).isEqualByComparingTo("15000.00");
+        }
+
         @Test
         @DisplayName("hash comparison is case-insensitive")
         void hashCaseInsensitive() {
@@ -277,15 +373,140 @@ class PaymentServiceImplTest {
             params.put("md5sig", "ABCDEF123456");    // uppercase version
             when(paymentRepository.findByPayhereOrderId(any()))
                     .thenReturn(Optional.of(pendingPayment));
+            when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
             when(paymentRepository.save(any())).thenReturn(pendingPayment);
             when(orderRepository.save(any())).thenReturn(order);
-            when(receiptService.generateReceipt(any(), any())).thenReturn(mock(Receipt.class));
 
             assertThatNoException().isThrownBy(() -> paymentService.handleWebhook(params));
             assertThat(pendingPayment.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
         }
     }
 
+    // ═════════════════════════════════════════════════════════════════════════
+    //  handleWebhook — concurrent deliveries
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("handleWebhook() under concurrency")
+    class ConcurrentWebhooks {
+
+        private static final int THREADS = 32;
+
+        private final UUID dressId = UUID.randomUUID();
+
+        // Same contract as the conditional UPDATE: a product is decremented
+        // only if it still has enough stock, atomically per row
+        private final AtomicInteger dressStock = new AtomicInteger();
+        private final ProductStockService atomicStock = quantities -> {
+            int qty = quantities.get(dressId);
+            while (true) {
+                int current = dressStock.get();
+                if (current < qty) return new StockDeduction(Set.of(), Map.of(dressId, qty));
+                if (dressStock.compareAndSet(current, current - qty)) {
+                    return new StockDeduction(Set.of(dressId), Map.of());
+                }
+            }
+        };
+
+        // Mirrors the compare-and-set on payments.status
+        private final Set<UUID> completedPayments = ConcurrentHashMap.newKeySet();
+
+        private final Map<UUID, Order> orders = new ConcurrentHashMap<>();
+
+        private PaymentServiceImpl service;
+
+        @BeforeEach
+        void setUpConcurrent() {
+            service = new PaymentServiceImpl(paymentRepository, orderRepository, orderFollowUpRepository, atomicStock,
+                    stockReservationService, payHereUtil, receiptOutboxService, eventPublisher);
+            when(payHereUtil.generateNotifyHash(any(), any(), any(), any(), any())).thenReturn("MATCHING_HASH");
+            when(paymentRepository.markCompleted(any(), any(), any()))
+                    .thenAnswer(inv -> completedPayments.add(inv.getArgument(0)) ? 1 : 0);
+            when(orderRepository.findByIdForUpdate(any()))
+                    .thenAnswer(inv -> Optional.ofNullable(orders.get(inv.<UUID>getArgument(0))));
+        }
+
+        private Payment paidOrderFor(int quantity) {
+            Product dress = new Product();
+            dress.setId(dressId);
+            OrderItem line = OrderItem.builder().product(dress).quantity(quantity)
+                    .unitPrice(new BigDecimal("15000.00")).build();
+            Order o = Order.builder().id(UUID.randomUUID()).user(customer).status(OrderStatus.PENDING)
+                    .totalAmount(new BigDecimal("15000.00")).items(new ArrayList<>(List.of(line))).build();
+            orders.put(o.getId(), o);
+            return Payment.builder().id(UUID.randomUUID()).order(o).amount(o.getTotalAmount())
+                    .method(PaymentMethod.PAYHERE).status(PaymentStatus.PENDING)
+                    .payhereOrderId(o.getId().toString()).build();
+        }
+
+        private Map<String, String> webhookFor(Payment payment) {
+            Map<String, String> p = new HashMap<>();
+            p.put("order_id", payment.getPayhereOrderId());
+            p.put("status_code", "2");
+            p.put("md5sig", "MATCHING_HASH");
+            p.put("payment_id", "PAY-" + payment.getId());
+            return p;
+        }
+
+        private void fireInParallel(List<Map<String, String>> webhooks) throws Exception {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (Map<String, String> params : webhooks) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        service.handleWebhook(params);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> f : results) f.get(30, TimeUnit.SECONDS);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("300 paid orders racing for 100 units — exactly 100 deducted, never below zero")
+        void manyOrdersForLastUnits_neverOversells() throws Exception {
+            dressStock.set(100);
+            Map<String, Payment> payments = new ConcurrentHashMap<>();
+            List<Map<String, String>> webhooks = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                Payment payment = paidOrderFor(1);
+                payments.put(payment.getPayhereOrderId(), payment);
+                webhooks.add(webhookFor(payment));
+            }
+            when(paymentRepository.findByPayhereOrderId(any()))
+                    .thenAnswer(inv -> Optional.of(payments.get(inv.<String>getArgument(0))));
+
+            fireInParallel(webhooks);
+
+            assertThat(dressStock.get()).isZero();
+            assertThat(completedPayments).hasSize(300);
+            verify(eventPublisher, times(100)).publishEvent(new ProductChangedEvent(Set.of(dressId)));
+            verify(orderFollowUpRepository, times(200)).saveAll(anyList());
+            verify(receiptOutboxService, times(300)).enqueue(any(), any());
+        }
+
+        @Test
+        @DisplayName("200 duplicate deliveries of one webhook — stock deducted and receipt queued once")
+        void duplicateDeliveries_processedOnce() throws Exception {
+            dressStock.set(10);
+            Payment payment = paidOrderFor(2);
+            when(paymentRepository.findByPayhereOrderId(payment.getPayhereOrderId()))
+                    .thenReturn(Optional.of(payment));
+
+            fireInParallel(Collections.nCopies(200, webhookFor(payment)));
+
+            assertThat(dressStock.get()).isEqualTo(8);
+            assertThat(payment.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+            verify(stockReservationService, times(1)).convert(payment.getOrder().getId());
+            verify(receiptOutboxService, times(1)).enqueue(any(), any());
+        }
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     //  getPaymentStatus
     // ═════════════════════════════════════════════════════════════════════════
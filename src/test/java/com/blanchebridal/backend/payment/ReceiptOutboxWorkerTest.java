@@ -0,0 +1,119 @@
+package com.blanchebridal.backend.payment;
+
+import com.blanchebridal.backend.payment.dto.ReceiptOutboxEntry;
+import com.blanchebridal.backend.payment.entity.Receipt;
+import com.blanchebridal.backend.payment.scheduler.ReceiptOutboxWorker;
+import com.blanchebridal.backend.payment.service.ReceiptOutboxService;
+import com.blanchebridal.backend.payment.service.ReceiptService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReceiptOutboxWorkerTest {
+
+    private static final long WAIT_MS = 2_000;
+
+    @Mock private ReceiptOutboxService receiptOutboxService;
+    @Mock private ReceiptService receiptService;
+
+    private ReceiptOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new ReceiptOutboxWorker(receiptOutboxService, receiptService, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // POLL
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("poll: generated receipt is marked done")
+    void poll_success_marksDone() {
+        UUID orderId = UUID.randomUUID();
+        when(receiptOutboxService.claimDue(anyInt(), any())).thenReturn(List.of(new ReceiptOutboxEntry(orderId, 1)));
+        when(receiptService.generateReceipt(orderId)).thenReturn(mock(Receipt.class));
+
+        worker.poll();
+
+        verify(receiptOutboxService, timeout(WAIT_MS)).markDone(orderId);
+        verify(receiptOutboxService, never()).retryLater(any(), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("poll: failed third attempt is rescheduled 2 minutes out (30s doubling)")
+    void poll_failure_retriesWithBackoff() {
+        UUID orderId = UUID.randomUUID();
+        when(receiptOutboxService.claimDue(anyInt(), any())).thenReturn(List.of(new ReceiptOutboxEntry(orderId, 3)));
+        when(receiptService.generateReceipt(orderId)).thenThrow(new IllegalStateException("upload timed out"));
+
+        worker.poll();
+
+        verify(receiptOutboxService, timeout(WAIT_MS))
+                .retryLater(eq(orderId), eq(Duration.ofMinutes(2)), contains("upload timed out"));
+        verify(receiptOutboxService, never()).markDone(any());
+    }
+
+    @Test
+    @DisplayName("poll: last allowed attempt failing parks the row as FAILED")
+    void poll_finalFailure_markedFailed() {
+        UUID orderId = UUID.randomUUID();
+        when(receiptOutboxService.claimDue(anyInt(), any())).thenReturn(List.of(new ReceiptOutboxEntry(orderId, 8)));
+        when(receiptService.generateReceipt(orderId)).thenThrow(new IllegalStateException("broken"));
+
+        worker.poll();
+
+        verify(receiptOutboxService, timeout(WAIT_MS)).markFailed(eq(orderId), contains("broken"));
+        verify(receiptOutboxService, never()).retryLater(any(), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("poll: claims no more than the pool has room for")
+    void poll_busyPool_claimsOnlyFreeCapacity() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UUID slow = UUID.randomUUID();
+        when(receiptService.generateReceipt(slow)).thenAnswer(inv -> {
+            running.countDown();
+            release.await(WAIT_MS, TimeUnit.MILLISECONDS);
+            return mock(Receipt.class);
+        });
+        when(receiptOutboxService.claimDue(anyInt(), any()))
+                .thenReturn(List.of(new ReceiptOutboxEntry(slow, 1)))
+                .thenReturn(List.of(new ReceiptOutboxEntry(UUID.randomUUID(), 1),
+                                    new ReceiptOutboxEntry(UUID.randomUUID(), 1)))
+                .thenReturn(List.of());
+
+        worker.poll();
+        assertThat(running.await(WAIT_MS, TimeUnit.MILLISECONDS)).isTrue();
+        worker.poll();   // worker busy, both queue slots free
+        worker.poll();   // worker busy, queue full — nothing claimed
+        release.countDown();
+
+        verify(receiptOutboxService, times(2)).claimDue(eq(2), any());
+        verify(receiptOutboxService, timeout(WAIT_MS).times(3)).markDone(any());
+        verifyNoMoreInteractions(ignoreStubs(receiptOutboxService));
+    }
+}
@@ -0,0 +1,143 @@
+package com.blanchebridal.backend.payment;
+
+import com.blanchebridal.backend.order.entity.Order;
+import com.blanchebridal.backend.order.entity.OrderItem;
+import com.blanchebridal.backend.order.entity.OrderStatus;
+import com.blanchebridal.backend.order.repository.OrderRepository;
+import com.blanchebridal.backend.payment.entity.Payment;
+import com.blanchebridal.backend.payment.entity.PaymentMethod;
+import com.blanchebridal.backend.payment.entity.PaymentStatus;
+import com.blanchebridal.backend.payment.entity.Receipt;
+import com.blanchebridal.backend.payment.repository.PaymentRepository;
+import com.blanchebridal.backend.payment.repository.ReceiptRepository;
+import com.blanchebridal.backend.payment.service.impl.ReceiptServiceImpl;
+import com.blanchebridal.backend.payment.storage.LocalReceiptStorage;
+import com.blanchebridal.backend.payment.storage.ReceiptStorage;
+import com.blanchebridal.backend.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReceiptServiceImplTest {
+
+    @Mock private ReceiptRepository receiptRepository;
+    @Mock private OrderRepository orderRepository;
+    @Mock private PaymentRepository paymentRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @TempDir Path receiptDir;
+
+    private final int year = LocalDateTime.now().getYear();
+    private final UUID orderId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        User customer = User.builder().id(UUID.randomUUID()).email("bride@example.com")
+                .firstName("Nadia").lastName("Perera").build();
+        Order order = Order.builder().id(orderId).user(customer).status(OrderStatus.CONFIRMED)
+                .totalAmount(new BigDecimal("15000.00")).createdAt(LocalDateTime.now())
+                .items(List.of(OrderItem.builder().productName("Lace Gown").size("M").quantity(1)
+                        .unitPrice(new BigDecimal("15000.00")).build()))
+                .build();
+        Payment payment = Payment.builder().id(UUID.randomUUID()).order(order).amount(order.getTotalAmount())
+                .method(PaymentMethod.PAYHERE).status(PaymentStatus.COMPLETED)
+                .paidAt(LocalDateTime.now()).payherePaymentId("PAY-1").build();
+
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.of(order));
+        when(paymentRepository.findByOrder_Id(orderId)).thenReturn(Optional.of(payment));
+        when(receiptRepository.nextReceiptSequence(year)).thenReturn(42);
+        when(receiptRepository.saveAndFlush(any(Receipt.class))).thenAnswer(inv -> {
+            Receipt receipt = inv.getArgument(0);
+            receipt.setId(UUID.randomUUID());
+            return receipt;
+        });
+    }
+
+    private ReceiptServiceImpl service(ReceiptStorage storage) {
+        return new ReceiptServiceImpl(receiptRepository, orderRepository, paymentRepository, storage, transactionManager);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // GENERATE
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("generateReceipt: takes the next number from the year's counter, stores the PDF, records its URL")
+    void generateReceipt_newReceipt_storedAndRecorded() throws Exception {
+        when(receiptRepository.findByOrder_Id(orderId)).thenReturn(Optional.empty());
+
+        Receipt receipt = service(new LocalReceiptStorage(receiptDir)).generateReceipt(orderId);
+
+        String number = "RCP-%d-00042".formatted(year);
+        Path pdf = receiptDir.resolve(number + ".pdf");
+        assertThat(receipt.getReceiptNumber()).isEqualTo(number);
+        assertThat(Files.readString(pdf, StandardCharsets.ISO_8859_1)).startsWith("%PDF");
+        assertThat(receipt.getPdfUrl()).isEqualTo(pdf.toUri().toString());
+        verify(receiptRepository).nextReceiptSequence(year);
+        verify(receiptRepository).updatePdfUrl(receipt.getId(), receipt.getPdfUrl());
+    }
+
+    @Test
+    @DisplayName("generateReceipt: already stored — returned as is, nothing rendered or uploaded")
+    void generateReceipt_alreadyStored_noop() {
+        Receipt stored = Receipt.builder().id(UUID.randomUUID()).receiptNumber("RCP-2026-00007")
+                .pdfUrl("https://cdn.example/RCP-2026-00007").build();
+        when(receiptRepository.findByOrder_Id(orderId)).thenReturn(Optional.of(stored));
+        ReceiptStorage storage = mock(ReceiptStorage.class);
+
+        assertThat(service(storage).generateReceipt(orderId)).isSameAs(stored);
+        verifyNoInteractions(storage);
+        verify(receiptRepository, never()).saveAndFlush(any());
+        verify(receiptRepository, never()).updatePdfUrl(any(), any());
+    }
+
+    @Test
+    @DisplayName("generateReceipt: retry after a failed upload keeps the reserved number")
+    void generateReceipt_reservedWithoutPdf_reusesNumber() {
+        Receipt reserved = Receipt.builder().id(UUID.randomUUID()).receiptNumber("RCP-2026-00007").build();
+        when(receiptRepository.findByOrder_Id(orderId)).thenReturn(Optional.of(reserved));
+
+        Receipt receipt = service(new LocalReceiptStorage(receiptDir)).generateReceipt(orderId);
+
+        assertThat(receipt.getReceiptNumber()).isEqualTo("RCP-2026-00007");
+        assertThat(receiptDir.resolve("RCP-2026-00007.pdf")).exists();
+        verify(receiptRepository, never()).saveAndFlush(any());
+        verify(receiptRepository, never()).nextReceiptSequence(anyInt());
+    }
+
+    @Test
+    @DisplayName("generateReceipt: upload failure surfaces to the caller, URL not recorded")
+    void generateReceipt_uploadFails_throws() {
+        when(receiptRepository.findByOrder_Id(orderId)).thenReturn(Optional.empty());
+        ReceiptStorage failing = (number, pdf) -> { throw new IOException("Cloudinary timed out"); };
+
+        assertThatThrownBy(() -> service(failing).generateReceipt(orderId))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasRootCauseMessage("Cloudinary timed out");
+        verify(receiptRepository, never()).updatePdfUrl(any(), any());
+    }
+}
@@ -2,19 +2,22 @@ package com.blanchebridal.backend.product;
 
 import com.blanchebridal.backend.exception.ConflictException;
 import com.blanchebridal.backend.exception.ResourceNotFoundException;
+import com.blanchebridal.backend.product.cache.CategoryTreeCache;
+import com.blanchebridal.backend.product.dto.CategoryRow;
 import com.blanchebridal.backend.product.dto.req.CreateCategoryRequest;
 import com.blanchebridal.backend.product.dto.req.UpdateCategoryRequest;
 import com.blanchebridal.backend.product.dto.res.CategoryResponse;
 import com.blanchebridal.backend.product.entity.Category;
+import com.blanchebridal.backend.product.event.CategoryChangedEvent;
 import com.blanchebridal.backend.product.repository.CategoryRepository;
 import com.blanchebridal.backend.product.service.impl.CategoryServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,7 +35,12 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // Real tree cache over the mocked repository so snapshot reuse is observable
+    private CategoryTreeCache categoryTreeCache;
+
     private CategoryServiceImpl categoryService;
 
     private Category parentCategory;
@@ -42,6 +50,9 @@ class CategoryServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        categoryTreeCache = new CategoryTreeCache(categoryRepository);
+        categoryService = new CategoryServiceImpl(categoryRepository, categoryTreeCache, eventPublisher);
+
         parentId = UUID.randomUUID();
         childId  = UUID.randomUUID();
 
@@ -64,6 +75,13 @@ class CategoryServiceImplTest {
                 .build();
     }
 
+    // What the category tree query returns for an active category
+    private CategoryRow toRow(Category c) {
+        Category p = c.getParent();
+        return new CategoryRow(c.getId(), c.getName(), c.getSlug(),
+                p != null ? p.getId() : null, p != null ? p.getName() : null, c.getCreatedAt());
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     // GET ALL CATEGORIES
     // ═════════════════════════════════════════════════════════════════════════
@@ -71,26 +89,58 @@ class CategoryServiceImplTest {
     @Test
     @DisplayName("getAllCategories: returns all categories including children")
     void getAllCategories_returnsAll() {
-        when(categoryRepository.findAllByIsActiveTrue())
-                .thenReturn(List.of(parentCategory, childCategory));
+        when(categoryRepository.findActiveRows())
+                .thenReturn(List.of(toRow(childCategory), toRow(parentCategory)));
 
         List<CategoryResponse> result = categoryService.getAllCategories();
 
+        // Parents come before their children regardless of query order
         assertThat(result).hasSize(2);
         assertThat(result.get(0).name()).isEqualTo("Bridal Gowns");
         assertThat(result.get(1).name()).isEqualTo("Ball Gowns");
+        assertThat(result.get(1).parentName()).isEqualTo("Bridal Gowns");
+    }
+
+    @Test
+    @DisplayName("getAllCategories: served from the in-memory tree until a category change commits")
+    void getAllCategories_snapshotReusedUntilChange() {
+        when(categoryRepository.findActiveRows())
+                .thenReturn(List.of(toRow(parentCategory)))
+                .thenReturn(List.of(toRow(parentCategory), toRow(childCategory)));
+
+        assertThat(categoryService.getAllCategories()).hasSize(1);
+        assertThat(categoryService.getAllCategories()).hasSize(1);
+
+        categoryTreeCache.onCategoryChanged(new CategoryChangedEvent());
+
+        assertThat(categoryService.getAllCategories()).hasSize(2);
+        verify(categoryRepository, times(2)).findActiveRows();
+        verify(categoryRepository, never()).findAllByIsActiveTrue();
     }
 
     @Test
     @DisplayName("getAllCategories: returns empty list when no categories exist")
     void getAllCategories_empty_returnsEmptyList() {
-        when(categoryRepository.findAllByIsActiveTrue()).thenReturn(List.of());
+        when(categoryRepository.findActiveRows()).thenReturn(List.of());
 
         List<CategoryResponse> result = categoryService.getAllCategories();
 
         assertThat(result).isEmpty();
     }
 
+    @Test
+    @DisplayName("getCategoriesETag: tracks the category revision")
+    void getCategoriesETag_followsRevision() {
+        when(categoryRepository.findRevision()).thenReturn(7L, 8L);
+
+        String before = categoryService.getCategoriesETag();
+        String after  = categoryService.getCategoriesETag();
+
+        assertThat(before).isEqualTo("\"categories-7\"");
+        assertThat(after).isNotEqualTo(before);
+        verify(categoryRepository, never()).findAllByIsActiveTrue();
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     // GET CATEGORY BY ID
     // ═════════════════════════════════════════════════════════════════════════
@@ -159,6 +209,7 @@ class CategoryServiceImplTest {
         assertThat(result.name()).isEqualTo("Veils");
         assertThat(result.slug()).isEqualTo("veils");
         assertThat(result.parentId()).isNull();
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent());
     }
 
     @Test
@@ -268,6 +319,22 @@ class CategoryServiceImplTest {
                 .hasMessageContaining("cannot be its own parent");
     }
 
+    @Test
+    @DisplayName("updateCategory: fail — moving a category under its own subcategory throws ConflictException")
+    void updateCategory_parentIsDescendant_throwsConflict() {
+        when(categoryRepository.findByIdAndIsActiveTrue(parentId)).thenReturn(Optional.of(parentCategory));
+        when(categoryRepository.findActiveRows())
+                .thenReturn(List.of(toRow(parentCategory), toRow(childCategory)));
+
+        UpdateCategoryRequest request = new UpdateCategoryRequest(
+                "Bridal Gowns", "bridal-gowns", childId);
+
+        assertThatThrownBy(() -> categoryService.updateCategory(parentId, request))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("own subcategory");
+        verify(categoryRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("updateCategory: fail — unknown id throws ResourceNotFoundException")
     void updateCategory_notFound_throwsException() {
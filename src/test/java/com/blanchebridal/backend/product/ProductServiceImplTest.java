@@ -2,40 +2,59 @@ package com.blanchebridal.backend.product;
 
 import com.blanchebridal.backend.exception.ConflictException;
 import com.blanchebridal.backend.exception.ResourceNotFoundException;
+import com.blanchebridal.backend.product.cache.CategoryTreeCache;
+import com.blanchebridal.backend.product.cache.ProductDetailCache;
+import com.blanchebridal.backend.product.cache.ProductSuggestIndex;
+import com.blanchebridal.backend.product.dto.CategoryRow;
+import com.blanchebridal.backend.product.dto.ProductCursor;
+import com.blanchebridal.backend.product.dto.ProductFacetRow;
 import com.blanchebridal.backend.product.dto.ProductFilters;
+import com.blanchebridal.backend.product.dto.ProductPriceBucket;
+import com.blanchebridal.backend.product.dto.ProductSortField;
+import com.blanchebridal.backend.product.dto.ProductSummaryRow;
+import com.blanchebridal.backend.product.dto.ProductVersion;
 import com.blanchebridal.backend.product.dto.req.CreateProductRequest;
 import com.blanchebridal.backend.product.dto.req.UpdateProductRequest;
+import com.blanchebridal.backend.product.dto.res.ProductCursorPage;
 import com.blanchebridal.backend.product.dto.res.ProductDetailResponse;
+import com.blanchebridal.backend.product.dto.res.ProductFacetsResponse;
+import com.blanchebridal.backend.product.dto.res.ProductSuggestion;
 import com.blanchebridal.backend.product.dto.res.ProductSummaryResponse;
 import com.blanchebridal.backend.product.entity.Category;
 import com.blanchebridal.backend.product.entity.Product;
 import com.blanchebridal.backend.product.entity.ProductImage;
 import com.blanchebridal.backend.product.entity.ProductType;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
 import com.blanchebridal.backend.product.repository.CategoryRepository;
 import com.blanchebridal.backend.product.repository.ProductImageRepository;
 import com.blanchebridal.backend.product.repository.ProductRepository;
 import com.blanchebridal.backend.product.service.impl.ProductServiceImpl;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -51,8 +70,14 @@ class ProductServiceImplTest {
     @Mock
     private ProductImageRepository productImageRepository;
 
-    // ObjectMapper is NOT mocked — we use the real one so JSON serialization works
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // Real cache so read-through and invalidation behave as in production
+    private ProductDetailCache productDetailCache;
+
+    // Real index over the mocked repository, refreshed through its event listener
+    private ProductSuggestIndex productSuggestIndex;
 
     @InjectMocks
     private ProductServiceImpl productService;
@@ -60,15 +85,20 @@ class ProductServiceImplTest {
     private Category category;
     private Product dress;
     private Product accessory;
+    private ProductSummaryRow dressRow;
+    private ProductSummaryRow accessoryRow;
     private UUID categoryId;
     private UUID dressId;
     private UUID accessoryId;
 
     @BeforeEach
     void setUp() {
-        // Inject the real ObjectMapper manually since @InjectMocks won't pick it up
-        // without a Spring context
-        productService = new ProductServiceImpl(productRepository, categoryRepository, objectMapper, productImageRepository);
+        // Built manually so the real cache (not a mock) is injected
+        productDetailCache = new ProductDetailCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        productSuggestIndex = new ProductSuggestIndex(productRepository);
+        productService = new ProductServiceImpl(productRepository, categoryRepository,
+                productImageRepository, productDetailCache, new CategoryTreeCache(categoryRepository),
+                productSuggestIndex, eventPublisher);
 
         categoryId   = UUID.randomUUID();
         dressId      = UUID.randomUUID();
@@ -92,7 +122,7 @@ class ProductServiceImplTest {
                 .rentalPrice(new BigDecimal("5000.00"))
                 .purchasePrice(new BigDecimal("25000.00"))
                 .stock(3)
-                .sizes("[\"S\",\"M\",\"L\"]")
+                .sizes(List.of("S", "M", "L"))
                 .images(new ArrayList<>())
                 .isAvailable(true)
                 .isActive(true)
@@ -109,13 +139,26 @@ class ProductServiceImplTest {
                 .category(category)
                 .purchasePrice(new BigDecimal("3500.00"))
                 .stock(10)
-                .sizes("[]")
+                .sizes(List.of())
                 .images(new ArrayList<>())
                 .isAvailable(true)
                 .isActive(true)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+
+        dressRow     = toRow(dress, "https://cdn.example.com/lace-1.jpg");
+        accessoryRow = toRow(accessory, null);
+    }
+
+    // What the listing projection returns for a product
+    private ProductSummaryRow toRow(Product p, String firstImageUrl) {
+        return new ProductSummaryRow(
+                p.getId(), p.getName(), p.getSlug(), p.getType(),
+                p.getRentalPrice(), p.getPurchasePrice(),
+                p.getRentalPrice() != null ? p.getRentalPrice() : p.getPurchasePrice(),
+                p.getStock(), p.getIsAvailable(), p.getRatingAvg(),
+                p.getCreatedAt(), firstImageUrl, p.getCategory().getId(), p.getCategory().getName());
     }
 
     // ═════════════════════════════════════════════════════════════════════════
@@ -126,13 +169,13 @@ class ProductServiceImplTest {
     @DisplayName("getProducts: returns paginated list of all products")
     void getProducts_returnsAll() {
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Product> fakePage = new PageImpl<>(List.of(dress, accessory), pageable, 2);
+        Page<ProductSummaryRow> fakePage = new PageImpl<>(List.of(dressRow, accessoryRow), pageable, 2);
 
         // any(Specification.class) — we don't care which spec, just return our fake page
-        when(productRepository.findAll(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
                 .thenReturn(fakePage);
 
-        ProductFilters filters = new ProductFilters(null, null, null, null, null, null);
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
         Page<ProductSummaryResponse> result = productService.getProducts(filters, pageable);
 
         assertThat(result.getTotalElements()).isEqualTo(2);
@@ -144,12 +187,12 @@ class ProductServiceImplTest {
     @DisplayName("getProducts: filtered by type DRESS returns only dresses")
     void getProducts_filterByType_returnsDressesOnly() {
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Product> fakePage = new PageImpl<>(List.of(dress), pageable, 1);
+        Page<ProductSummaryRow> fakePage = new PageImpl<>(List.of(dressRow), pageable, 1);
 
-        when(productRepository.findAll(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
                 .thenReturn(fakePage);
 
-        ProductFilters filters = new ProductFilters(ProductType.DRESS, null, null, null, null, null);
+        ProductFilters filters = new ProductFilters(ProductType.DRESS, null, null, null, null, null, null, false);
         Page<ProductSummaryResponse> result = productService.getProducts(filters, pageable);
 
         assertThat(result.getTotalElements()).isEqualTo(1);
@@ -160,18 +203,314 @@ class ProductServiceImplTest {
     @DisplayName("getProducts: empty result returns empty page")
     void getProducts_noMatch_returnsEmptyPage() {
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Product> emptyPage = new PageImpl<>(List.of(), pageable, 0);
+        Page<ProductSummaryRow> emptyPage = new PageImpl<>(List.of(), pageable, 0);
 
-        when(productRepository.findAll(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
                 .thenReturn(emptyPage);
 
-        ProductFilters filters = new ProductFilters(null, null, "nonexistent", null, null, null);
+        ProductFilters filters = new ProductFilters(null, null, "nonexistent", null, null, null, null, false);
         Page<ProductSummaryResponse> result = productService.getProducts(filters, pageable);
 
         assertThat(result.getTotalElements()).isZero();
         assertThat(result.getContent()).isEmpty();
     }
 
+    @Test
+    @DisplayName("getProducts: one listing query per page — no per-row image or category loads")
+    void getProducts_singleQueryPerPage_noLazyLoads() {
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<ProductSummaryRow> fakePage = new PageImpl<>(List.of(dressRow, accessoryRow), pageable, 2);
+
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
+                .thenReturn(fakePage);
+
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
+        Page<ProductSummaryResponse> result = productService.getProducts(filters, pageable);
+
+        assertThat(result.getContent().getFirst().firstImageUrl()).isEqualTo("https://cdn.example.com/lace-1.jpg");
+        assertThat(result.getContent().getFirst().category().name()).isEqualTo("Bridal Gowns");
+        assertThat(result.getContent().get(1).firstImageUrl()).isNull();
+
+        verify(productRepository, times(1))
+                .findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class));
+        verifyNoMoreInteractions(productRepository);
+        verifyNoInteractions(productImageRepository, categoryRepository);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // GET PRODUCTS (CURSOR)
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("getProductsByCursor: extra row yields a nextCursor pointing at the last returned row")
+    void getProductsByCursor_morePages_returnsNextCursor() {
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), eq(2)))
+                .thenReturn(List.of(dressRow, accessoryRow));
+
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
+        ProductCursorPage result = productService.getProductsByCursor(
+                filters, ProductSortField.NAME, Sort.Direction.ASC, null, 1);
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.content().getFirst().id()).isEqualTo(dressId);
+
+        ProductCursor next = ProductCursor.decode(result.nextCursor());
+        assertThat(next.id()).isEqualTo(dressId);
+        assertThat(next.value()).isEqualTo("Lace Wedding Dress");
+        verify(productRepository, never()).count(ArgumentMatchers.<Specification<Product>>any());
+    }
+
+    @Test
+    @DisplayName("getProductsByCursor: sort=price seeks on the effective price")
+    void getProductsByCursor_byPrice_cursorCarriesEffectivePrice() {
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), eq(2)))
+                .thenReturn(List.of(accessoryRow, dressRow));
+
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
+        ProductCursorPage result = productService.getProductsByCursor(
+                filters, ProductSortField.fromParam("price"), Sort.Direction.ASC, null, 1);
+
+        ProductCursor next = ProductCursor.decode(result.nextCursor());
+        assertThat(next.field()).isEqualTo(ProductSortField.PRICE);
+        assertThat(next.value()).isEqualTo(new BigDecimal("3500.00"));
+    }
+
+    @Test
+    @DisplayName("getProductsByCursor: sort=rating desc puts unrated products last, id breaks ties")
+    void getProductsByCursor_byRatingDesc_ordersNullsLast() {
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), eq(21)))
+                .thenReturn(List.of(dressRow));
+
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
+        productService.getProductsByCursor(filters, ProductSortField.RATING, Sort.Direction.DESC, null, 20);
+
+        ArgumentCaptor<Sort> sort = ArgumentCaptor.forClass(Sort.class);
+        verify(productRepository).findSummaries(ArgumentMatchers.<Specification<Product>>any(), sort.capture(), eq(21));
+        assertThat(sort.getValue().toList())
+                .extracting(Sort.Order::getProperty, Sort.Order::getDirection, Sort.Order::getNullHandling)
+                .containsExactly(
+                        tuple("ratingAvg", Sort.Direction.DESC, Sort.NullHandling.NULLS_LAST),
+                        tuple("id", Sort.Direction.DESC, Sort.NullHandling.NATIVE));
+    }
+
+    @Test
+    @DisplayName("getProductsByCursor: last page has no nextCursor")
+    void getProductsByCursor_lastPage_noNextCursor() {
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), eq(21)))
+                .thenReturn(List.of(dressRow));
+
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
+        ProductCursorPage result = productService.getProductsByCursor(
+                filters, ProductSortField.CREATED_AT, Sort.Direction.DESC, null, 20);
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getProductsByCursor: fail — cursor issued for another sort throws IllegalStateException")
+    void getProductsByCursor_mismatchedSort_throwsException() {
+        String cursor = ProductCursor.of(ProductSortField.NAME, Sort.Direction.ASC, dressRow).encode();
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
+
+        assertThatThrownBy(() -> productService.getProductsByCursor(
+                filters, ProductSortField.CREATED_AT, Sort.Direction.DESC, cursor, 20))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("getProductsByCursor: fail — garbage cursor throws IllegalStateException")
+    void getProductsByCursor_invalidCursor_throwsException() {
+        ProductFilters filters = new ProductFilters(null, null, null, null, null, null, null, false);
+
+        assertThatThrownBy(() -> productService.getProductsByCursor(
+                filters, ProductSortField.CREATED_AT, Sort.Direction.DESC, "not-a-cursor", 20))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // FACETS
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("getFacets: each facet ignores its own filter, from a single aggregate query")
+    void getFacets_typeSelected_otherTypesStillCounted() {
+        UUID veilsId = UUID.randomUUID();
+        when(productRepository.findFacetRows(ArgumentMatchers.<Specification<Product>>any(), any(), any()))
+                .thenReturn(List.of(
+                        new ProductFacetRow(ProductType.DRESS, categoryId, "Bridal Gowns", true, ProductPriceBucket.UNDER_10000, true, 3L),
+                        new ProductFacetRow(ProductType.DRESS, categoryId, "Bridal Gowns", false, ProductPriceBucket.FROM_25000_TO_50000, true, 1L),
+                        new ProductFacetRow(ProductType.ACCESSORY, veilsId, "Veils", true, ProductPriceBucket.UNDER_10000, true, 4L)));
+
+        ProductFilters filters = new ProductFilters(ProductType.DRESS, null, null, null, null, null, null, false);
+        ProductFacetsResponse result = productService.getFacets(filters);
+
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(result.types())
+                .extracting(ProductFacetsResponse.FacetCount::value, ProductFacetsResponse.FacetCount::count)
+                .containsExactly(tuple("DRESS", 4L), tuple("ACCESSORY", 4L));
+        assertThat(result.categories())
+                .extracting(ProductFacetsResponse.FacetCount::label, ProductFacetsResponse.FacetCount::count)
+                .containsExactly(tuple("Bridal Gowns", 4L));
+        assertThat(result.priceBuckets())
+                .extracting(ProductFacetsResponse.PriceBucketCount::bucket, ProductFacetsResponse.PriceBucketCount::count)
+                .contains(tuple("UNDER_10000", 3L), tuple("FROM_25000_TO_50000", 1L));
+        assertThat(result.availability())
+                .extracting(ProductFacetsResponse.FacetCount::value, ProductFacetsResponse.FacetCount::count)
+                .containsExactly(tuple("true", 3L), tuple("false", 1L));
+
+        verify(productRepository, times(1)).findFacetRows(ArgumentMatchers.<Specification<Product>>any(), any(), any());
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("getFacets: price range narrows the other facets but not the price buckets")
+    void getFacets_priceRange_appliedToOtherFacets() {
+        when(productRepository.findFacetRows(ArgumentMatchers.<Specification<Product>>any(), any(), any()))
+                .thenReturn(List.of(
+                        new ProductFacetRow(ProductType.DRESS, categoryId, "Bridal Gowns", true, ProductPriceBucket.UNDER_10000, true, 2L),
+                        new ProductFacetRow(ProductType.DRESS, categoryId, "Bridal Gowns", true, ProductPriceBucket.FROM_50000_TO_100000, false, 1L),
+                        new ProductFacetRow(ProductType.ACCESSORY, null, null, true, (ProductPriceBucket) null, false, 5L)));
+
+        ProductFilters filters = new ProductFilters(null, null, null, null, new BigDecimal("10000"), null, null, false);
+        ProductFacetsResponse result = productService.getFacets(filters);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.types())
+                .extracting(ProductFacetsResponse.FacetCount::value, ProductFacetsResponse.FacetCount::count)
+                .containsExactly(tuple("DRESS", 2L), tuple("ACCESSORY", 0L));
+        assertThat(result.priceBuckets())
+                .extracting(ProductFacetsResponse.PriceBucketCount::bucket, ProductFacetsResponse.PriceBucketCount::count)
+                .contains(tuple("UNDER_10000", 2L), tuple("FROM_50000_TO_100000", 1L));
+        // The range is evaluated in the aggregate; the rows only carry the verdict
+        verify(productRepository).findFacetRows(ArgumentMatchers.<Specification<Product>>any(),
+                isNull(), eq(new BigDecimal("10000")));
+    }
+
+    @Test
+    @DisplayName("getFacets: includeSubcategories — products in child categories count toward the selection")
+    void getFacets_includeSubcategories_countsWholeSubtree() {
+        UUID ballGownsId = UUID.randomUUID();
+        UUID veilsId = UUID.randomUUID();
+        when(categoryRepository.findActiveRows()).thenReturn(List.of(
+                new CategoryRow(categoryId, "Bridal Gowns", "bridal-gowns", null, null, LocalDateTime.now()),
+                new CategoryRow(ballGownsId, "Ball Gowns", "ball-gowns", categoryId, "Bridal Gowns", LocalDateTime.now()),
+                new CategoryRow(veilsId, "Veils", "veils", null, null, LocalDateTime.now())));
+        when(productRepository.findFacetRows(ArgumentMatchers.<Specification<Product>>any(), any(), any()))
+                .thenReturn(List.of(
+                        new ProductFacetRow(ProductType.DRESS, categoryId, "Bridal Gowns", true, ProductPriceBucket.UNDER_10000, true, 2L),
+                        new ProductFacetRow(ProductType.DRESS, ballGownsId, "Ball Gowns", true, ProductPriceBucket.UNDER_10000, true, 3L),
+                        new ProductFacetRow(ProductType.ACCESSORY, veilsId, "Veils", true, ProductPriceBucket.UNDER_10000, true, 4L)));
+
+        ProductFacetsResponse exact = productService.getFacets(
+                new ProductFilters(null, categoryId, null, null, null, null, null, false));
+        ProductFacetsResponse subtree = productService.getFacets(
+                new ProductFilters(null, categoryId, null, null, null, null, null, true));
+        productService.getFacets(new ProductFilters(null, ballGownsId, null, null, null, null, null, true));
+
+        assertThat(exact.total()).isEqualTo(2);
+        assertThat(subtree.total()).isEqualTo(5);
+        // Tree is loaded once and then served from memory
+        verify(categoryRepository, times(1)).findActiveRows();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // SUGGEST (TYPEAHEAD)
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("suggestProducts: matches any word prefix, whole-name prefixes first, loaded once")
+    void suggestProducts_wordPrefixes_rankedAndServedFromMemory() {
+        ProductSuggestion lace  = new ProductSuggestion(UUID.randomUUID(), "Lace Mermaid Gown", "lace-mermaid-gown");
+        ProductSuggestion gown  = new ProductSuggestion(UUID.randomUUID(), "Gown Bag", "gown-bag");
+        ProductSuggestion veil  = new ProductSuggestion(UUID.randomUUID(), "Cathedral Veil", "cathedral-veil");
+        when(productRepository.findActiveSuggestions()).thenReturn(List.of(lace, gown, veil));
+
+        assertThat(productService.suggestProducts("go", 8)).containsExactly(gown, lace);
+        assertThat(productService.suggestProducts("LACE  mer", 8)).containsExactly(lace);
+        assertThat(productService.suggestProducts("go", 1)).containsExactly(gown);
+        assertThat(productService.suggestProducts("tiara", 8)).isEmpty();
+        assertThat(productService.suggestProducts("  ", 8)).isEmpty();
+
+        verify(productRepository, times(1)).findActiveSuggestions();
+    }
+
+    @Test
+    @DisplayName("suggestProducts: a committed product write patches only the changed product")
+    void suggestProducts_productChanged_refreshesIncrementally() {
+        UUID laceId = UUID.randomUUID();
+        UUID veilId = UUID.randomUUID();
+        when(productRepository.findActiveSuggestions()).thenReturn(List.of(
+                new ProductSuggestion(laceId, "Lace Gown", "lace-gown"),
+                new ProductSuggestion(veilId, "Cathedral Veil", "cathedral-veil")));
+        productService.suggestProducts("lace", 8);
+
+        // Lace Gown renamed, nothing else re-read
+        ProductSuggestion renamed = new ProductSuggestion(laceId, "Satin Gown", "satin-gown");
+        when(productRepository.findActiveSuggestionsByIdIn(Set.of(laceId))).thenReturn(List.of(renamed));
+        productSuggestIndex.onProductChanged(ProductChangedEvent.of(laceId));
+
+        assertThat(productService.suggestProducts("lace", 8)).isEmpty();
+        assertThat(productService.suggestProducts("sat", 8)).containsExactly(renamed);
+        assertThat(productService.suggestProducts("cath", 8)).extracting(ProductSuggestion::id).containsExactly(veilId);
+        verify(productRepository, times(1)).findActiveSuggestions();
+    }
+
+    @Test
+    @DisplayName("suggestProducts: new and deactivated products are spliced in and out; unchanged names keep the index")
+    void suggestProducts_spliceAndNoOp() {
+        UUID laceId = UUID.randomUUID();
+        UUID veilId = UUID.randomUUID();
+        UUID tiaraId = UUID.randomUUID();
+        ProductSuggestion lace = new ProductSuggestion(laceId, "Lace Gown", "lace-gown");
+        when(productRepository.findActiveSuggestions()).thenReturn(List.of(
+                lace, new ProductSuggestion(veilId, "Cathedral Veil", "cathedral-veil")));
+        productService.suggestProducts("lace", 8);
+
+        // Stock sold on Lace Gown — name and slug unchanged
+        when(productRepository.findActiveSuggestionsByIdIn(Set.of(laceId)))
+                .thenReturn(List.of(new ProductSuggestion(laceId, "Lace Gown", "lace-gown")));
+        productSuggestIndex.onProductChanged(ProductChangedEvent.of(laceId));
+        assertThat(productService.suggestProducts("lace", 8)).containsExactly(lace);
+
+        // A tiara is created and the veil deactivated in the same write
+        ProductSuggestion tiara = new ProductSuggestion(tiaraId, "Lace Tiara", "lace-tiara");
+        when(productRepository.findActiveSuggestionsByIdIn(Set.of(veilId, tiaraId))).thenReturn(List.of(tiara));
+        productSuggestIndex.onProductChanged(new ProductChangedEvent(Set.of(veilId, tiaraId)));
+
+        assertThat(productService.suggestProducts("lace", 8)).containsExactly(lace, tiara);
+        assertThat(productService.suggestProducts("tia", 8)).containsExactly(tiara);
+        assertThat(productService.suggestProducts("veil", 8)).isEmpty();
+        verify(productRepository, times(1)).findActiveSuggestions();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // SIMILAR PRODUCTS
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("getSimilarProducts: keeps the precomputed rank order and skips deactivated products")
+    void getSimilarProducts_rankOrderPreserved() {
+        UUID goneId = UUID.randomUUID();
+        when(productRepository.findSimilarIds(dressId)).thenReturn(List.of(accessoryId, goneId));
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), eq(2)))
+                .thenReturn(List.of(accessoryRow));
+
+        List<ProductSummaryResponse> result = productService.getSimilarProducts(dressId);
+
+        assertThat(result).extracting(ProductSummaryResponse::id).containsExactly(accessoryId);
+    }
+
+    @Test
+    @DisplayName("getSimilarProducts: nothing precomputed — no listing query")
+    void getSimilarProducts_none_returnsEmpty() {
+        when(productRepository.findSimilarIds(dressId)).thenReturn(List.of());
+
+        assertThat(productService.getSimilarProducts(dressId)).isEmpty();
+        verify(productRepository, never()).findSummaries(any(), any(Sort.class), anyInt());
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     // GET PRODUCT BY ID
     // ═════════════════════════════════════════════════════════════════════════
@@ -227,6 +566,108 @@ class ProductServiceImplTest {
                 .hasMessageContaining("Product not found");
     }
 
+    // ═════════════════════════════════════════════════════════════════════════
+    // PRODUCT DETAIL CACHE
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("getProductById: second read is served from cache")
+    void getProductById_cached_singleRepositoryLookup() {
+        when(productRepository.findByIdAndIsActiveTrue(dressId)).thenReturn(Optional.of(dress));
+
+        ProductDetailResponse first  = productService.getProductById(dressId);
+        ProductDetailResponse second = productService.getProductById(dressId);
+
+        assertThat(second).isSameAs(first);
+        verify(productRepository, times(1)).findByIdAndIsActiveTrue(dressId);
+    }
+
+    @Test
+    @DisplayName("getProductBySlug: hit shares the entry cached by id")
+    void getProductBySlug_afterIdLookup_servedFromCache() {
+        when(productRepository.findByIdAndIsActiveTrue(dressId)).thenReturn(Optional.of(dress));
+
+        ProductDetailResponse byId   = productService.getProductById(dressId);
+        ProductDetailResponse bySlug = productService.getProductBySlug("lace-wedding-dress");
+
+        assertThat(bySlug).isSameAs(byId);
+        verify(productRepository, never()).findBySlugAndIsActiveTrue(any());
+    }
+
+    @Test
+    @DisplayName("updateStock: publishes ProductChangedEvent and the next read sees the new stock")
+    void updateStock_invalidatesCachedDetail() {
+        when(productRepository.findByIdAndIsActiveTrue(dressId)).thenReturn(Optional.of(dress));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.getProductById(dressId);
+        productService.updateStock(dressId, 7);
+
+        ArgumentCaptor<ProductChangedEvent> captor = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().productIds()).containsExactly(dressId);
+
+        // No transaction in a unit test — deliver the event as fallbackExecution would
+        productDetailCache.onProductChanged(captor.getValue());
+
+        assertThat(productService.getProductById(dressId).stock()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("getProductBySlug: renamed product no longer resolves through its old slug")
+    void getProductBySlug_afterRename_oldSlugMisses() {
+        when(productRepository.findByIdAndIsActiveTrue(dressId)).thenReturn(Optional.of(dress));
+        productService.getProductById(dressId);
+
+        dress.setSlug("lace-gown");
+        productDetailCache.onProductChanged(ProductChangedEvent.of(dressId));
+        productService.getProductById(dressId);
+
+        when(productRepository.findBySlugAndIsActiveTrue("lace-wedding-dress")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.getProductBySlug("lace-wedding-dress"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // ETAG
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("getProductETag: built from product and category versions without loading the product")
+    void getProductETag_fromVersionLookup() {
+        when(productRepository.findVersionById(dressId))
+                .thenReturn(Optional.of(new ProductVersion(dressId, 4L, 2L)));
+
+        String etag = productService.getProductETag(dressId);
+
+        assertThat(etag).isEqualTo("\"" + dressId + "-4-2\"");
+        verify(productRepository, never()).findByIdAndIsActiveTrue(any());
+    }
+
+    @Test
+    @DisplayName("getProductETag: changes when the product version moves")
+    void getProductETag_versionBump_changesETag() {
+        when(productRepository.findVersionBySlug("lace-wedding-dress"))
+                .thenReturn(Optional.of(new ProductVersion(dressId, 4L, null)))
+                .thenReturn(Optional.of(new ProductVersion(dressId, 5L, null)));
+
+        String before = productService.getProductETagBySlug("lace-wedding-dress");
+        String after  = productService.getProductETagBySlug("lace-wedding-dress");
+
+        assertThat(before).isNotEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("getProductETag: fail — unknown id throws ResourceNotFoundException")
+    void getProductETag_notFound_throwsException() {
+        UUID unknownId = UUID.randomUUID();
+        when(productRepository.findVersionById(unknownId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.getProductETag(unknownId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     // CREATE PRODUCT
     // ═════════════════════════════════════════════════════════════════════════
@@ -257,6 +698,27 @@ class ProductServiceImplTest {
         assertThat(result.category().id()).isEqualTo(categoryId);
     }
 
+    @Test
+    @DisplayName("createProduct: sizes are stored trimmed, de-duplicated ignoring case, in the admin's order and spelling")
+    void createProduct_normalisesSizes() {
+        when(productRepository.existsBySlug("pearl-tiara")).thenReturn(false);
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> {
+            Product p = inv.getArgument(0);
+            p.setId(accessoryId);
+            return p;
+        });
+
+        CreateProductRequest request = new CreateProductRequest(
+                "Pearl Tiara", null, ProductType.ACCESSORY,
+                null, null, new BigDecimal("3500.00"), 10,
+                List.of(" s ", "m", "S", " ", "XL"), List.of()
+        );
+
+        ProductDetailResponse result = productService.createProduct(request);
+
+        assertThat(result.sizes()).containsExactly("s", "m", "XL");
+    }
+
     @Test
     @DisplayName("createProduct: success — no category creates product without category")
     void createProduct_noCategory_success() {
@@ -265,7 +727,7 @@ class ProductServiceImplTest {
                 Product.builder()
                         .id(accessoryId).name("Pearl Tiara").slug("pearl-tiara")
                         .type(ProductType.ACCESSORY).category(null)
-                        .stock(10).sizes("[]").images(new ArrayList<>())
+                        .stock(10).sizes(List.of()).images(new ArrayList<>())
                         .isAvailable(true).createdAt(LocalDateTime.now())
                         .updatedAt(LocalDateTime.now()).build()
         );
@@ -0,0 +1,150 @@
+package com.blanchebridal.backend.product;
+
+import com.blanchebridal.backend.product.entity.ProductType;
+import com.blanchebridal.backend.product.service.impl.ProductSimilarityServiceImpl;
+import com.blanchebridal.backend.product.util.ProductSimilarity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSimilarityServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private ProductSimilarityServiceImpl similarityService;
+
+    private UUID gownsId;
+    private UUID veilsId;
+
+    @BeforeEach
+    void setUp() {
+        similarityService = new ProductSimilarityServiceImpl(jdbcTemplate, transactionManager);
+        gownsId = UUID.randomUUID();
+        veilsId = UUID.randomUUID();
+    }
+
+    private ProductSimilarity.Candidate dress(String price, String... sizes) {
+        return new ProductSimilarity.Candidate(UUID.randomUUID(), ProductType.DRESS, gownsId,
+                new BigDecimal(price), Set.of(sizes));
+    }
+
+    private ProductSimilarity.Candidate accessory(String price) {
+        return new ProductSimilarity.Candidate(UUID.randomUUID(), ProductType.ACCESSORY, veilsId,
+                new BigDecimal(price), Set.of());
+    }
+
+    private void givenCatalog(List<ProductSimilarity.Candidate> candidates,
+                              List<ProductSimilarity.CoPurchase> coPurchases) {
+        when(jdbcTemplate.query(startsWith("SELECT id, type"),
+                ArgumentMatchers.<RowMapper<ProductSimilarity.Candidate>>any())).thenReturn(candidates);
+        when(jdbcTemplate.query(startsWith("SELECT a.product_id"),
+                ArgumentMatchers.<RowMapper<ProductSimilarity.CoPurchase>>any())).thenReturn(coPurchases);
+    }
+
+    // Replays the captured insert batch and returns product → similar ids in rank order
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<UUID, List<UUID>> writtenLists() throws Exception {
+        ArgumentCaptor<Collection> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO product_similarities"),
+                rows.capture(), anyInt(), setter.capture());
+
+        Map<UUID, List<UUID>> lists = new LinkedHashMap<>();
+        for (Object row : rows.getValue()) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            setter.getValue().setValues(ps, row);
+
+            ArgumentCaptor<Object> ids = ArgumentCaptor.forClass(Object.class);
+            ArgumentCaptor<Short> rank = ArgumentCaptor.forClass(Short.class);
+            verify(ps, times(2)).setObject(anyInt(), ids.capture());
+            verify(ps).setShort(eq(2), rank.capture());
+
+            List<UUID> list = lists.computeIfAbsent((UUID) ids.getAllValues().get(0), k -> new ArrayList<>());
+            assertThat((int) rank.getValue()).isEqualTo(list.size());
+            list.add((UUID) ids.getAllValues().get(1));
+        }
+        return lists;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // RECOMPUTE
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("recomputeSimilarities: same category, close price and shared sizes rank first")
+    void recompute_rankedByAttributes() throws Exception {
+        ProductSimilarity.Candidate lace    = dress("50000", "S", "M");
+        ProductSimilarity.Candidate satin   = dress("52000", "S", "M");
+        ProductSimilarity.Candidate couture = dress("250000", "XL");
+        ProductSimilarity.Candidate veil    = accessory("4000");
+        givenCatalog(List.of(lace, satin, couture, veil), List.of());
+
+        similarityService.recomputeSimilarities();
+
+        Map<UUID, List<UUID>> lists = writtenLists();
+        assertThat(lists.get(lace.id())).startsWith(satin.id(), couture.id());
+        assertThat(lists.get(lace.id())).doesNotContain(lace.id());
+    }
+
+    @Test
+    @DisplayName("recomputeSimilarities: products bought together are linked across types")
+    void recompute_coPurchaseLinksAccessory() throws Exception {
+        ProductSimilarity.Candidate lace   = dress("50000");
+        ProductSimilarity.Candidate veil   = accessory("4000");
+        ProductSimilarity.Candidate tiara  = accessory("3500");
+        givenCatalog(List.of(lace, veil, tiara),
+                List.of(new ProductSimilarity.CoPurchase(lace.id(), tiara.id(), 7)));
+
+        similarityService.recomputeSimilarities();
+
+        Map<UUID, List<UUID>> lists = writtenLists();
+        assertThat(lists.get(lace.id())).containsExactly(tiara.id());
+        assertThat(lists.get(tiara.id())).containsExactly(veil.id(), lace.id());
+    }
+
+    @Test
+    @DisplayName("recomputeSimilarities: each list is capped at top-K and the table is replaced, not appended")
+    void recompute_cappedAndReplaced() throws Exception {
+        List<ProductSimilarity.Candidate> dresses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) dresses.add(dress(String.valueOf(40000 + i * 1000), "M"));
+        givenCatalog(dresses, List.of());
+
+        int products = similarityService.recomputeSimilarities();
+
+        assertThat(products).isEqualTo(20);
+        assertThat(writtenLists().values()).allSatisfy(list -> assertThat(list).hasSize(12));
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update("DELETE FROM product_similarities");
+        inOrder.verify(jdbcTemplate).batchUpdate(startsWith("INSERT"),
+                ArgumentMatchers.<Collection<Object>>any(), anyInt(), any());
+    }
+}
@@ -0,0 +1,60 @@
+package com.blanchebridal.backend.product;
+
+import com.blanchebridal.backend.product.spec.ProductSpecification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSpecificationTest {
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // toPrefixQuery
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("toPrefixQuery: every term becomes a lower-cased prefix, all required")
+    void toPrefixQuery_terms_joinedAsPrefixes() {
+        assertThat(ProductSpecification.toPrefixQuery("Lace  Gowns"))
+                .isEqualTo("lace:* & gowns:*");
+        assertThat(ProductSpecification.toPrefixQuery("Ivory 2024"))
+                .isEqualTo("ivory:* & 2024:*");
+    }
+
+    @Test
+    @DisplayName("toPrefixQuery: quotes are dropped, never passed to to_tsquery")
+    void toPrefixQuery_quotes_stripped() {
+        assertThat(ProductSpecification.toPrefixQuery("\"mermaid\" bride's 'veil"))
+                .isEqualTo("mermaid:* & bride:* & s:* & veil:*");
+    }
+
+    @Test
+    @DisplayName("toPrefixQuery: tsquery operators in the input are treated as separators")
+    void toPrefixQuery_operators_stripped() {
+        assertThat(ProductSpecification.toPrefixQuery("lace & !satin | (tulle) <-> silk:*"))
+                .isEqualTo("lace:* & satin:* & tulle:* & silk:*");
+    }
+
+    @Test
+    @DisplayName("toPrefixQuery: non-Latin letters are kept")
+    void toPrefixQuery_unicodeLetters_kept() {
+        assertThat(ProductSpecification.toPrefixQuery("Robe Mariée"))
+                .isEqualTo("robe:* & mariée:*");
+    }
+
+    @Test
+    @DisplayName("toPrefixQuery: at most 8 terms")
+    void toPrefixQuery_manyTerms_capped() {
+        assertThat(ProductSpecification.toPrefixQuery("a b c d e f g h i j"))
+                .isEqualTo("a:* & b:* & c:* & d:* & e:* & f:* & g:* & h:*");
+    }
+
+    @Test
+    @DisplayName("toPrefixQuery: null, blank or punctuation-only input gives no query")
+    void toPrefixQuery_emptyTerm_null() {
+        assertThat(ProductSpecification.toPrefixQuery(null)).isNull();
+        assertThat(ProductSpecification.toPrefixQuery("")).isNull();
+        assertThat(ProductSpecification.toPrefixQuery("   ")).isNull();
+        assertThat(ProductSpecification.toPrefixQuery("&|!():*'\"")).isNull();
+    }
+}
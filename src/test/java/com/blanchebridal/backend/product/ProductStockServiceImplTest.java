@@ -0,0 +1,113 @@
+package com.blanchebridal.backend.product;
+
+import com.blanchebridal.backend.product.dto.StockDeduction;
+import com.blanchebridal.backend.product.service.impl.ProductStockServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStockServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private ProductStockServiceImpl stockService;
+
+    private UUID dressId;
+    private UUID veilId;
+
+    @BeforeEach
+    void setUp() {
+        stockService = new ProductStockServiceImpl(jdbcTemplate);
+        dressId = UUID.randomUUID();
+        veilId  = UUID.randomUUID();
+    }
+
+    // First call locks the rows, second runs the conditional UPDATE ... RETURNING
+    private void givenUpdatedRows(List<UUID> updated) {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<UUID>>any()))
+                .thenReturn(List.of(dressId, veilId))
+                .thenReturn(updated);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // DEDUCT STOCK
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("deductStock: all rows updated — complete deduction, two statements for the whole order")
+    void deductStock_enoughStock_complete() throws Exception {
+        givenUpdatedRows(List.of(dressId, veilId));
+
+        StockDeduction result = stockService.deductStock(Map.of(dressId, 1, veilId, 2));
+
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.deducted()).containsExactlyInAnyOrder(dressId, veilId);
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<UUID>>any());
+    }
+
+    @Test
+    @DisplayName("deductStock: a row the UPDATE skipped is reported as oversold with its quantity")
+    void deductStock_insufficientStock_reportedAsOversold() {
+        givenUpdatedRows(List.of(veilId));
+
+        StockDeduction result = stockService.deductStock(Map.of(dressId, 3, veilId, 1));
+
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.deducted()).containsExactly(veilId);
+        assertThat(result.oversold()).containsExactly(Map.entry(dressId, 3));
+    }
+
+    @Test
+    @DisplayName("deductStock: quantities are bound as arrays, one entry per product")
+    void deductStock_bindsArrays() throws Exception {
+        givenUpdatedRows(List.of(dressId));
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(dressId, 2);
+
+        stockService.deductStock(quantities);
+
+        ArgumentCaptor<PreparedStatementCreator> creators = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(2)).query(creators.capture(), ArgumentMatchers.<RowMapper<UUID>>any());
+
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(any())).thenReturn(mock(PreparedStatement.class));
+        when(con.createArrayOf(any(), any())).thenReturn(mock(Array.class));
+        creators.getAllValues().get(1).createPreparedStatement(con);
+
+        verify(con).prepareStatement(ArgumentMatchers.contains("p.stock >= w.qty"));
+        verify(con).createArrayOf("uuid", new Object[]{dressId});
+        verify(con).createArrayOf("integer", new Object[]{2});
+    }
+
+    @Test
+    @DisplayName("deductStock: nothing to deduct — no statements")
+    void deductStock_empty_noQuery() {
+        StockDeduction result = stockService.deductStock(Map.of());
+
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.deducted()).isEqualTo(Set.of());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
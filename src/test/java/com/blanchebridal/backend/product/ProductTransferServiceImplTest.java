@@ -0,0 +1,262 @@
+package com.blanchebridal.backend.product;
+
+import com.blanchebridal.backend.product.dto.ProductTransferFormat;
+import com.blanchebridal.backend.product.dto.res.ProductImportResult;
+import com.blanchebridal.backend.product.entity.Category;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
+import com.blanchebridal.backend.product.repository.CategoryRepository;
+import com.blanchebridal.backend.product.service.impl.ProductTransferServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductTransferServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private ProductTransferServiceImpl transferService;
+
+    @BeforeEach
+    void setUp() {
+        transferService = new ProductTransferServiceImpl(
+                jdbcTemplate, transactionManager, categoryRepository, eventPublisher, new ObjectMapper());
+
+        when(categoryRepository.findAllByIsActiveTrue()).thenReturn(List.of(
+                Category.builder().id(UUID.randomUUID()).name("Bridal Gowns").slug("bridal-gowns").build()));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Replays every captured product batch against a mock statement and
+    // returns the slug bound in each row, batch by batch
+    private List<List<String>> upsertedSlugBatches() throws Exception {
+        ArgumentCaptor<BatchPreparedStatementSetter> captor =
+                ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, atLeast(0)).batchUpdate(startsWith("INSERT INTO products"), captor.capture());
+
+        List<List<String>> batches = new ArrayList<>();
+        for (BatchPreparedStatementSetter setter : captor.getAllValues()) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            when(ps.getConnection()).thenReturn(mock(Connection.class));
+            ArgumentCaptor<String> slugs = ArgumentCaptor.forClass(String.class);
+
+            for (int i = 0; i < setter.getBatchSize(); i++) setter.setValues(ps, i);
+            verify(ps, times(setter.getBatchSize())).setString(eq(2), slugs.capture());
+            batches.add(slugs.getAllValues());
+        }
+        return batches;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // IMPORT — CSV
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("importProducts: CSV — valid rows written in one batch, invalid rows reported with row numbers")
+    void importCsv_mixedRows_reportsPerRowErrors() throws Exception {
+        String csv = """
+                name,type,categorySlug,rentalPrice,purchasePrice,stock,sizes,imageUrls
+                Lace Gown,DRESS,bridal-gowns,5000,25000,3,s|M|l,
+                ,DRESS,,,,1,,
+                Pearl Tiara,ACCESSORY,,,3500,10,,
+                Satin Gown,DRESS,evening-wear,,9000,2,,
+                Tulle Gown,DRESS,,,12000,-1,,
+                """;
+
+        ProductImportResult result = transferService.importProducts(stream(csv), ProductTransferFormat.CSV);
+
+        assertThat(result.processed()).isEqualTo(5);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(3);
+        assertThat(result.errors())
+                .extracting(ProductImportResult.RowError::row)
+                .containsExactly(2L, 4L, 5L);
+        assertThat(result.errors().get(1).message()).contains("evening-wear");
+
+        assertThat(upsertedSlugBatches()).containsExactly(List.of("lace-gown", "pearl-tiara"));
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("importProducts: CSV — unparseable cell fails only its own row")
+    void importCsv_badNumber_failsSingleRow() throws Exception {
+        String csv = """
+                name,type,stock
+                Lace Gown,DRESS,3
+                Pearl Tiara,ACCESSORY,lots
+                Satin Gown,DRESS,2
+                """;
+
+        ProductImportResult result = transferService.importProducts(stream(csv), ProductTransferFormat.CSV);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ProductImportResult.RowError::row).containsExactly(2L);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // IMPORT — NDJSON
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("importProducts: NDJSON — malformed line is reported by line number, rest imported")
+    void importNdjson_malformedLine_reportedAndSkipped() throws Exception {
+        String ndjson = """
+                {"name":"Lace Gown","type":"DRESS","stock":3,"sizes":["S","M"]}
+                {"name":"Broken",
+                {"name":"Pearl Tiara","type":"ACCESSORY","stock":10}
+                """;
+
+        ProductImportResult result = transferService.importProducts(stream(ndjson), ProductTransferFormat.NDJSON);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ProductImportResult.RowError::row).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("importProducts: rows are written in batches of 500, not one statement each")
+    void importNdjson_largeFile_batchedWrites() throws Exception {
+        String ndjson = IntStream.rangeClosed(1, 1200)
+                .mapToObj(i -> "{\"name\":\"Gown " + i + "\",\"type\":\"DRESS\",\"stock\":1}")
+                .collect(Collectors.joining("\n"));
+
+        ProductImportResult result = transferService.importProducts(stream(ndjson), ProductTransferFormat.NDJSON);
+
+        assertThat(result.imported()).isEqualTo(1200);
+        assertThat(upsertedSlugBatches()).extracting(List::size).containsExactly(500, 500, 200);
+    }
+
+    @Test
+    @DisplayName("importProducts: failed batch is retried row by row so only the bad row fails")
+    void importNdjson_batchFailure_isolatesBadRow() throws Exception {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO products"), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("batch"))
+                .thenReturn(new int[]{1})
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(255)"))
+                .thenReturn(new int[]{1});
+
+        String ndjson = """
+                {"name":"Lace Gown","type":"DRESS","stock":3}
+                {"name":"Very Long Gown","type":"DRESS","stock":1}
+                {"name":"Pearl Tiara","type":"ACCESSORY","stock":10}
+                """;
+
+        ProductImportResult result = transferService.importProducts(stream(ndjson), ProductTransferFormat.NDJSON);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors().getFirst().row()).isEqualTo(2L);
+        assertThat(result.errors().getFirst().slug()).isEqualTo("very-long-gown");
+    }
+
+    @Test
+    @DisplayName("importProducts: is_active is only written when the file has the column")
+    void importNdjson_isActive_onlyWhenPresent() throws Exception {
+        String ndjson = """
+                {"name":"Lace Gown","type":"DRESS","stock":3}
+                {"name":"Pearl Tiara","type":"ACCESSORY","stock":10,"isActive":false}
+                """;
+
+        transferService.importProducts(stream(ndjson), ProductTransferFormat.NDJSON);
+
+        ArgumentCaptor<BatchPreparedStatementSetter> captor =
+                ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO products"), captor.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(ps.getConnection()).thenReturn(mock(Connection.class));
+
+        captor.getValue().setValues(ps, 0);
+        verify(ps).setObject(11, null, Types.BOOLEAN);
+        verify(ps).setObject(12, null, Types.BOOLEAN);
+
+        captor.getValue().setValues(ps, 1);
+        verify(ps).setObject(11, false, Types.BOOLEAN);
+        verify(ps).setObject(12, false, Types.BOOLEAN);
+    }
+
+    @Test
+    @DisplayName("importProducts: listed images are synced in one statement, never deleted wholesale")
+    void importNdjson_images_syncedNotDeleted() throws Exception {
+        UUID gownId = UUID.randomUUID();
+        doAnswer(inv -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("slug")).thenReturn("lace-gown");
+            when(rs.getObject("id", UUID.class)).thenReturn(gownId);
+            inv.<RowCallbackHandler>getArgument(2).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, slug"), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+
+        String ndjson = """
+                {"name":"Lace Gown","type":"DRESS","stock":3,"imageUrls":["b.jpg","a.jpg","b.jpg"]}
+                {"name":"Pearl Tiara","type":"ACCESSORY","stock":10}
+                """;
+
+        transferService.importProducts(stream(ndjson), ProductTransferFormat.NDJSON);
+
+        ArgumentCaptor<PreparedStatementSetter> captor = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        verify(jdbcTemplate).update(contains("UPDATE product_images i SET is_active = FALSE"), captor.capture());
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(PreparedStatementSetter.class));
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(ps.getConnection()).thenReturn(connection);
+        captor.getValue().setValues(ps);
+
+        verify(connection).createArrayOf("uuid", new Object[]{gownId, gownId});
+        verify(connection).createArrayOf("text", new Object[]{"b.jpg", "a.jpg"});
+        verify(connection).createArrayOf("integer", new Object[]{0, 1});
+    }
+
+    @Test
+    @DisplayName("importProducts: nothing valid — no writes and no cache invalidation")
+    void importCsv_noValidRows_noWrites() throws Exception {
+        ProductImportResult result = transferService.importProducts(
+                stream("name,type,stock\n,DRESS,1\n"), ProductTransferFormat.CSV);
+
+        assertThat(result.imported()).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
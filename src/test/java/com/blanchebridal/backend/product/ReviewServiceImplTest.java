@@ -7,6 +7,7 @@ import com.blanchebridal.backend.product.dto.res.ReviewResponse;
 import com.blanchebridal.backend.product.entity.Product;
 import com.blanchebridal.backend.product.entity.Review;
 import com.blanchebridal.backend.product.entity.ReviewStatus;
+import com.blanchebridal.backend.product.event.ProductChangedEvent;
 import com.blanchebridal.backend.product.repository.ProductRepository;
 import com.blanchebridal.backend.product.repository.ReviewRepository;
 import com.blanchebridal.backend.product.service.impl.ReviewServiceImpl;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +30,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +40,7 @@ class ReviewServiceImplTest {
     @Mock private ReviewRepository reviewRepository;
     @Mock private ProductRepository productRepository;
     @Mock private UserRepository userRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ReviewServiceImpl reviewService;
@@ -227,13 +232,50 @@ class ReviewServiceImplTest {
     @DisplayName("approveReview: success — status changes to APPROVED")
     void approveReview_success_statusIsApproved() {
         when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(pendingReview));
-        when(reviewRepository.save(any(Review.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(reviewRepository.updateStatus(reviewId, ReviewStatus.PENDING, ReviewStatus.APPROVED)).thenReturn(1);
 
         ReviewResponse result = reviewService.approveReview(reviewId);
 
         assertThat(result.status()).isEqualTo(ReviewStatus.APPROVED);
     }
 
+    @Test
+    @DisplayName("approveReview: adds the rating to the product's totals and evicts its cache entry")
+    void approveReview_pending_incrementsProductRating() {
+        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(pendingReview));
+        when(reviewRepository.updateStatus(reviewId, ReviewStatus.PENDING, ReviewStatus.APPROVED)).thenReturn(1);
+
+        reviewService.approveReview(reviewId);
+
+        verify(productRepository).adjustRating(productId, 4L, 1);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.of(productId));
+    }
+
+    @Test
+    @DisplayName("approveReview: already approved — no write, totals untouched")
+    void approveReview_alreadyApproved_isNoOp() {
+        when(reviewRepository.findById(approvedReview.getId())).thenReturn(Optional.of(approvedReview));
+
+        ReviewResponse result = reviewService.approveReview(approvedReview.getId());
+
+        assertThat(result.status()).isEqualTo(ReviewStatus.APPROVED);
+        verify(reviewRepository, never()).updateStatus(any(), any(), any());
+        verify(productRepository, never()).adjustRating(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("approveReview: fail — concurrent moderation throws ConflictException, totals untouched")
+    void approveReview_concurrentModeration_throwsConflict() {
+        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(pendingReview));
+        when(reviewRepository.updateStatus(reviewId, ReviewStatus.PENDING, ReviewStatus.APPROVED)).thenReturn(0);
+
+        assertThatThrownBy(() -> reviewService.approveReview(reviewId))
+                .isInstanceOf(ConflictException.class);
+
+        verify(productRepository, never()).adjustRating(any(), anyLong(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     @DisplayName("approveReview: fail — unknown reviewId throws ResourceNotFoundException")
     void approveReview_notFound_throwsException() {
@@ -244,7 +286,7 @@ class ReviewServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Review not found");
 
-        verify(reviewRepository, never()).save(any());
+        verify(reviewRepository, never()).updateStatus(any(), any(), any());
     }
 
     // ═════════════════════════════════════════════════════════════════════════
@@ -255,11 +297,26 @@ class ReviewServiceImplTest {
     @DisplayName("rejectReview: success — status changes to REJECTED")
     void rejectReview_success_statusIsRejected() {
         when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(pendingReview));
-        when(reviewRepository.save(any(Review.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(reviewRepository.updateStatus(reviewId, ReviewStatus.PENDING, ReviewStatus.REJECTED)).thenReturn(1);
 
         ReviewResponse result = reviewService.rejectReview(reviewId);
 
         assertThat(result.status()).isEqualTo(ReviewStatus.REJECTED);
+        verify(productRepository, never()).adjustRating(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("rejectReview: previously approved — rating is subtracted from the product's totals")
+    void rejectReview_approved_decrementsProductRating() {
+        UUID approvedId = approvedReview.getId();
+        when(reviewRepository.findById(approvedId)).thenReturn(Optional.of(approvedReview));
+        when(reviewRepository.updateStatus(approvedId, ReviewStatus.APPROVED, ReviewStatus.REJECTED)).thenReturn(1);
+
+        ReviewResponse result = reviewService.rejectReview(approvedId);
+
+        assertThat(result.status()).isEqualTo(ReviewStatus.REJECTED);
+        verify(productRepository).adjustRating(productId, -5L, -1);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.of(productId));
     }
 
     @Test
@@ -272,7 +329,7 @@ class ReviewServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Review not found");
 
-        verify(reviewRepository, never()).save(any());
+        verify(reviewRepository, never()).updateStatus(any(), any(), any());
     }
 
     // ═════════════════════════════════════════════════════════════════════════
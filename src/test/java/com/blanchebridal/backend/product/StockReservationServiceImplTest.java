@@ -0,0 +1,254 @@
+package com.blanchebridal.backend.product;
+
+import com.blanchebridal.backend.product.service.impl.StockReservationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockReservationServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private StockReservationServiceImpl reservationService;
+
+    private UUID dressId;
+    private UUID veilId;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new StockReservationServiceImpl(jdbcTemplate);
+        dressId = UUID.randomUUID();
+        veilId  = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Rows returned by the UPDATE ... RETURNING that closes an order's holds
+    private void givenClosedHolds(List<Map.Entry<UUID, Integer>> holds) {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class),
+                ArgumentMatchers.<RowMapper<Map.Entry<UUID, Integer>>>any()))
+                .thenReturn(holds);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // RESERVE
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("reserve: enough stock — held in one batch insert and subtracted from availability")
+    void reserve_enoughStock_holdsUnits() {
+        Set<UUID> shortfall = reservationService.reserve(UUID.randomUUID(),
+                Map.of(dressId, 2, veilId, 1), Map.of(dressId, 5, veilId, 1));
+
+        assertThat(shortfall).isEmpty();
+        assertThat(reservationService.availableStock(dressId, 5)).isEqualTo(3);
+        assertThat(reservationService.availableStock(veilId, 1)).isZero();
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO stock_reservations"), anyList());
+    }
+
+    @Test
+    @DisplayName("reserve: units held by another order are not available — nothing reserved, no insert")
+    void reserve_heldElsewhere_reportsShortfall() {
+        reservationService.reserve(UUID.randomUUID(), Map.of(dressId, 4), Map.of(dressId, 5));
+        clearInvocations(jdbcTemplate);
+
+        Set<UUID> shortfall = reservationService.reserve(UUID.randomUUID(),
+                Map.of(dressId, 2, veilId, 1), Map.of(dressId, 5, veilId, 3));
+
+        assertThat(shortfall).containsExactly(dressId);
+        assertThat(reservationService.availableStock(veilId, 3)).isEqualTo(3);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("reserve: counters seeded from ACTIVE rows on first use")
+    void reserve_firstUse_loadsActiveHolds() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1, UUID.class)).thenReturn(dressId);
+        when(rs.getInt(2)).thenReturn(3);
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT product_id"), any(RowCallbackHandler.class));
+
+        assertThat(reservationService.availableStock(dressId, 5)).isEqualTo(2);
+        assertThat(reservationService.reserve(UUID.randomUUID(), Map.of(dressId, 3), Map.of(dressId, 5)))
+                .containsExactly(dressId);
+        verify(jdbcTemplate, times(1)).query(startsWith("SELECT product_id"), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("reserve: rolled-back transaction hands the units back")
+    void reserve_rollback_restoresAvailability() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        reservationService.reserve(UUID.randomUUID(), Map.of(dressId, 2), Map.of(dressId, 2));
+        assertThat(reservationService.availableStock(dressId, 2)).isZero();
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertThat(reservationService.availableStock(dressId, 2)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("reserve: 300 orders racing for 100 units — exactly 100 held, never more")
+    void reserve_concurrentOrders_neverOverReserves() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Set<UUID>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 300; i++) {
+                // Half the orders also take a veil, so multi-stripe locking is exercised
+                Map<UUID, Integer> wanted = i % 2 == 0 ? Map.of(dressId, 1) : Map.of(dressId, 1, veilId, 1);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return reservationService.reserve(UUID.randomUUID(), wanted,
+                            Map.of(dressId, 100, veilId, 1_000));
+                }));
+            }
+            start.countDown();
+
+            int reserved = 0;
+            for (Future<Set<UUID>> f : results) {
+                if (f.get(30, TimeUnit.SECONDS).isEmpty()) reserved++;
+            }
+            assertThat(reserved).isEqualTo(100);
+            assertThat(reservationService.availableStock(dressId, 100)).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // RELEASE / CONVERT
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("release: returned holds become available again")
+    void release_cancelledOrder_restoresAvailability() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        reservationService.reserve(orderId, Map.of(dressId, 2), Map.of(dressId, 2));
+        givenClosedHolds(List.of(Map.entry(dressId, 2)));
+
+        reservationService.release(orderId);
+
+        assertThat(reservationService.availableStock(dressId, 2)).isEqualTo(2);
+
+        // Replays the statement to check what was bound
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), ArgumentMatchers.<RowMapper<Map.Entry<UUID, Integer>>>any());
+        Connection con = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(con.prepareStatement(anyString())).thenReturn(ps);
+        creator.getValue().createPreparedStatement(con);
+        verify(ps).setString(1, "RELEASED");
+        verify(con).createArrayOf("uuid", new UUID[]{orderId});
+    }
+
+    @Test
+    @DisplayName("release: a batch of orders is closed in one statement")
+    void release_manyOrders_singleStatement() {
+        reservationService.reserve(UUID.randomUUID(), Map.of(dressId, 1), Map.of(dressId, 5));
+        reservationService.reserve(UUID.randomUUID(), Map.of(dressId, 2), Map.of(dressId, 5));
+        givenClosedHolds(List.of(Map.entry(dressId, 1), Map.entry(dressId, 2)));
+
+        reservationService.release(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        assertThat(reservationService.availableStock(dressId, 5)).isEqualTo(5);
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class),
+                ArgumentMatchers.<RowMapper<Map.Entry<UUID, Integer>>>any());
+    }
+
+    @Test
+    @DisplayName("convert: counters drop only after the transaction commits")
+    void convert_waitsForCommit() {
+        UUID orderId = UUID.randomUUID();
+        reservationService.reserve(orderId, Map.of(dressId, 1), Map.of(dressId, 3));
+        givenClosedHolds(List.of(Map.entry(dressId, 1)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        reservationService.convert(orderId);
+        assertThat(reservationService.availableStock(dressId, 3)).isEqualTo(2);
+
+        // Payment has now deducted the unit from products.stock
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(reservationService.availableStock(dressId, 2)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("release: an order with no active holds changes nothing")
+    void release_nothingHeld_noChange() {
+        reservationService.reserve(UUID.randomUUID(), Map.of(dressId, 1), Map.of(dressId, 3));
+        givenClosedHolds(List.of());
+
+        reservationService.release(UUID.randomUUID());
+
+        assertThat(reservationService.availableStock(dressId, 3)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("release before any reserve (fresh restart): counters seeded first, never driven negative")
+    void release_beforeFirstReserve_seedsCountersFirst() throws Exception {
+        // 3 units ACTIVE in the table: 2 for the order being expired, 1 for another
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1, UUID.class)).thenReturn(dressId);
+        when(rs.getInt(2)).thenReturn(3);
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT product_id"), any(RowCallbackHandler.class));
+        givenClosedHolds(List.of(Map.entry(dressId, 2)));
+
+        reservationService.release(UUID.randomUUID());
+
+        // Only the other order's unit is still held
+        assertThat(reservationService.availableStock(dressId, 5)).isEqualTo(4);
+        assertThat(reservationService.reserve(UUID.randomUUID(), Map.of(dressId, 5), Map.of(dressId, 5)))
+                .containsExactly(dressId);
+        verify(jdbcTemplate, times(1)).query(startsWith("SELECT product_id"), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,156 @@
+package com.blanchebridal.backend.report;
+
+import com.blanchebridal.backend.report.service.impl.AccountingExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AccountingExportServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private AccountingExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new AccountingExportServiceImpl(jdbcTemplate, transactionManager);
+    }
+
+    // One order line; payment columns null when paid is false
+    private ResultSet row(UUID orderId, String product, int quantity, String unitPrice, boolean paid) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("order_id", UUID.class)).thenReturn(orderId);
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2026, 3, 14, 10, 30)));
+        when(rs.getString("status")).thenReturn(paid ? "CONFIRMED" : "PENDING");
+        when(rs.getBigDecimal("total_amount")).thenReturn(new BigDecimal("12000.00"));
+        when(rs.getString("email")).thenReturn("bride@example.com");
+        when(rs.getString("product_name")).thenReturn(product);
+        when(rs.getObject("quantity", Integer.class)).thenReturn(quantity);
+        when(rs.getBigDecimal("unit_price")).thenReturn(new BigDecimal(unitPrice));
+        if (paid) {
+            when(rs.getString("payment_status")).thenReturn("COMPLETED");
+            when(rs.getBigDecimal("payment_amount")).thenReturn(new BigDecimal("12000.00"));
+            when(rs.getString("receipt_number")).thenReturn("RCP-2026-0001");
+        }
+        return rs;
+    }
+
+    // Runs the captured statement creator against a mock connection, then
+    // feeds the given rows to the row handler the way a cursor would
+    private PreparedStatement stubQuery(ResultSet... rows) throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+
+        doAnswer(inv -> {
+            inv.getArgument(0, PreparedStatementCreator.class).createPreparedStatement(con);
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (ResultSet rs : rows) handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        return ps;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // EXPORT
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("exportOrders: one CSV line per order item, header first")
+    void exportOrders_writesHeaderAndRows() throws Exception {
+        UUID paidOrder = UUID.randomUUID();
+        UUID unpaidOrder = UUID.randomUUID();
+        stubQuery(
+                row(paidOrder, "Lace Gown", 1, "10000.00", true),
+                row(paidOrder, "Pearl Tiara", 2, "1000.00", true),
+                row(unpaidOrder, "Veil", 1, "3000.00", false));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportOrders(out, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).startsWith("orderId,orderDate,orderStatus").endsWith("receiptNumber");
+        assertThat(lines[1]).startsWith(paidOrder.toString()).contains("Lace Gown").endsWith("RCP-2026-0001");
+        assertThat(lines[2]).contains("Pearl Tiara,,2,1000.00,2000.00");
+        assertThat(lines[3]).startsWith(unpaidOrder.toString()).contains("PENDING").endsWith(",");
+    }
+
+    @Test
+    @DisplayName("exportOrders: forward-only cursor with a fetch size, bounded by [from, to + 1 day)")
+    void exportOrders_usesStreamingCursor() throws Exception {
+        PreparedStatement ps = stubQuery();
+
+        exportService.exportOrders(new ByteArrayOutputStream(), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+
+        verify(ps).setFetchSize(intThat(size -> size > 0));
+        verify(ps).setTimestamp(1, Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 0, 0)));
+        verify(ps).setTimestamp(2, Timestamp.valueOf(LocalDateTime.of(2027, 1, 1, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("exportOrders: query runs in a read-only transaction")
+    void exportOrders_readOnlyTransaction() throws Exception {
+        stubQuery();
+
+        exportService.exportOrders(new ByteArrayOutputStream(), LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 1));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+    }
+
+    @Test
+    @DisplayName("exportOrders: the response stream is left open for the container")
+    void exportOrders_doesNotCloseTarget() throws Exception {
+        stubQuery();
+        OutputStream out = spy(new ByteArrayOutputStream());
+
+        exportService.exportOrders(out, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+
+        verify(out, never()).close();
+    }
+
+    @Test
+    @DisplayName("exportOrders: from after to — rejected before any query")
+    void exportOrders_invertedRange_throws() {
+        assertThatThrownBy(() -> exportService.exportOrders(
+                new ByteArrayOutputStream(), LocalDate.of(2026, 4, 1), LocalDate.of(2026, 3, 1)))
+                .isInstanceOf(IllegalStateException.class);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,163 @@
+package com.blanchebridal.backend.report;
+
+import com.blanchebridal.backend.report.dto.SalesGranularity;
+import com.blanchebridal.backend.report.dto.res.SalesReportResponse;
+import com.blanchebridal.backend.report.service.impl.SalesReportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesReportServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private SalesReportServiceImpl reportService;
+
+    private final LocalDate jan1 = LocalDate.of(2026, 1, 1);
+    private final LocalDate dec31 = LocalDate.of(2026, 12, 31);
+
+    @BeforeEach
+    void setUp() {
+        reportService = new SalesReportServiceImpl(jdbcTemplate);
+    }
+
+    // Feeds rows (period, orders, gross, items, pending, cancelled) through the real row mapper
+    private void givenRollupRows(Object[]... rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(inv -> {
+            RowMapper<?> mapper = inv.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getDate("period")).thenReturn(Date.valueOf((LocalDate) row[0]));
+                when(rs.getLong("orders")).thenReturn((Long) row[1]);
+                when(rs.getBigDecimal("gross")).thenReturn(new BigDecimal((String) row[2]));
+                when(rs.getLong("items_sold")).thenReturn((Long) row[3]);
+                when(rs.getLong("pending")).thenReturn((Long) row[4]);
+                when(rs.getLong("cancelled")).thenReturn((Long) row[5]);
+                mapped.add(mapper.mapRow(rs, mapped.size()));
+            }
+            return mapped;
+        });
+    }
+
+    private String capturedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+        return sql.getValue();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // SALES REPORT
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("getSalesReport: monthly buckets come from the rollup table alone, with totals")
+    void monthly_readsRollupOnly() {
+        givenRollupRows(
+                new Object[]{jan1, 12L, "540000.00", 15L, 1L, 3L},
+                new Object[]{LocalDate.of(2026, 2, 1), 8L, "310000.50", 9L, 0L, 1L});
+
+        SalesReportResponse report = reportService.getSalesReport(jan1, dec31, SalesGranularity.MONTH, null, null);
+
+        assertThat(report.buckets()).hasSize(2);
+        assertThat(report.totals().orders()).isEqualTo(20);
+        assertThat(report.totals().gross()).isEqualByComparingTo("850000.50");
+        assertThat(report.totals().itemsSold()).isEqualTo(24);
+        assertThat(report.totals().cancelledOrders()).isEqualTo(4);
+
+        String sql = capturedSql();
+        assertThat(sql).contains("FROM daily_sales_rollup").doesNotContain("order_items").doesNotContain("FROM orders");
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class),
+                eq("month"), eq(Date.valueOf(jan1)), eq(Date.valueOf(dec31)));
+    }
+
+    @Test
+    @DisplayName("getSalesReport: deltas not folded yet are counted alongside the rollup")
+    void unfoldedDeltas_included() {
+        givenRollupRows();
+
+        reportService.getSalesReport(jan1, dec31, SalesGranularity.DAY, null, null);
+
+        assertThat(capturedSql()).contains("UNION ALL").contains("FROM daily_sales_rollup_delta");
+    }
+
+    @Test
+    @DisplayName("getSalesReport: fulfillment method and order mode narrow the rollup rows")
+    void filters_appendedAndNormalised() {
+        givenRollupRows();
+
+        reportService.getSalesReport(jan1, dec31, SalesGranularity.YEAR, " delivery ", "rental");
+
+        assertThat(capturedSql()).contains("AND fulfillment_method = ?").contains("AND order_mode = ?");
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class),
+                eq("year"), any(), any(), eq("DELIVERY"), eq("RENTAL"));
+    }
+
+    @Test
+    @DisplayName("getSalesReport: empty range gives empty buckets and zero totals")
+    void noOrders_zeroTotals() {
+        givenRollupRows();
+
+        SalesReportResponse report = reportService.getSalesReport(jan1, jan1, SalesGranularity.DAY, null, null);
+
+        assertThat(report.buckets()).isEmpty();
+        assertThat(report.totals().gross()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("getSalesReport: from after to is rejected without querying")
+    void invertedRange_rejected() {
+        assertThatThrownBy(() -> reportService.getSalesReport(dec31, jan1, SalesGranularity.DAY, null, null))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("getSalesReport: decades of daily buckets are rejected — use MONTH or YEAR")
+    void dailyOverLongRange_rejected() {
+        assertThatThrownBy(() -> reportService.getSalesReport(
+                LocalDate.of(2000, 1, 1), dec31, SalesGranularity.DAY, null, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("MONTH or YEAR");
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // FOLD DELTAS
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("foldDeltas: one statement moves a bounded batch into the rollup, buckets in key order")
+    void foldDeltas_singleBoundedStatement() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(3);
+
+        assertThat(reportService.foldDeltas()).isEqualTo(3);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture(), eq(5_000));
+        assertThat(sql.getValue())
+                .contains("DELETE FROM daily_sales_rollup_delta")
+                .contains("FOR UPDATE SKIP LOCKED")
+                .contains("ORDER BY day, status, fulfillment_method, order_mode")
+                .contains("ON CONFLICT");
+    }
+}
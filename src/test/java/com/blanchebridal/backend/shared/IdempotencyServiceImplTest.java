@@ -0,0 +1,241 @@
+package com.blanchebridal.backend.shared;
+
+import com.blanchebridal.backend.exception.ConflictException;
+import com.blanchebridal.backend.shared.idempotency.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyServiceImpl idempotencyService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final Map<String, Object> request = Map.of("orderId", "o-1");
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(jdbcTemplate, objectMapper, 100,
+                Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofMillis(500), new SimpleMeterRegistry());
+
+        // Nothing stored in the table, so every claim succeeds, unless a test says otherwise
+        when(jdbcTemplate.query(startsWith("SELECT"), any(RowMapper.class), any(), any(), any()))
+                .thenReturn(List.of());
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), any(Object[].class)))
+                .thenReturn(1);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════
+    // EXECUTE
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("execute: no key — action runs every time, nothing stored")
+    void execute_noKey_runsAction() {
+        AtomicInteger runs = new AtomicInteger();
+
+        idempotencyService.execute("order:create", userId, null, request, runs::incrementAndGet);
+        idempotencyService.execute("order:create", userId, null, request, runs::incrementAndGet);
+
+        assertThat(runs).hasValue(2);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("execute: retry with the same key replays the first result without running again")
+    void execute_retry_replaysStoredResult() {
+        AtomicInteger runs = new AtomicInteger();
+
+        Object first = idempotencyService.execute("order:create", userId, "k-1", request,
+                () -> Map.of("id", "order-" + runs.incrementAndGet()));
+        Object retry = idempotencyService.execute("order:create", userId, "k-1", request,
+                () -> Map.of("id", "order-" + runs.incrementAndGet()));
+
+        assertThat(runs).hasValue(1);
+        assertThat(first).isEqualTo(Map.of("id", "order-1"));
+        assertThat(((JsonNode) retry).get("id").asText()).isEqualTo("order-1");
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(startsWith("INSERT INTO idempotency_keys"),
+                eq(userId), eq("order:create"), eq("k-1"), anyString(), any());
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE idempotency_keys SET status = 'COMPLETED'"),
+                eq("{\"id\":\"order-1\"}"), any(), eq(userId), eq("order:create"), eq("k-1"));
+    }
+
+    @Test
+    @DisplayName("execute: key stored by another instance is replayed from the table")
+    void execute_storedInTable_replayed() throws Exception {
+        String hash = DigestUtils.sha256Hex(objectMapper.writeValueAsBytes(request));
+        claimHeldElsewhere("payment:initiate", "k-2");
+        when(jdbcTemplate.query(startsWith("SELECT"), any(RowMapper.class), eq(userId), eq("payment:initiate"), eq("k-2")))
+                .thenAnswer(inv -> List.of(inv.getArgument(1, RowMapper.class).mapRow(storedRow("COMPLETED", hash), 0)));
+
+        Object result = idempotencyService.execute("payment:initiate", userId, "k-2", request,
+                () -> { throw new AssertionError("must not run"); });
+
+        assertThat(((JsonNode) result).get("hash").asText()).isEqualTo("ABC");
+    }
+
+    @Test
+    @DisplayName("execute: same key with a different request body is a conflict")
+    void execute_differentRequest_conflict() {
+        idempotencyService.execute("order:create", userId, "k-3", request, () -> Map.of("id", "order-1"));
+
+        assertThatThrownBy(() -> idempotencyService.execute("order:create", userId, "k-3",
+                Map.of("orderId", "o-2"), () -> Map.of("id", "order-2")))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    @DisplayName("execute: failed action releases its claim, so the same key can be retried")
+    void execute_failure_releasesClaim() {
+        assertThatThrownBy(() -> idempotencyService.execute("order:create", userId, "k-4", request,
+                () -> { throw new IllegalStateException("Insufficient stock"); }))
+                .isInstanceOf(IllegalStateException.class);
+
+        Object retry = idempotencyService.execute("order:create", userId, "k-4", request, () -> "created");
+
+        assertThat(retry).isEqualTo("created");
+        verify(jdbcTemplate, times(1)).update(startsWith("DELETE FROM idempotency_keys"),
+                eq(userId), eq("order:create"), eq("k-4"));
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT"), any(Object[].class));
+        verify(jdbcTemplate, times(1)).update(startsWith("UPDATE"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("execute: key claimed by another instance — waits for its result instead of running again")
+    void execute_claimedElsewhere_waitsAndReplays() throws Exception {
+        String hash = DigestUtils.sha256Hex(objectMapper.writeValueAsBytes(request));
+        claimHeldElsewhere("order:create", "k-6");
+        when(jdbcTemplate.query(startsWith("SELECT"), any(RowMapper.class), eq(userId), eq("order:create"), eq("k-6")))
+                .thenAnswer(inv -> List.of(inv.getArgument(1, RowMapper.class).mapRow(storedRow("IN_PROGRESS", hash), 0)))
+                .thenAnswer(inv -> List.of(inv.getArgument(1, RowMapper.class).mapRow(storedRow("COMPLETED", hash), 0)));
+
+        Object result = idempotencyService.execute("order:create", userId, "k-6", request,
+                () -> { throw new AssertionError("must not run"); });
+
+        assertThat(((JsonNode) result).get("hash").asText()).isEqualTo("ABC");
+    }
+
+    @Test
+    @DisplayName("execute: key still running on another instance after the wait — conflict, action not run")
+    void execute_claimedElsewhereTooLong_conflict() throws Exception {
+        String hash = DigestUtils.sha256Hex(objectMapper.writeValueAsBytes(request));
+        claimHeldElsewhere("order:create", "k-7");
+        when(jdbcTemplate.query(startsWith("SELECT"), any(RowMapper.class), eq(userId), eq("order:create"), eq("k-7")))
+                .thenAnswer(inv -> List.of(inv.getArgument(1, RowMapper.class).mapRow(storedRow("IN_PROGRESS", hash), 0)));
+
+        assertThatThrownBy(() -> idempotencyService.execute("order:create", userId, "k-7", request,
+                () -> { throw new AssertionError("must not run"); }))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("still being processed");
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("execute: claim released by a failed run elsewhere — this request claims it and runs")
+    void execute_claimReleasedElsewhere_runsAction() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"),
+                eq(userId), eq("order:create"), eq("k-8"), anyString(), any()))
+                .thenReturn(0, 1);
+
+        Object result = idempotencyService.execute("order:create", userId, "k-8", request, () -> "created");
+
+        assertThat(result).isEqualTo("created");
+    }
+
+    @Test
+    @DisplayName("execute: concurrent duplicates coalesce onto one in-flight execution")
+    void execute_concurrentDuplicates_runOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> leader = pool.submit(() -> idempotencyService.execute("order:create", userId, "k-5", request, () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(release);
+                return Map.of("id", "order-1");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<Object>> duplicates = List.of(
+                    pool.submit(() -> idempotencyService.execute("order:create", userId, "k-5", request, runs::incrementAndGet)),
+                    pool.submit(() -> idempotencyService.execute("order:create", userId, "k-5", request, runs::incrementAndGet)));
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(Map.of("id", "order-1"));
+            for (Future<Object> duplicate : duplicates) {
+                assertThat(((JsonNode) duplicate.get(5, TimeUnit.SECONDS)).get("id").asText()).isEqualTo("order-1");
+            }
+            assertThat(runs).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("execute: over-long key is rejected")
+    void execute_longKey_rejected() {
+        assertThatThrownBy(() -> idempotencyService.execute("order:create", userId, "k".repeat(101), request, () -> "x"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void claimHeldElsewhere(String scope, String key) {
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"),
+                eq(userId), eq(scope), eq(key), anyString(), any()))
+                .thenReturn(0);
+    }
+
+    private static ResultSet storedRow(String status, String hash) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(status);
+        when(rs.getString(2)).thenReturn(hash);
+        when(rs.getString(3)).thenReturn("COMPLETED".equals(status) ? "{\"hash\":\"ABC\"}" : null);
+        return rs;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -110,7 +110,7 @@ class UserServiceImplTest {
         // Return whatever user was passed in to save()
         when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        UpdateProfileRequest request = new UpdateProfileRequest("Sanduni", "Silva", "0779999999");
+        UpdateProfileRequest request = new UpdateProfileRequest("Sanduni", "Silva", "0779999999", null);
         UserResponse result = userService.updateProfile(customerId, request);
 
         // The returned profile should have the new values